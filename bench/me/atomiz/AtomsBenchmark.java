@@ -0,0 +1,381 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite of the common operations of {@link Atoms} and {@link AtomsBuilder} against {@link ArrayList} as the
+ * baseline, over 10 to 10 000 000 elements. Every benchmark is named {@code operation_List} so the rows of one
+ * operation are listed together. Run it with the gc profiler through {@link #main} or
+ * {@code mvn -B test-compile exec:exec -Dbench=AtomsBenchmark}.
+ * <p>
+ * Operations modifying the list get a fresh copy of it before every invocation, so their score is the time of one
+ * pass over the list. The gc profiler counts the allocation of those copies too, so compare the {@code B/op} of such
+ * operations against the same operation of the other lists. Linear operations such as {@code contains},
+ * {@code remove} and {@code add(int, T)} run a bounded amount of times per invocation on large sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class AtomsBenchmark {
+	private static final Atom[] POOL = new Atom[1024];
+	private static final Atom MISSING = new Atom("missing");
+
+	static {
+		for (int i = 0; i < POOL.length; i++)
+			POOL[i] = new Atom("atom" + i, i, AtomicState.values()[i % 5], i, i, i);
+	}
+
+	/**
+	 * The source elements and read only lists of them, built once per size.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "10", "1000", "100000", "10000000" })
+		public int size;
+		Atom[] elements;
+		List<Atom> collection;
+		Atoms<Atom> atoms;
+		AtomsBuilder<Atom> builder;
+		ArrayList<Atom> list;
+		int linear;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			elements = new Atom[size];
+			for (int i = 0; i < size; i++)
+				elements[i] = POOL[i & (POOL.length - 1)];
+
+			collection = Arrays.asList(elements);
+			atoms = new Atoms<>(elements.clone());
+			builder = new AtomsBuilder<>(elements.clone());
+			list = new ArrayList<>(collection);
+			linear = Math.max(1, Math.min(1_000, 10_000_000 / size));
+		}
+	}
+
+	/**
+	 * Fresh copies of the source lists for the operations modifying them.
+	 */
+	@State(Scope.Thread)
+	public static class Fresh {
+		Atoms<Atom> atoms;
+		AtomsBuilder<Atom> builder;
+		ArrayList<Atom> list;
+
+		@Setup(Level.Invocation)
+		public void setup(Source source) {
+			atoms = new Atoms<>(source.elements.clone());
+			builder = new AtomsBuilder<>(source.elements.clone());
+			list = new ArrayList<>(source.collection);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(AtomsBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	// region add
+
+	@Benchmark
+	public Object add_Atoms(Source s) {
+		Atoms<Atom> a = new Atoms<>();
+		for (Atom e : s.elements)
+			a.add(e);
+		return a;
+	}
+
+	@Benchmark
+	public Object add_AtomsBuilder(Source s) {
+		AtomsBuilder<Atom> b = new AtomsBuilder<>();
+		for (Atom e : s.elements)
+			b.add(e);
+		return b;
+	}
+
+	@Benchmark
+	public Object add_ArrayList(Source s) {
+		List<Atom> l = new ArrayList<>();
+		for (Atom e : s.elements)
+			l.add(e);
+		return l;
+	}
+
+	@Benchmark
+	public int addAtIndex_Atoms(Source s, Fresh f) {
+		for (int i = 0; i < s.linear; i++)
+			f.atoms.add(s.size / 2, MISSING);
+		return f.atoms.size();
+	}
+
+	@Benchmark
+	public int addAtIndex_AtomsBuilder(Source s, Fresh f) {
+		for (int i = 0; i < s.linear; i++)
+			f.builder.add(s.size / 2, MISSING);
+		return f.builder.size();
+	}
+
+	@Benchmark
+	public int addAtIndex_ArrayList(Source s, Fresh f) {
+		for (int i = 0; i < s.linear; i++)
+			f.list.add(s.size / 2, MISSING);
+		return f.list.size();
+	}
+
+	@Benchmark
+	public int addAllArray_Atoms(Source s, Fresh f) {
+		f.atoms.addAll(s.elements);
+		return f.atoms.size();
+	}
+
+	@Benchmark
+	public int addAllArray_AtomsBuilder(Source s, Fresh f) {
+		return f.builder.addAll(s.elements).size();
+	}
+
+	@Benchmark
+	public int addAllArray_ArrayList(Source s, Fresh f) {
+		f.list.addAll(Arrays.asList(s.elements));
+		return f.list.size();
+	}
+
+	@Benchmark
+	public int addAllCollection_Atoms(Source s, Fresh f) {
+		f.atoms.addAll(s.collection);
+		return f.atoms.size();
+	}
+
+	@Benchmark
+	public int addAllCollection_AtomsBuilder(Source s, Fresh f) {
+		return f.builder.addAll(s.collection).size();
+	}
+
+	@Benchmark
+	public int addAllCollection_ArrayList(Source s, Fresh f) {
+		f.list.addAll(s.collection);
+		return f.list.size();
+	}
+
+	@Benchmark
+	public int addAllSelf_Atoms(Source s, Fresh f) {
+		f.atoms.addAll(s.atoms);
+		return f.atoms.size();
+	}
+
+	@Benchmark
+	public int addAllSelf_AtomsBuilder(Source s, Fresh f) {
+		return f.builder.addAll(s.builder).size();
+	}
+
+	@Benchmark
+	public int addAllSelf_ArrayList(Source s, Fresh f) {
+		f.list.addAll(s.list);
+		return f.list.size();
+	}
+
+	@Benchmark
+	public int addAllAtIndex_Atoms(Source s, Fresh f) {
+		f.atoms.addAll(0, s.collection);
+		return f.atoms.size();
+	}
+
+	@Benchmark
+	public int addAllAtIndex_AtomsBuilder(Source s, Fresh f) {
+		return f.builder.addAll(0, s.collection).size();
+	}
+
+	@Benchmark
+	public int addAllAtIndex_ArrayList(Source s, Fresh f) {
+		f.list.addAll(0, s.collection);
+		return f.list.size();
+	}
+
+	// endregion
+
+	// region read
+
+	@Benchmark
+	public int get_Atoms(Source s) {
+		int sum = 0;
+		for (int i = 0; i < s.size; i++)
+			sum += s.atoms.get(i).number;
+		return sum;
+	}
+
+	@Benchmark
+	public int get_AtomsBuilder(Source s) {
+		int sum = 0;
+		for (int i = 0; i < s.size; i++)
+			sum += s.builder.get(i).number;
+		return sum;
+	}
+
+	@Benchmark
+	public int get_ArrayList(Source s) {
+		int sum = 0;
+		for (int i = 0; i < s.size; i++)
+			sum += s.list.get(i).number;
+		return sum;
+	}
+
+	@Benchmark
+	public int containsMissing_Atoms(Source s) {
+		int found = 0;
+		for (int i = 0; i < s.linear; i++)
+			found += s.atoms.contains(MISSING) ? 1 : 0;
+		return found;
+	}
+
+	@Benchmark
+	public int containsMissing_AtomsBuilder(Source s) {
+		int found = 0;
+		for (int i = 0; i < s.linear; i++)
+			found += s.builder.contains(MISSING) ? 1 : 0;
+		return found;
+	}
+
+	@Benchmark
+	public int containsMissing_ArrayList(Source s) {
+		int found = 0;
+		for (int i = 0; i < s.linear; i++)
+			found += s.list.contains(MISSING) ? 1 : 0;
+		return found;
+	}
+
+	@Benchmark
+	public int subListGet_Atoms(Source s) {
+		int window = Math.max(1, s.size / 2);
+		Atoms<Atom> sub = s.atoms.subList(s.size / 4, s.size / 4 + window);
+		int sum = 0;
+		for (int i = 0; i < window; i++)
+			sum += sub.get(i).number;
+		return sum;
+	}
+
+	@Benchmark
+	public int subListGet_AtomsBuilder(Source s) {
+		int window = Math.max(1, s.size / 2);
+		AtomsBuilder<Atom> sub = s.builder.subList(s.size / 4, s.size / 4 + window);
+		int sum = 0;
+		for (int i = 0; i < window; i++)
+			sum += sub.get(i).number;
+		return sum;
+	}
+
+	@Benchmark
+	public int subListGet_ArrayList(Source s) {
+		int window = Math.max(1, s.size / 2);
+		List<Atom> sub = s.list.subList(s.size / 4, s.size / 4 + window);
+		int sum = 0;
+		for (int i = 0; i < window; i++)
+			sum += sub.get(i).number;
+		return sum;
+	}
+
+	@Benchmark
+	public void forEach_Atoms(Source s, Blackhole bh) {
+		s.atoms.forEach(bh::consume);
+	}
+
+	@Benchmark
+	public void forEach_AtomsBuilder(Source s, Blackhole bh) {
+		s.builder.forEach(bh::consume);
+	}
+
+	@Benchmark
+	public void forEach_ArrayList(Source s, Blackhole bh) {
+		s.list.forEach(bh::consume);
+	}
+
+	// endregion
+
+	// region remove
+
+	@Benchmark
+	public int removeFirst_Atoms(Source s, Fresh f) {
+		for (int i = 0, n = Math.min(s.linear, s.size); i < n; i++)
+			f.atoms.remove(f.atoms.get(0));
+		return f.atoms.size();
+	}
+
+	@Benchmark
+	public int removeFirst_AtomsBuilder(Source s, Fresh f) {
+		for (int i = 0, n = Math.min(s.linear, s.size); i < n; i++)
+			f.builder.remove(f.builder.get(0));
+		return f.builder.size();
+	}
+
+	@Benchmark
+	public int removeFirst_ArrayList(Source s, Fresh f) {
+		for (int i = 0, n = Math.min(s.linear, s.size); i < n; i++)
+			f.list.remove(f.list.get(0));
+		return f.list.size();
+	}
+
+	@Benchmark
+	public int removeIfHalf_Atoms(Fresh f) {
+		return f.atoms.removeIf(e -> e.number % 2 == 0);
+	}
+
+	@Benchmark
+	public int removeIfHalf_AtomsBuilder(Fresh f) {
+		return f.builder.removeIf(e -> e.number % 2 == 0).size();
+	}
+
+	@Benchmark
+	public boolean removeIfHalf_ArrayList(Fresh f) {
+		return f.list.removeIf(e -> e.number % 2 == 0);
+	}
+
+	@Benchmark
+	public int removeAll_Atoms(Fresh f) {
+		return f.atoms.removeAll(POOL[0]);
+	}
+
+	@Benchmark
+	public int removeAll_AtomsBuilder(Fresh f) {
+		return f.builder.removeAll(POOL[0]).size();
+	}
+
+	@Benchmark
+	public boolean removeAll_ArrayList(Fresh f) {
+		return f.list.removeIf(e -> Objects.equals(e, POOL[0]));
+	}
+
+	// endregion
+
+	// region immutable
+
+	@Benchmark
+	public Object build_AtomsBuilder(Fresh f) {
+		return f.builder.build();
+	}
+
+	@Benchmark
+	public Object buildAddBuild_AtomsBuilder(Fresh f) {
+		f.builder.build();
+		return f.builder.add(POOL[0]).build();
+	}
+
+	@Benchmark
+	public Object copyOf_ArrayList(Fresh f) {
+		return List.copyOf(f.list);
+	}
+
+	// endregion
+}
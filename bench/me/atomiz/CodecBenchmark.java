@@ -0,0 +1,91 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite comparing the time of {@link Atoms#toString()} with the {@link AtomCodec} binary format written and read
+ * through a {@link DataOutputStream} and through a channel. Run it with the gc profiler through {@link #main} or
+ * {@code mvn -B test-compile exec:exec -Dbench=CodecBenchmark}, the size of both formats is printed after every trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+	/**
+	 * The list and its encoding, built once per size.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "10000", "100000", "1000000" })
+		public int size;
+		Atoms<Atom> atoms;
+		byte[] encoded;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			atoms = new Atoms<>(size);
+			for (int i = 0; i < size; i++)
+				atoms.add(new Atom("atom" + (i % 100), i, AtomicState.values()[i % 5], i * 0.5, i % 7, i % 1000));
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			AtomCodec.write(atoms, new DataOutputStream(out));
+			encoded = out.toByteArray();
+		}
+
+		@TearDown(Level.Trial)
+		public void report() {
+			System.out.printf("%nAtoms.toString %d bytes, AtomCodec %d bytes%n", atoms.toString().getBytes().length, encoded.length);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(CodecBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	@Benchmark
+	public String toString_Atoms(Source s) {
+		return s.atoms.toString();
+	}
+
+	@Benchmark
+	public byte[] write_DataOutput(Source s) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		AtomCodec.write(s.atoms, new DataOutputStream(out));
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public int write_Channel(Source s) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		AtomCodec.write(s.atoms, Channels.newChannel(out));
+		return out.size();
+	}
+
+	@Benchmark
+	public Object read_DataInput(Source s) throws IOException {
+		return AtomCodec.read(new DataInputStream(new ByteArrayInputStream(s.encoded)));
+	}
+
+	@Benchmark
+	public Object read_Channel(Source s) throws IOException {
+		return AtomCodec.read(Channels.newChannel(new ByteArrayInputStream(s.encoded)));
+	}
+}
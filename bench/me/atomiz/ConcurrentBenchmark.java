@@ -0,0 +1,62 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite of the append throughput of {@link ConcurrentAtoms} against an {@link Atoms} list guarded by a single
+ * {@code synchronized} block. {@link #main} runs it from one thread up to twice the amount of available processors
+ * with the gc profiler, {@code mvn -B test-compile exec:exec -Dbench=ConcurrentBenchmark} runs it on one thread unless
+ * JMH is given {@code -t}.
+ * <p>
+ * Every iteration starts from empty lists shared by all benchmark threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class ConcurrentBenchmark {
+	private static final Atom ATOM = new Atom("atom");
+
+	/**
+	 * The lists shared by the benchmark threads.
+	 */
+	@State(Scope.Benchmark)
+	public static class Lists {
+		Atoms<Atom> locked;
+		ConcurrentAtoms<Atom> concurrent;
+
+		@Setup(Level.Iteration)
+		public void setup() {
+			locked = new Atoms<>();
+			concurrent = new ConcurrentAtoms<>(Runtime.getRuntime().availableProcessors() * 2);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		for (int threads = 1, max = Runtime.getRuntime().availableProcessors() * 2; threads <= max; threads <<= 1)
+			new Runner(new OptionsBuilder()
+					.include(ConcurrentBenchmark.class.getSimpleName())
+					.threads(threads)
+					.addProfiler(GCProfiler.class)
+					.build()).run();
+	}
+
+	@Benchmark
+	public void add_SynchronizedAtoms(Lists l) {
+		synchronized (l.locked) {
+			l.locked.add(ATOM);
+		}
+	}
+
+	@Benchmark
+	public void add_ConcurrentAtoms(Lists l) {
+		l.concurrent.add(ATOM);
+	}
+}
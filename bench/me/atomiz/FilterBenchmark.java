@@ -0,0 +1,82 @@
+package me.atomiz;
+
+import me.atomiz.AtomFilter.Column;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * JMH suite comparing a compound numeric filter as a {@link Atoms#countIf} predicate, as an {@link AtomTable#countIf}
+ * row predicate and as an {@link AtomFilter} bitmask scan over randomly ordered values. Run it with the gc profiler
+ * through {@link #main} or {@code mvn -B test-compile exec:exec -Dbench=FilterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+	private static final Predicate<Atom> MATCH = e -> e.meltingPoint >= 100 && e.meltingPoint <= 500 && e.mass > 1000 || e.density < 1;
+	private static final AtomFilter FILTER = AtomFilter.between(Column.MELTING_POINT, 100, 500)
+			.and(AtomFilter.above(Column.MASS, 1000))
+			.or(AtomFilter.below(Column.DENSITY, 1));
+
+	/**
+	 * The list and its table, built once per size. The row predicate of the table is created once so the scan does not
+	 * allocate a capturing lambda per invocation.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "10000", "100000", "1000000" })
+		public int size;
+		Atoms<Atom> atoms;
+		AtomTable table;
+		IntPredicate matchRow;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			Random random = new Random(42);
+			atoms = new Atoms<>(size);
+			for (int i = 0; i < size; i++)
+				atoms.add(new Atom("atom" + (i % 100), i, AtomicState.values()[i % 5], random.nextInt(5000), random.nextInt(23), random.nextInt(1000)));
+
+			AtomTable t = AtomTable.of(atoms);
+			table = t;
+			matchRow = i -> t.meltingPoint(i) >= 100 && t.meltingPoint(i) <= 500 && t.mass(i) > 1000 || t.density(i) < 1;
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(FilterBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	@Benchmark
+	public int countIf_Atoms(Source s) {
+		return s.atoms.countIf(MATCH);
+	}
+
+	@Benchmark
+	public int countIf_AtomTable(Source s) {
+		return s.table.countIf(s.matchRow);
+	}
+
+	@Benchmark
+	public int count_AtomFilter(Source s) {
+		return FILTER.count(s.table);
+	}
+
+	@Benchmark
+	public int[] select_AtomFilter(Source s) {
+		return FILTER.select(s.table);
+	}
+}
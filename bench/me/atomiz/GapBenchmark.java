@@ -0,0 +1,187 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite comparing the shifting {@link Atoms} and {@link ArrayList} with the {@link GapAtoms} gap buffer on edits
+ * around a cursor moving by a few elements, on edits at random indexes and on reading every element. Every edit
+ * benchmark runs {@value #EDITS} edits per invocation on fresh copies of the lists. Run it with the gc profiler through
+ * {@link #main} or {@code mvn -B test-compile exec:exec -Dbench=GapBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GapBenchmark {
+	private static final int EDITS = 10_000;
+	private static final int STEP = 16;
+	private static final Atom POOL = new Atom("Oxygen", 8, AtomicState.GAS, 15.999, 0.001429, -218.79);
+
+	/**
+	 * The source elements and the edit indexes, built once per size, and a gap buffer with its gap in the middle for
+	 * the reads.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "10000", "100000", "1000000" })
+		public int size;
+		Atom[] elements;
+		int[] cursor;
+		int[] random;
+		Atoms<Atom> atoms;
+		GapAtoms<Atom> gap;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			elements = new Atom[size];
+			for (int i = 0; i < size; i++)
+				elements[i] = new Atom("atom", i, AtomicState.SOLID, i, i, i);
+
+			SplittableRandom moves = new SplittableRandom(42);
+			cursor = new int[EDITS];
+			int at = size / 2, length = size;
+			for (int e = 0; e < EDITS; e++) {
+				at = Math.max(1, Math.min(length, at + moves.nextInt(-STEP, STEP + 1)));
+				cursor[e] = at;
+				length += (e & 3) == 3 ? -1 : 1;
+			}
+
+			SplittableRandom indexes = new SplittableRandom(42);
+			random = new int[EDITS];
+			for (int e = 0; e < EDITS; e++)
+				random[e] = indexes.nextInt(size + e + 1);
+
+			atoms = new Atoms<>(elements.clone());
+			gap = new GapAtoms<>(elements);
+			gap.add(size / 2, POOL);
+		}
+	}
+
+	/**
+	 * Fresh copies of the source lists for the edits.
+	 */
+	@State(Scope.Thread)
+	public static class Fresh {
+		Atoms<Atom> atoms;
+		ArrayList<Atom> list;
+		GapAtoms<Atom> gap;
+
+		@Setup(Level.Invocation)
+		public void setup(Source source) {
+			atoms = new Atoms<>(source.size);
+			atoms.addAll(source.elements);
+			list = new ArrayList<>(Arrays.asList(source.elements));
+			gap = new GapAtoms<>(source.elements);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(GapBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	// region edits around a cursor
+
+	@Benchmark
+	public int cursorAdd_Atoms(Source s, Fresh f) {
+		for (int i : s.cursor)
+			f.atoms.add(i, POOL);
+		return f.atoms.size();
+	}
+
+	@Benchmark
+	public int cursorAdd_ArrayList(Source s, Fresh f) {
+		for (int i : s.cursor)
+			f.list.add(i, POOL);
+		return f.list.size();
+	}
+
+	@Benchmark
+	public int cursorAdd_GapAtoms(Source s, Fresh f) {
+		for (int i : s.cursor)
+			f.gap.add(i, POOL);
+		return f.gap.size();
+	}
+
+	@Benchmark
+	public int cursorMixed_Atoms(Source s, Fresh f) {
+		for (int e = 0; e < EDITS; e++)
+			if ((e & 3) == 3)
+				f.atoms.removeAt(s.cursor[e] - 1);
+			else
+				f.atoms.add(s.cursor[e], POOL);
+		return f.atoms.size();
+	}
+
+	@Benchmark
+	public int cursorMixed_ArrayList(Source s, Fresh f) {
+		for (int e = 0; e < EDITS; e++)
+			if ((e & 3) == 3)
+				f.list.remove(s.cursor[e] - 1);
+			else
+				f.list.add(s.cursor[e], POOL);
+		return f.list.size();
+	}
+
+	@Benchmark
+	public int cursorMixed_GapAtoms(Source s, Fresh f) {
+		for (int e = 0; e < EDITS; e++)
+			if ((e & 3) == 3)
+				f.gap.removeAt(s.cursor[e] - 1);
+			else
+				f.gap.add(s.cursor[e], POOL);
+		return f.gap.size();
+	}
+
+	// endregion
+
+	// region edits at random indexes
+
+	@Benchmark
+	public int randomAdd_Atoms(Source s, Fresh f) {
+		for (int i : s.random)
+			f.atoms.add(i, POOL);
+		return f.atoms.size();
+	}
+
+	@Benchmark
+	public int randomAdd_GapAtoms(Source s, Fresh f) {
+		for (int i : s.random)
+			f.gap.add(i, POOL);
+		return f.gap.size();
+	}
+
+	// endregion
+
+	// region reads
+
+	@Benchmark
+	public int get_Atoms(Source s) {
+		int sum = 0;
+		for (int i = 0; i < s.size; i++)
+			sum += s.atoms.get(i).number;
+		return sum;
+	}
+
+	@Benchmark
+	public int get_GapAtoms(Source s) {
+		int sum = 0;
+		for (int i = 0; i < s.size; i++)
+			sum += s.gap.get(i).number;
+		return sum;
+	}
+
+	// endregion
+}
@@ -0,0 +1,82 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite comparing the {@link GrowthPolicy growth policies} on an append only workload and on a queue like workload
+ * which fills and drains the list twice. Every invocation starts from an empty list, so the score is the time of the
+ * whole workload and the {@code gc.alloc.rate.norm} the bytes of the arrays the policy allocated. Run it with the gc
+ * profiler through {@link #main} or {@code mvn -B test-compile exec:exec -Dbench=GrowthBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrowthBenchmark {
+	private static final Atom ATOM = new Atom("atom");
+
+	/**
+	 * The policy and the amount of elements to append.
+	 */
+	@State(Scope.Thread)
+	public static class Workload {
+		@Param({ "10000", "100000", "1000000" })
+		public int size;
+		@Param({ "doubling", "oneAndHalf", "fixedChunk", "hysteresis", "default" })
+		public String policy;
+		GrowthPolicy growth;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			growth = switch (policy) {
+				case "doubling" -> GrowthPolicy.doubling();
+				case "oneAndHalf" -> GrowthPolicy.oneAndHalf();
+				case "fixedChunk" -> GrowthPolicy.fixedChunk(4096);
+				case "hysteresis" -> GrowthPolicy.doubling().shrinkWithHysteresis();
+				default -> GrowthPolicy.DEFAULT;
+			};
+		}
+
+		Atoms<Atom> atoms() {
+			Atoms<Atom> atoms = new Atoms<>();
+			atoms.setGrowthPolicy(growth);
+			return atoms;
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(GrowthBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	@Benchmark
+	public Object append_Atoms(Workload w) {
+		Atoms<Atom> atoms = w.atoms();
+		for (int i = 0; i < w.size; i++)
+			atoms.add(ATOM);
+
+		return atoms;
+	}
+
+	@Benchmark
+	public Object fillDrain_Atoms(Workload w) {
+		Atoms<Atom> atoms = w.atoms();
+		for (int round = 0; round < 2; round++) {
+			for (int i = 0; i < w.size; i++)
+				atoms.add(ATOM);
+			for (int i = 0; i < w.size; i++)
+				atoms.removeLast();
+		}
+
+		return atoms;
+	}
+}
@@ -0,0 +1,130 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite comparing {@link Atoms#contains} and {@link Atoms#count} lookups with and without the hash index, and with
+ * the binary search of {@link SortedAtoms#find(int)} by number. Also compares counting by state and number with a scan
+ * and with the {@link AtomIndexes}. Every invocation runs {@value #LOOKUPS} lookups. Run it with the gc profiler
+ * through {@link #main} or {@code mvn -B test-compile exec:exec -Dbench=IndexBenchmark}, the footprint of the indexes
+ * is printed after every trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexBenchmark {
+	private static final int LOOKUPS = 1_000;
+
+	/**
+	 * The lists, indexes and lookup probes, built once per size.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "10000", "50000", "250000" })
+		public int size;
+		Atoms<Atom> plain;
+		Atoms<Atom> indexed;
+		SortedAtoms<Atom> sorted;
+		AtomIndexes fields;
+		Atom[] probes;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			plain = atoms(size);
+			indexed = atoms(size);
+			indexed.setIndexed(true);
+			sorted = new SortedAtoms<>(a -> a.number);
+			plain.forEach(sorted::add);
+			fields = new AtomIndexes(atoms(size)).byState().byNumber();
+
+			probes = new Atom[LOOKUPS];
+			for (int i = 0; i < LOOKUPS; i++)
+				probes[i] = new Atom("atom", size - i, AtomicState.SOLID, 1, 1, 1);
+		}
+
+		@TearDown(Level.Trial)
+		public void report() {
+			System.out.printf("%nAtoms.indexBytes %d, AtomIndexes.bytes %d%n", indexed.indexBytes(), fields.bytes());
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(IndexBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	private static int lookups(Atoms<Atom> atoms, Atom[] probes) {
+		int found = 0;
+		for (Atom probe : probes)
+			if (atoms.contains(probe))
+				found += atoms.count(probe);
+
+		return found;
+	}
+
+	private static Atoms<Atom> atoms(int size) {
+		Atoms<Atom> atoms = new Atoms<>(size);
+		for (int i = 0; i < size; i++)
+			atoms.add(new Atom("atom", i, AtomicState.SOLID, 1, 1, 1));
+
+		return atoms;
+	}
+
+	// region contains
+
+	@Benchmark
+	public int contains_Atoms(Source s) {
+		return lookups(s.plain, s.probes);
+	}
+
+	@Benchmark
+	public int contains_IndexedAtoms(Source s) {
+		return lookups(s.indexed, s.probes);
+	}
+
+	@Benchmark
+	public int find_SortedAtoms(Source s) {
+		int found = 0;
+		for (int i = 0; i < LOOKUPS; i++)
+			if (s.sorted.find(s.size - i) != null)
+				found++;
+
+		return found;
+	}
+
+	// endregion
+
+	// region count by field
+
+	@Benchmark
+	public int countStateNumber_Atoms(Source s) {
+		int found = 0;
+		for (int i = 0; i < LOOKUPS; i++) {
+			int n = i;
+			found += s.plain.countIf(a -> a.state == AtomicState.GAS) + s.plain.countIf(a -> a.number == n);
+		}
+
+		return found;
+	}
+
+	@Benchmark
+	public int countStateNumber_AtomIndexes(Source s) {
+		int found = 0;
+		for (int i = 0; i < LOOKUPS; i++)
+			found += s.fields.countState(AtomicState.GAS) + s.fields.countNumber(i);
+
+		return found;
+	}
+
+	// endregion
+}
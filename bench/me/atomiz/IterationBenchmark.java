@@ -0,0 +1,146 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * JMH suite of the traversals of {@link Atoms} and {@link AtomsBuilder}, with the stream and the iterator as the
+ * allocating baselines and {@link ArrayList} as the reference. Run it with the gc profiler through {@link #main} or
+ * {@code mvn -B test-compile exec:exec -Dbench=IterationBenchmark}: every traversal except the stream and the iterator
+ * must report a {@code gc.alloc.rate.norm} of 0 B/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterationBenchmark {
+
+	/**
+	 * The lists, reusable cursors and consumers, built once per size. The consumers are created once so the traversals
+	 * do not allocate a capturing lambda per invocation.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "1000", "100000" })
+		public int size;
+		Atoms<Atom> atoms;
+		AtomsBuilder<Atom> builder;
+		ArrayList<Atom> list;
+		Atoms<Atom>.Cursor atomsCursor;
+		AtomsBuilder<Atom>.Cursor builderCursor;
+		long sink;
+		final Consumer<Atom> consume = atom -> sink += atom.number;
+		final IntObjConsumer<Atom> consumeIndexed = (i, atom) -> sink += i;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			atoms = new Atoms<>(size);
+			for (int i = 0; i < size; i++)
+				atoms.add(new Atom("atom" + (i % 100), i, AtomicState.values()[i % 5], i * 0.5, i % 7, i % 1000));
+
+			list = new ArrayList<>(atoms.stream().toList());
+			builder = new AtomsBuilder<>(list);
+			atomsCursor = atoms.cursor();
+			builderCursor = builder.cursor();
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(IterationBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	// region baselines
+
+	@Benchmark
+	public void stream_Atoms(Source s, Blackhole bh) {
+		s.atoms.stream().forEach(bh::consume);
+	}
+
+	@Benchmark
+	public void iterator_Atoms(Source s, Blackhole bh) {
+		for (Atom atom : s.atoms)
+			bh.consume(atom);
+	}
+
+	@Benchmark
+	public long forEach_ArrayList(Source s) {
+		s.list.forEach(s.consume);
+		return s.sink;
+	}
+
+	// endregion
+
+	// region allocation free
+
+	@Benchmark
+	public long forEach_Atoms(Source s) {
+		s.atoms.forEach(s.consume);
+		return s.sink;
+	}
+
+	@Benchmark
+	public long forEach_AtomsBuilder(Source s) {
+		s.builder.forEach(s.consume);
+		return s.sink;
+	}
+
+	@Benchmark
+	public long forEachIndexed_Atoms(Source s) {
+		s.atoms.forEachIndexed(s.consumeIndexed);
+		return s.sink;
+	}
+
+	@Benchmark
+	public long forEachIndexed_AtomsBuilder(Source s) {
+		s.builder.forEachIndexed(s.consumeIndexed);
+		return s.sink;
+	}
+
+	@Benchmark
+	public void cursor_Atoms(Source s, Blackhole bh) {
+		Atoms<Atom>.Cursor c = s.atomsCursor;
+		for (c.reset(); c.next(); )
+			bh.consume(c.get());
+	}
+
+	@Benchmark
+	public void cursor_AtomsBuilder(Source s, Blackhole bh) {
+		AtomsBuilder<Atom>.Cursor c = s.builderCursor;
+		for (c.reset(); c.next(); )
+			bh.consume(c.get());
+	}
+
+	@Benchmark
+	public double sumDouble_Atoms(Source s) {
+		return s.atoms.sumDouble(atom -> atom.mass);
+	}
+
+	@Benchmark
+	public double sumDouble_AtomsBuilder(Source s) {
+		return s.builder.sumDouble(atom -> atom.mass);
+	}
+
+	@Benchmark
+	public long sumLong_Atoms(Source s) {
+		return s.atoms.sumLong(atom -> atom.number);
+	}
+
+	@Benchmark
+	public long sumLong_AtomsBuilder(Source s) {
+		return s.builder.sumLong(atom -> atom.number);
+	}
+
+	// endregion
+}
@@ -0,0 +1,83 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite comparing {@link AtomLoader} with reading the same comma separated file line by line, splitting every line
+ * and collecting the elements in an {@link ArrayList} before copying them into an {@link Atoms} list. Divide the
+ * {@code gc.alloc.rate.norm} by the size for the bytes allocated per loaded element. Run it with the gc profiler through
+ * {@link #main} or {@code mvn -B test-compile exec:exec -Dbench=LoaderBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoaderBenchmark {
+
+	/**
+	 * The file of the specified amount of elements, written once per size and deleted after the trial.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "10000", "100000", "1000000" })
+		public int size;
+		Path file;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			file = Files.createTempFile("atoms", ".csv");
+			try (BufferedWriter out = Files.newBufferedWriter(file)) {
+				out.write("name,number,state,mass,density,meltingPoint\n");
+				for (int i = 0; i < size; i++)
+					out.write("atom" + (i % 100) + "," + i + "," + AtomicState.values()[i % 5].name().toLowerCase() + ","
+							+ i * 0.25 + "," + (i % 7) * 1.5 + "," + (i % 1000) + ".125\n");
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void delete() throws IOException {
+			Files.delete(file);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(LoaderBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	@Benchmark
+	public int load_AtomLoader(Source s) throws IOException {
+		return AtomLoader.load(s.file, new Atoms<>());
+	}
+
+	@Benchmark
+	public Atoms<Atom> load_Split(Source s) throws IOException {
+		List<Atom> atoms = new ArrayList<>();
+		try (BufferedReader in = Files.newBufferedReader(s.file)) {
+			in.readLine();
+			for (String line = in.readLine(); line != null; line = in.readLine()) {
+				String[] f = line.split(",");
+				atoms.add(new Atom(f[0], Integer.parseInt(f[1]), AtomicState.valueOf(f[2].toUpperCase()),
+						Double.parseDouble(f[3]), Double.parseDouble(f[4]), Double.parseDouble(f[5])));
+			}
+		}
+
+		return new Atoms<>(atoms);
+	}
+}
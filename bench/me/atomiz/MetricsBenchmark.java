@@ -0,0 +1,96 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite comparing appending and looking up elements in an {@link Atoms} list without and with {@link AtomsMetrics}
+ * attached. The lookups run 100 {@link Atoms#indexOf} calls per invocation. Run it with the gc profiler through
+ * {@link #main} or {@code mvn -B test-compile exec:exec -Dbench=MetricsBenchmark}, the collected metrics are printed
+ * after every trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+	/**
+	 * The metrics and the filled lists for the lookups, built once per size.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "1000", "10000", "100000" })
+		public int size;
+		AtomsMetrics metrics;
+		Atoms<Integer> plain;
+		Atoms<Integer> measured;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			metrics = new AtomsMetrics();
+			plain = fill(new Atoms<>(), size);
+			measured = fill(measured(metrics), size);
+		}
+
+		@TearDown(Level.Trial)
+		public void report() {
+			System.out.println();
+			metrics.snapshot().forEach((name, value) -> System.out.printf("%-24s %s%n", name, value));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(MetricsBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	private static Atoms<Integer> measured(AtomsMetrics metrics) {
+		Atoms<Integer> atoms = new Atoms<>();
+		atoms.setMetrics(metrics);
+		return atoms;
+	}
+
+	private static Atoms<Integer> fill(Atoms<Integer> atoms, int size) {
+		for (int i = 0; i < size; i++)
+			atoms.add(i);
+
+		return atoms;
+	}
+
+	private static int lookup(Atoms<Integer> atoms) {
+		int found = 0;
+		for (int i = 0; i < 100; i++)
+			found += atoms.indexOf(i * 37 % (atoms.size() + atoms.size() / 4)) >>> 31;
+
+		return found;
+	}
+
+	@Benchmark
+	public Object add_Atoms(Source s) {
+		return fill(new Atoms<>(), s.size);
+	}
+
+	@Benchmark
+	public Object add_MeasuredAtoms(Source s) {
+		return fill(measured(s.metrics), s.size);
+	}
+
+	@Benchmark
+	public int indexOf_Atoms(Source s) {
+		return lookup(s.plain);
+	}
+
+	@Benchmark
+	public int indexOf_MeasuredAtoms(Source s) {
+		return lookup(s.measured);
+	}
+}
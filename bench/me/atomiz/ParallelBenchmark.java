@@ -0,0 +1,135 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * JMH suite of the parallel bulk operations of {@link Atoms} on pools of one to eight threads, next to their sequential
+ * counterparts. The list size defaults to 20 000 000 and can be changed with {@code -p size=...}. Run it with the gc
+ * profiler through {@link #main} or {@code mvn -B test-compile exec:exec -Dbench=ParallelBenchmark}.
+ * <p>
+ * Operations modifying the list get a fresh copy of it before every invocation, the gc profiler counts its allocation
+ * too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class ParallelBenchmark {
+	private static final Atom[] POOL = new Atom[1024];
+	private static final Predicate<Atom> HEAVY = e -> e.mass > 500;
+	private static final Predicate<Atom> EVEN = e -> e.number % 2 == 0;
+
+	static {
+		for (int i = 0; i < POOL.length; i++)
+			POOL[i] = new Atom("atom" + i, i, AtomicState.values()[i % 5], i, i, i);
+	}
+
+	/**
+	 * The source elements and a read only list of them, built once per size.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "20000000" })
+		public int size;
+		Atom[] elements;
+		Atoms<Atom> shared;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			elements = new Atom[size];
+			for (int i = 0; i < size; i++)
+				elements[i] = POOL[i & (POOL.length - 1)];
+
+			shared = new Atoms<>(elements.clone());
+		}
+	}
+
+	/**
+	 * A fresh copy of the source list for the operations modifying it.
+	 */
+	@State(Scope.Thread)
+	public static class Fresh {
+		Atoms<Atom> atoms;
+
+		@Setup(Level.Invocation)
+		public void setup(Source source) {
+			atoms = new Atoms<>(source.elements.clone());
+		}
+	}
+
+	/**
+	 * The pool running the parallel operations, only the parallel benchmarks are run once per amount of threads.
+	 */
+	@State(Scope.Thread)
+	public static class Pool {
+		@Param({ "1", "2", "4", "8" })
+		public int threads;
+		ForkJoinPool pool;
+		Parallelism parallelism;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			pool = new ForkJoinPool(threads);
+			parallelism = Parallelism.of(pool, 1 << 15);
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			pool.shutdown();
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ParallelBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	// region sequential
+
+	@Benchmark
+	public int countIf_Sequential(Source s) {
+		return s.shared.countIf(HEAVY);
+	}
+
+	@Benchmark
+	public int replaceAll_Sequential(Fresh f) {
+		return f.atoms.replaceAll(POOL[0], POOL[1]);
+	}
+
+	@Benchmark
+	public int removeIf_Sequential(Fresh f) {
+		return f.atoms.removeIf(EVEN);
+	}
+
+	// endregion
+
+	// region parallel
+
+	@Benchmark
+	public int countIf_Parallel(Source s, Pool p) {
+		return s.shared.countIf(HEAVY, p.parallelism);
+	}
+
+	@Benchmark
+	public int replaceAll_Parallel(Fresh f, Pool p) {
+		return f.atoms.replaceAll(POOL[0], POOL[1], p.parallelism);
+	}
+
+	@Benchmark
+	public int removeIf_Parallel(Fresh f, Pool p) {
+		return f.atoms.removeIf(EVEN, p.parallelism);
+	}
+
+	// endregion
+}
@@ -0,0 +1,129 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite comparing keeping versions of a list as full {@link Atoms} copies with {@link PersistentAtoms} versions
+ * sharing their structure, and the cost of the basic operations of both. The version benchmarks keep
+ * {@value #VERSIONS} versions per invocation alive, so their {@code gc.alloc.rate.norm} is the footprint of those
+ * versions. Run it with the gc profiler through {@link #main} or
+ * {@code mvn -B test-compile exec:exec -Dbench=PersistentBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistentBenchmark {
+	private static final int VERSIONS = 1_000;
+
+	/**
+	 * The lists of the numbers below the size, built once per size.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "1000", "10000", "100000" })
+		public int size;
+		Atoms<Integer> atoms;
+		PersistentAtoms<Integer> persistent;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			atoms = new Atoms<>(size);
+			for (int i = 0; i < size; i++)
+				atoms.add(i);
+			persistent = PersistentAtoms.copyOf(atoms);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(PersistentBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	// region versions
+
+	@Benchmark
+	public Object versions_Atoms(Source s) {
+		@SuppressWarnings("unchecked")
+		Atoms<Integer>[] versions = (Atoms<Integer>[]) new Atoms<?>[VERSIONS];
+		for (int v = 0; v < VERSIONS; v++) {
+			versions[v] = new Atoms<>(s.atoms);
+			versions[v].set(v * 31 % s.size, -v);
+		}
+		return versions;
+	}
+
+	@Benchmark
+	public Object versions_PersistentAtoms(Source s) {
+		@SuppressWarnings("unchecked")
+		PersistentAtoms<Integer>[] versions = (PersistentAtoms<Integer>[]) new PersistentAtoms<?>[VERSIONS];
+		for (int v = 0; v < VERSIONS; v++)
+			versions[v] = s.persistent.set(v * 31 % s.size, -v);
+		return versions;
+	}
+
+	// endregion
+
+	// region add
+
+	@Benchmark
+	public Object add_Atoms(Source s) {
+		Atoms<Integer> a = new Atoms<>();
+		for (int i = 0; i < s.size; i++)
+			a.add(i);
+		return a;
+	}
+
+	@Benchmark
+	public Object add_PersistentAtoms(Source s) {
+		PersistentAtoms<Integer> p = PersistentAtoms.empty();
+		for (int i = 0; i < s.size; i++)
+			p = p.add(i);
+		return p;
+	}
+
+	@Benchmark
+	public Object add_Transient(Source s) {
+		PersistentAtoms.Transient<Integer> t = PersistentAtoms.<Integer>empty().asTransient();
+		for (int i = 0; i < s.size; i++)
+			t.add(i);
+		return t.persistent();
+	}
+
+	// endregion
+
+	// region read
+
+	@Benchmark
+	public int get_Atoms(Source s) {
+		int sum = 0;
+		for (int i = 0; i < s.size; i++)
+			sum += s.atoms.get(i);
+		return sum;
+	}
+
+	@Benchmark
+	public int get_PersistentAtoms(Source s) {
+		int sum = 0;
+		for (int i = 0; i < s.size; i++)
+			sum += s.persistent.get(i);
+		return sum;
+	}
+
+	@Benchmark
+	public Object subListAddAll_PersistentAtoms(Source s) {
+		PersistentAtoms<Integer> p = s.persistent;
+		return p.subList(0, s.size / 2).addAll(p.subList(s.size / 2, s.size));
+	}
+
+	// endregion
+}
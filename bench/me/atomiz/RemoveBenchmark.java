@@ -0,0 +1,97 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * JMH suite of {@link Atoms#removeIf}, {@link Atoms#removeAll} and {@link AtomsBuilder#removeIf} over lists where every
+ * other element is removed, with {@link ArrayList#removeIf} as the baseline. The time per element should stay flat as
+ * the size grows. Run it with the gc profiler through {@link #main} or
+ * {@code mvn -B test-compile exec:exec -Dbench=RemoveBenchmark}.
+ * <p>
+ * Every invocation gets fresh copies of the lists, the gc profiler counts their allocation too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemoveBenchmark {
+	private static final Predicate<Atom> EVEN = e -> e.number % 2 == 0;
+
+	/**
+	 * The source elements, built once per size.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "1000", "100000", "1000000" })
+		public int size;
+		Atom[] elements;
+		Atom[] withNulls;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			elements = new Atom[size];
+			for (int i = 0; i < size; i++)
+				elements[i] = new Atom("atom", i, AtomicState.SOLID, i, i, i);
+
+			withNulls = elements.clone();
+			for (int i = 0; i < size; i += 2)
+				withNulls[i] = null;
+		}
+	}
+
+	/**
+	 * Fresh copies of the source lists.
+	 */
+	@State(Scope.Thread)
+	public static class Fresh {
+		Atoms<Atom> atoms;
+		Atoms<Atom> withNulls;
+		AtomsBuilder<Atom> builder;
+		ArrayList<Atom> list;
+
+		@Setup(Level.Invocation)
+		public void setup(Source source) {
+			atoms = new Atoms<>(source.elements.clone());
+			withNulls = new Atoms<>(source.withNulls.clone());
+			builder = new AtomsBuilder<>(Arrays.asList(source.elements));
+			list = new ArrayList<>(Arrays.asList(source.elements));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(RemoveBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	@Benchmark
+	public int removeIf_Atoms(Fresh f) {
+		return f.atoms.removeIf(EVEN);
+	}
+
+	@Benchmark
+	public int removeIf_AtomsBuilder(Fresh f) {
+		return f.builder.removeIf(EVEN).size();
+	}
+
+	@Benchmark
+	public boolean removeIf_ArrayList(Fresh f) {
+		return f.list.removeIf(EVEN);
+	}
+
+	@Benchmark
+	public int removeAllNull_Atoms(Fresh f) {
+		return f.withNulls.removeAll(null);
+	}
+}
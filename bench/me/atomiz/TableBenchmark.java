@@ -0,0 +1,90 @@
+package me.atomiz;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * JMH suite comparing a melting point scan over an {@link Atoms} list of {@link Atom} objects with the same scan over
+ * the {@link AtomTable} columns and the {@link OffHeapAtoms} slots, and with a {@link RangeIndex} count. Run it with the
+ * gc profiler through {@link #main} or {@code mvn -B test-compile exec:exec -Dbench=TableBenchmark}, the footprint of
+ * the layouts is printed after every trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableBenchmark {
+	private static final Predicate<Atom> HOT = e -> e.meltingPoint > 500;
+	private static final Predicate<OffHeapAtoms.Cursor> HOT_SLOT = c -> c.meltingPoint() > 500;
+
+	/**
+	 * The layouts of the same elements, built once per size. The row predicate of the table is created once so the
+	 * scan does not allocate a capturing lambda per invocation.
+	 */
+	@State(Scope.Thread)
+	public static class Source {
+		@Param({ "10000", "100000", "1000000" })
+		public int size;
+		Atoms<Atom> atoms;
+		AtomTable table;
+		IntPredicate hotRow;
+		OffHeapAtoms offHeap;
+		AtomIndexes indexes;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			atoms = new Atoms<>(size);
+			for (int i = 0; i < size; i++)
+				atoms.add(new Atom("atom" + (i % 100), i, AtomicState.values()[i % 5], i * 0.5, i % 7, i % 1000));
+
+			AtomTable t = AtomTable.of(atoms);
+			table = t;
+			hotRow = i -> t.meltingPoint(i) > 500;
+			offHeap = new OffHeapAtoms(size);
+			atoms.forEach(offHeap::add);
+			indexes = new AtomIndexes(atoms).byMeltingPoint();
+		}
+
+		@TearDown(Level.Trial)
+		public void close() {
+			System.out.printf("%nAtomTable.bytes %d, OffHeapAtoms.bytes %d, RangeIndex.bytes %d%n",
+					table.bytes(), offHeap.bytes(), indexes.bytes());
+			offHeap.close();
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(TableBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	@Benchmark
+	public int countIf_Atoms(Source s) {
+		return s.atoms.countIf(HOT);
+	}
+
+	@Benchmark
+	public int countIf_AtomTable(Source s) {
+		return s.table.countIf(s.hotRow);
+	}
+
+	@Benchmark
+	public int countIf_OffHeapAtoms(Source s) {
+		return s.offHeap.countIf(HOT_SLOT);
+	}
+
+	@Benchmark
+	public int countAbove_RangeIndex(Source s) {
+		return s.indexes.meltingPoint().countAbove(500);
+	}
+}
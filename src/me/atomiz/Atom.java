@@ -57,9 +57,58 @@ class Atom {
 		this.meltingPoint = meltingPoint;
 	}
 
+	/**
+	 * Returns the shared {@link AtomValue} with the specified values, creating it on first use.
+	 *
+	 * @param name         The name
+	 * @param number       The atomic number
+	 * @param state        The {@link AtomicState}
+	 * @param mass         The mass
+	 * @param density      The density
+	 * @param meltingPoint The melting point
+	 * @return the shared instance
+	 */
+	public static AtomValue of(String name, int number, AtomicState state, double mass, double density, double meltingPoint) {
+		return AtomValue.of(name, number, state, mass, density, meltingPoint);
+	}
+
+	/**
+	 * Returns the shared {@link AtomValue} of an empty {@link Atom} with the specified name.
+	 *
+	 * @param name The name
+	 * @return the shared instance
+	 */
+	public static AtomValue of(String name) {
+		return of(name, 0, AtomicState.UNKNOWN, 0, 0, 0);
+	}
+
+	/**
+	 * Returns the shared {@link AtomValue} with the current values of this {@link Atom}. Later changes to this atom do
+	 * not affect the value.
+	 *
+	 * @return the shared instance
+	 */
+	public AtomValue intern() {
+		return of(name, number, state, mass, density, meltingPoint);
+	}
+
+	/**
+	 * Computes the same value as {@link Objects#hash} over the fields without boxing them into an array.
+	 */
+	static int hash(String name, int number, AtomicState state, double mass, double density, double meltingPoint) {
+		int result = 1;
+		result = 31 * result + Objects.hashCode(name);
+		result = 31 * result + Integer.hashCode(number);
+		result = 31 * result + Objects.hashCode(state);
+		result = 31 * result + Double.hashCode(mass);
+		result = 31 * result + Double.hashCode(density);
+		result = 31 * result + Double.hashCode(meltingPoint);
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
-		return Objects.hash(name, number, state, mass, density, meltingPoint);
+		return hash(name, number, state, mass, density, meltingPoint);
 	}
 
 	@Override
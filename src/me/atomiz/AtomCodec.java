@@ -0,0 +1,382 @@
+package me.atomiz;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary format for lists of {@link Atom} elements.
+ * <pre>
+ * header   magic int, version byte, size varint
+ * record   state byte: the ordinal, {@value #NO_STATE} for no state or {@value #NO_ATOM} for a {@code null} element
+ *          name varint: 0 for no name, the position in the string table plus one or the size of the table plus one
+ *                       for a new name followed by its UTF-8 length varint and bytes
+ *          number zigzag varint
+ *          mass, density and melting point doubles
+ * </pre>
+ * The string table is built while encoding and decoding, so every distinct name is written and decoded once. Apart
+ * from the decoded elements and the distinct names, neither direction allocates per element.
+ */
+final class AtomCodec {
+	private final static int MAGIC = 0x41544d53;
+	private final static int VERSION = 1;
+	private final static int NO_STATE = 0xfe;
+	private final static int NO_ATOM = 0xff;
+	private final static int BUFFER_SIZE = 1 << 16;
+	private final static int MAX_PRESIZE = 1 << 16;
+	private final static AtomicState[] STATES = AtomicState.values();
+
+	private AtomCodec() {
+	}
+
+	/**
+	 * The output written to by the encoder.
+	 */
+	private interface Sink {
+		void writeByte(int b) throws IOException;
+
+		void writeDouble(double d) throws IOException;
+
+		void write(byte[] bytes) throws IOException;
+	}
+
+	/**
+	 * The input read from by the decoder.
+	 */
+	private interface Source {
+		int readUnsignedByte() throws IOException;
+
+		double readDouble() throws IOException;
+
+		void readFully(byte[] bytes, int from, int length) throws IOException;
+	}
+
+	// region encode
+
+	/**
+	 * Writes the elements of the list to the specified output.
+	 *
+	 * @param atoms the list
+	 * @param out   the output
+	 * @throws IOException if the output fails
+	 */
+	public static void write(Atoms<Atom> atoms, DataOutput out) throws IOException {
+		encode(atoms, new Sink() {
+			@Override
+			public void writeByte(int b) throws IOException {
+				out.writeByte(b);
+			}
+
+			@Override
+			public void writeDouble(double d) throws IOException {
+				out.writeDouble(d);
+			}
+
+			@Override
+			public void write(byte[] bytes) throws IOException {
+				out.write(bytes);
+			}
+		});
+	}
+
+	/**
+	 * Writes the elements of the list to the specified channel through one reused buffer.
+	 *
+	 * @param atoms the list
+	 * @param out   the channel
+	 * @throws IOException if the channel fails
+	 */
+	public static void write(Atoms<Atom> atoms, WritableByteChannel out) throws IOException {
+		ChannelSink sink = new ChannelSink(out);
+		encode(atoms, sink);
+		sink.flush();
+	}
+
+	private static void encode(Atoms<Atom> atoms, Sink out) throws IOException {
+		int size = atoms.size();
+		writeInt(out, MAGIC);
+		out.writeByte(VERSION);
+		writeVarint(out, size);
+
+		Map<String, Integer> names = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			Atom e = atoms.get(i);
+			if (e == null) {
+				out.writeByte(NO_ATOM);
+				continue;
+			}
+
+			out.writeByte(e.state == null ? NO_STATE : e.state.ordinal());
+			writeName(out, names, e.name);
+			writeVarint(out, e.number << 1 ^ e.number >> 31);
+			out.writeDouble(e.mass);
+			out.writeDouble(e.density);
+			out.writeDouble(e.meltingPoint);
+		}
+	}
+
+	private static void writeName(Sink out, Map<String, Integer> names, String name) throws IOException {
+		if (name == null) {
+			out.writeByte(0);
+			return;
+		}
+
+		Integer id = names.get(name);
+		if (id != null) {
+			writeVarint(out, id + 1);
+			return;
+		}
+
+		writeVarint(out, names.size() + 1);
+		names.put(name, names.size());
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		writeVarint(out, bytes.length);
+		out.write(bytes);
+	}
+
+	private static void writeVarint(Sink out, int value) throws IOException {
+		while ((value & ~0x7f) != 0) {
+			out.writeByte(value & 0x7f | 0x80);
+			value >>>= 7;
+		}
+
+		out.writeByte(value);
+	}
+
+	private static void writeInt(Sink out, int value) throws IOException {
+		for (int shift = 24; shift >= 0; shift -= 8)
+			out.writeByte(value >>> shift);
+	}
+
+	// endregion
+
+	// region decode
+
+	/**
+	 * Reads a list written by {@link #write(Atoms, DataOutput)} from the specified input.
+	 *
+	 * @param in the input
+	 * @return the list
+	 * @throws IOException if the input fails or does not hold a list of a supported version
+	 */
+	public static Atoms<Atom> read(DataInput in) throws IOException {
+		return decode(new Source() {
+			@Override
+			public int readUnsignedByte() throws IOException {
+				return in.readUnsignedByte();
+			}
+
+			@Override
+			public double readDouble() throws IOException {
+				return in.readDouble();
+			}
+
+			@Override
+			public void readFully(byte[] bytes, int from, int length) throws IOException {
+				in.readFully(bytes, from, length);
+			}
+		});
+	}
+
+	/**
+	 * Reads a list written by {@link #write(Atoms, WritableByteChannel)} from the specified channel through one reused
+	 * buffer. The channel may be read past the end of the list.
+	 *
+	 * @param in the channel
+	 * @return the list
+	 * @throws IOException if the channel fails or does not hold a list of a supported version
+	 */
+	public static Atoms<Atom> read(ReadableByteChannel in) throws IOException {
+		return decode(new ChannelSource(in));
+	}
+
+	private static Atoms<Atom> decode(Source in) throws IOException {
+		if (readInt(in) != MAGIC)
+			throw new IOException("Not an atoms stream");
+
+		int version = in.readUnsignedByte();
+		if (version != VERSION)
+			throw new IOException("Unsupported atoms stream version " + version);
+
+		int size = readVarint(in);
+		if (size < 0)
+			throw new IOException("Corrupted atoms stream size " + size);
+
+		Atoms<Atom> atoms = new Atoms<>(Math.max(1, Math.min(size, MAX_PRESIZE)));
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			int state = in.readUnsignedByte();
+			if (state == NO_ATOM) {
+				atoms.add(null);
+				continue;
+			}
+			if (state != NO_STATE && state >= STATES.length)
+				throw new IOException("Corrupted atoms stream state " + state);
+
+			String name = readName(in, names);
+			int number = readVarint(in);
+			atoms.add(new Atom(name, number >>> 1 ^ -(number & 1), state == NO_STATE ? null : STATES[state],
+					in.readDouble(), in.readDouble(), in.readDouble()));
+		}
+
+		return atoms;
+	}
+
+	private static String readName(Source in, List<String> names) throws IOException {
+		int id = readVarint(in);
+		if (id == 0)
+			return null;
+		if (id <= names.size())
+			return names.get(id - 1);
+		if (id != names.size() + 1)
+			throw new IOException("Corrupted atoms stream name " + id);
+
+		int length = readVarint(in);
+		if (length < 0)
+			throw new IOException("Corrupted atoms stream name length " + length);
+
+		String name = new String(readBytes(in, length), StandardCharsets.UTF_8);
+		names.add(name);
+		return name;
+	}
+
+	/**
+	 * Reads the specified amount of bytes. Long lengths are read in growing steps, so a corrupted length fails at the
+	 * end of the input instead of allocating the whole length up front.
+	 */
+	private static byte[] readBytes(Source in, int length) throws IOException {
+		byte[] bytes = new byte[Math.min(length, BUFFER_SIZE)];
+		in.readFully(bytes, 0, bytes.length);
+		while (bytes.length < length) {
+			int from = bytes.length;
+			bytes = Arrays.copyOf(bytes, (int) Math.min(length, from * 2L));
+			in.readFully(bytes, from, bytes.length - from);
+		}
+
+		return bytes;
+	}
+
+	private static int readVarint(Source in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+
+		throw new IOException("Corrupted atoms stream varint");
+	}
+
+	private static int readInt(Source in) throws IOException {
+		int value = 0;
+		for (int i = 0; i < 4; i++)
+			value = value << 8 | in.readUnsignedByte();
+
+		return value;
+	}
+
+	// endregion
+
+	// region channels
+
+	private static final class ChannelSink implements Sink {
+		private final WritableByteChannel out;
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+		ChannelSink(WritableByteChannel out) {
+			this.out = out;
+		}
+
+		@Override
+		public void writeByte(int b) throws IOException {
+			if (!buffer.hasRemaining())
+				flush();
+
+			buffer.put((byte) b);
+		}
+
+		@Override
+		public void writeDouble(double d) throws IOException {
+			if (buffer.remaining() < Double.BYTES)
+				flush();
+
+			buffer.putDouble(d);
+		}
+
+		@Override
+		public void write(byte[] bytes) throws IOException {
+			for (int from = 0; from < bytes.length; ) {
+				if (!buffer.hasRemaining())
+					flush();
+
+				int length = Math.min(buffer.remaining(), bytes.length - from);
+				buffer.put(bytes, from, length);
+				from += length;
+			}
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining())
+				out.write(buffer);
+
+			buffer.clear();
+		}
+	}
+
+	private static final class ChannelSource implements Source {
+		private final ReadableByteChannel in;
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+
+		ChannelSource(ReadableByteChannel in) {
+			this.in = in;
+		}
+
+		@Override
+		public int readUnsignedByte() throws IOException {
+			require(1);
+			return buffer.get() & 0xff;
+		}
+
+		@Override
+		public double readDouble() throws IOException {
+			require(Double.BYTES);
+			return buffer.getDouble();
+		}
+
+		@Override
+		public void readFully(byte[] bytes, int from, int length) throws IOException {
+			for (int end = from + length; from < end; ) {
+				require(1);
+				int step = Math.min(buffer.remaining(), end - from);
+				buffer.get(bytes, from, step);
+				from += step;
+			}
+		}
+
+		private void require(int bytes) throws IOException {
+			if (buffer.remaining() >= bytes)
+				return;
+
+			buffer.compact();
+			while (buffer.position() < bytes)
+				if (in.read(buffer) < 0)
+					throw new EOFException("Unexpected end of atoms stream");
+
+			buffer.flip();
+		}
+	}
+
+	// endregion
+}
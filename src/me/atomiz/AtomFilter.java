@@ -0,0 +1,289 @@
+package me.atomiz;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A filter over the columns of an {@link AtomTable} evaluated into a bitmask with one bit per row.
+ * <p>
+ * Comparisons scan a single primitive column and set 64 rows per {@code long} word without branching on the values,
+ * so a scan runs at the same speed regardless of the order and selectivity of the data. Combining
+ * filters with {@link #and}, {@link #or} and {@link #negate} works on whole words, and {@link #count} uses the
+ * population count of the words. No element is materialized and no predicate is called per row.
+ * <pre>
+ * AtomFilter hot = AtomFilter.between(Column.MELTING_POINT, 100, 500).and(AtomFilter.above(Column.MASS, 50));
+ * int count = hot.count(table);
+ * </pre>
+ */
+interface AtomFilter {
+
+	/**
+	 * A {@code double} column of an {@link AtomTable}.
+	 */
+	enum Column {
+		MASS(AtomTable::masses),
+		DENSITY(AtomTable::densities),
+		MELTING_POINT(AtomTable::meltingPoints);
+
+		private final Function<AtomTable, double[]> values;
+
+		Column(Function<AtomTable, double[]> values) {
+			this.values = values;
+		}
+
+		double[] of(AtomTable table) {
+			return values.apply(table);
+		}
+	}
+
+	/**
+	 * Writes the bit of every row of the table into the mask, set for the matching rows and cleared for the others.
+	 *
+	 * @param table the table
+	 * @param mask  the mask of at least {@link #words} words for the table size
+	 */
+	void evaluate(AtomTable table, long[] mask);
+
+	/**
+	 * Returns a new mask of the rows of the table matching the filter.
+	 *
+	 * @param table the table
+	 * @return the mask
+	 */
+	default long[] mask(AtomTable table) {
+		long[] mask = new long[words(table.size())];
+		evaluate(table, mask);
+		return mask;
+	}
+
+	/**
+	 * Returns the amount of rows of the table matching the filter.
+	 *
+	 * @param table the table
+	 * @return the amount
+	 */
+	default int count(AtomTable table) {
+		int count = 0;
+		for (long word : mask(table))
+			count += Long.bitCount(word);
+
+		return count;
+	}
+
+	/**
+	 * Returns the ascending indexes of the rows of the table matching the filter.
+	 *
+	 * @param table the table
+	 * @return the indexes
+	 */
+	default int[] select(AtomTable table) {
+		long[] mask = mask(table);
+		int count = 0;
+		for (long word : mask)
+			count += Long.bitCount(word);
+
+		int[] rows = new int[count];
+		int r = 0;
+		for (int w = 0; w < mask.length; w++)
+			for (long word = mask[w]; word != 0; word &= word - 1)
+				rows[r++] = w << 6 | Long.numberOfTrailingZeros(word);
+
+		return rows;
+	}
+
+	/**
+	 * Returns a filter matching the rows matched by this and the specified filter.
+	 *
+	 * @param other the other filter
+	 * @return the filter
+	 */
+	default AtomFilter and(AtomFilter other) {
+		Objects.requireNonNull(other);
+		return (table, mask) -> {
+			evaluate(table, mask);
+			long[] right = other.mask(table);
+			for (int w = 0; w < right.length; w++)
+				mask[w] &= right[w];
+		};
+	}
+
+	/**
+	 * Returns a filter matching the rows matched by this or the specified filter.
+	 *
+	 * @param other the other filter
+	 * @return the filter
+	 */
+	default AtomFilter or(AtomFilter other) {
+		Objects.requireNonNull(other);
+		return (table, mask) -> {
+			evaluate(table, mask);
+			long[] right = other.mask(table);
+			for (int w = 0; w < right.length; w++)
+				mask[w] |= right[w];
+		};
+	}
+
+	/**
+	 * Returns a filter matching the rows not matched by this filter.
+	 *
+	 * @return the filter
+	 */
+	default AtomFilter negate() {
+		return (table, mask) -> {
+			evaluate(table, mask);
+			int words = words(table.size());
+			for (int w = 0; w < words; w++)
+				mask[w] = ~mask[w];
+
+			if ((table.size() & 63) != 0)
+				mask[words - 1] &= -1L >>> -table.size();
+		};
+	}
+
+	/**
+	 * Returns the amount of words of a mask over the specified amount of rows.
+	 *
+	 * @param size the amount of rows
+	 * @return the amount of words
+	 */
+	static int words(int size) {
+		return size + 63 >>> 6;
+	}
+
+	// region comparisons
+
+	/**
+	 * Matches the rows with a value of the column between the specified ones, both inclusive. {@code NaN} values never
+	 * match.
+	 *
+	 * @param column the column
+	 * @param lo     the lowest value
+	 * @param hi     the highest value
+	 * @return the filter
+	 */
+	static AtomFilter between(Column column, double lo, double hi) {
+		Objects.requireNonNull(column);
+		return (table, mask) -> Scan.between(column.of(table), table.size(), lo, hi, mask);
+	}
+
+	/**
+	 * Matches the rows with a value of the column greater than the specified one.
+	 *
+	 * @param column the column
+	 * @param lo     the value
+	 * @return the filter
+	 */
+	static AtomFilter above(Column column, double lo) {
+		return lo == Double.POSITIVE_INFINITY ? none() : between(column, Math.nextUp(lo), Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Matches the rows with a value of the column lower than the specified one.
+	 *
+	 * @param column the column
+	 * @param hi     the value
+	 * @return the filter
+	 */
+	static AtomFilter below(Column column, double hi) {
+		return hi == Double.NEGATIVE_INFINITY ? none() : between(column, Double.NEGATIVE_INFINITY, Math.nextDown(hi));
+	}
+
+	/**
+	 * Matches the rows with an atomic number between the specified ones, both inclusive.
+	 *
+	 * @param lo the lowest atomic number
+	 * @param hi the highest atomic number
+	 * @return the filter
+	 */
+	static AtomFilter numberBetween(int lo, int hi) {
+		return (table, mask) -> Scan.between(table.numbers(), table.size(), lo, hi, mask);
+	}
+
+	/**
+	 * Matches the rows with the specified state.
+	 *
+	 * @param state the state, {@code null} for rows without a state
+	 * @return the filter
+	 */
+	static AtomFilter state(AtomicState state) {
+		byte ordinal = state == null ? -1 : (byte) state.ordinal();
+		return (table, mask) -> Scan.equal(table.states(), table.size(), ordinal, mask);
+	}
+
+	/**
+	 * Matches no row.
+	 *
+	 * @return the filter
+	 */
+	static AtomFilter none() {
+		return (table, mask) -> Arrays.fill(mask, 0, words(table.size()), 0);
+	}
+
+	// endregion
+
+	/**
+	 * The column scans. Every word is built from 64 comparisons without a data dependent branch: a range check is a
+	 * single unsigned comparison of the distance from the lower bound with the width of the range, and {@code double}
+	 * values are first mapped to {@code long} keys with the same order.
+	 */
+	final class Scan {
+		private Scan() {
+		}
+
+		static void between(double[] values, int size, double lo, double hi, long[] mask) {
+			if (!(lo <= hi)) {
+				Arrays.fill(mask, 0, words(size), 0);
+				return;
+			}
+
+			long from = key(lo == 0 ? -0.0 : lo);
+			long width = key(hi == 0 ? 0.0 : hi) - from;
+			for (int w = 0, words = words(size); w < words; w++) {
+				int base = w << 6, end = Math.min(64, size - base);
+				long bits = 0;
+				for (int j = 0; j < end; j++)
+					bits |= (Long.compareUnsigned(key(values[base + j]) - from, width) <= 0 ? 1L : 0L) << j;
+
+				mask[w] = bits;
+			}
+		}
+
+		static void between(int[] values, int size, int lo, int hi, long[] mask) {
+			if (lo > hi) {
+				Arrays.fill(mask, 0, words(size), 0);
+				return;
+			}
+
+			int width = hi - lo;
+			for (int w = 0, words = words(size); w < words; w++) {
+				int base = w << 6, end = Math.min(64, size - base);
+				long bits = 0;
+				for (int j = 0; j < end; j++)
+					bits |= (Integer.compareUnsigned(values[base + j] - lo, width) <= 0 ? 1L : 0L) << j;
+
+				mask[w] = bits;
+			}
+		}
+
+		static void equal(byte[] values, int size, byte value, long[] mask) {
+			for (int w = 0, words = words(size); w < words; w++) {
+				int base = w << 6, end = Math.min(64, size - base);
+				long bits = 0;
+				for (int j = 0; j < end; j++)
+					bits |= (long) (((values[base + j] ^ value) & 0xff) - 1 >>> 31) << j;
+
+				mask[w] = bits;
+			}
+		}
+
+		/**
+		 * Maps a {@code double} to a {@code long} ordered like {@link Double#compare}, with {@code NaN} values beyond
+		 * the infinities.
+		 */
+		private static long key(double v) {
+			long bits = Double.doubleToRawLongBits(v);
+			return bits ^ (bits >> 63 & Long.MAX_VALUE);
+		}
+	}
+}
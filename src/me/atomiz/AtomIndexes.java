@@ -0,0 +1,296 @@
+package me.atomiz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Secondary indexes over the {@link Atom#state state}, {@link Atom#name name} and {@link Atom#number number} of the
+ * elements of an {@link Atoms} list and {@link RangeIndex range indexes} over their {@code double} fields. The indexes
+ * to keep are declared fluently:
+ * <pre>
+ * AtomIndexes indexes = new AtomIndexes(atoms).byState().byName().byMeltingPoint();
+ * int gases = indexes.countState(AtomicState.GAS);
+ * int meltedAtRoom = indexes.meltingPoint().countBelow(20);
+ * </pre>
+ * Declared indexes are kept in sync by the list on every modification, so queries never scan the elements. The fields
+ * of an element must not change while it is in an indexed list. Querying a field without an index throws an
+ * {@link IllegalStateException}.
+ */
+class AtomIndexes {
+	private final Atoms<Atom> atoms;
+	private HashIndex<Atom, AtomicState> state;
+	private HashIndex<Atom, String> name;
+	private IntHashIndex<Atom> number;
+	private RangeIndex<Atom> mass;
+	private RangeIndex<Atom> density;
+	private RangeIndex<Atom> meltingPoint;
+
+	/**
+	 * Creates a set of indexes over the specified list with no declared index.
+	 *
+	 * @param atoms the list
+	 */
+	public AtomIndexes(Atoms<Atom> atoms) {
+		this.atoms = Objects.requireNonNull(atoms);
+	}
+
+	// region declare
+
+	/**
+	 * Declares an index over the states backed by an {@link EnumMap}.
+	 *
+	 * @return this
+	 */
+	public AtomIndexes byState() {
+		if (state == null) {
+			state = new HashIndex<>(a -> a.state, () -> new EnumMap<>(AtomicState.class));
+			atoms.addIndex(state);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Declares a hash index over the names.
+	 *
+	 * @return this
+	 */
+	public AtomIndexes byName() {
+		if (name == null) {
+			name = new HashIndex<>(a -> a.name);
+			atoms.addIndex(name);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Declares an index over the atomic numbers keyed by primitive {@code int}.
+	 *
+	 * @return this
+	 */
+	public AtomIndexes byNumber() {
+		if (number == null) {
+			number = new IntHashIndex<>(a -> a.number);
+			atoms.addIndex(number);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Declares a range index over the masses.
+	 *
+	 * @return this
+	 */
+	public AtomIndexes byMass() {
+		if (mass == null) {
+			mass = new RangeIndex<>(a -> a.mass);
+			atoms.addIndex(mass);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Declares a range index over the densities.
+	 *
+	 * @return this
+	 */
+	public AtomIndexes byDensity() {
+		if (density == null) {
+			density = new RangeIndex<>(a -> a.density);
+			atoms.addIndex(density);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Declares a range index over the melting points.
+	 *
+	 * @return this
+	 */
+	public AtomIndexes byMeltingPoint() {
+		if (meltingPoint == null) {
+			meltingPoint = new RangeIndex<>(a -> a.meltingPoint);
+			atoms.addIndex(meltingPoint);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Stops maintaining every declared index.
+	 */
+	public void drop() {
+		for (AtomsIndex<Atom> index : declared())
+			atoms.removeIndex(index);
+
+		state = null;
+		name = null;
+		number = null;
+		mass = null;
+		density = null;
+		meltingPoint = null;
+	}
+
+	/**
+	 * Returns an estimate of the bytes used by the declared indexes.
+	 *
+	 * @return the amount of bytes
+	 */
+	public long bytes() {
+		long bytes = 0;
+		for (AtomsIndex<Atom> index : declared())
+			bytes += index.bytes();
+
+		return bytes;
+	}
+
+	private List<AtomsIndex<Atom>> declared() {
+		List<AtomsIndex<Atom>> declared = new ArrayList<>();
+		for (AtomsIndex<Atom> index : Arrays.asList(state, name, number, mass, density, meltingPoint))
+			if (index != null)
+				declared.add(index);
+
+		return declared;
+	}
+
+	// endregion
+
+	// region queries
+
+	/**
+	 * Returns the amount of elements with the specified state.
+	 *
+	 * @param s the state
+	 * @return the amount
+	 */
+	public int countState(AtomicState s) {
+		return require(state, "state").count(s);
+	}
+
+	/**
+	 * Returns the ascending positions of the elements with the specified state.
+	 *
+	 * @param s the state
+	 * @return the positions
+	 */
+	public int[] withState(AtomicState s) {
+		return require(state, "state").positions(s);
+	}
+
+	/**
+	 * Returns the amount of elements with the specified name.
+	 *
+	 * @param n the name
+	 * @return the amount
+	 */
+	public int countName(String n) {
+		return require(name, "name").count(n);
+	}
+
+	/**
+	 * Returns the ascending positions of the elements with the specified name.
+	 *
+	 * @param n the name
+	 * @return the positions
+	 */
+	public int[] withName(String n) {
+		return require(name, "name").positions(n);
+	}
+
+	/**
+	 * Returns the position of the first element with the specified name or -1.
+	 *
+	 * @param n the name
+	 * @return the position or -1
+	 */
+	public int firstWithName(String n) {
+		return require(name, "name").first(n);
+	}
+
+	/**
+	 * Returns the amount of elements with the specified atomic number.
+	 *
+	 * @param n the atomic number
+	 * @return the amount
+	 */
+	public int countNumber(int n) {
+		return require(number, "number").count(n);
+	}
+
+	/**
+	 * Returns the ascending positions of the elements with the specified atomic number.
+	 *
+	 * @param n the atomic number
+	 * @return the positions
+	 */
+	public int[] withNumber(int n) {
+		return require(number, "number").positions(n);
+	}
+
+	/**
+	 * Returns the position of the first element with the specified atomic number or -1.
+	 *
+	 * @param n the atomic number
+	 * @return the position or -1
+	 */
+	public int firstWithNumber(int n) {
+		return require(number, "number").first(n);
+	}
+
+	/**
+	 * Returns the range index over the masses.
+	 *
+	 * @return the index
+	 */
+	public RangeIndex<Atom> mass() {
+		return require(mass, "mass");
+	}
+
+	/**
+	 * Returns the range index over the densities.
+	 *
+	 * @return the index
+	 */
+	public RangeIndex<Atom> density() {
+		return require(density, "density");
+	}
+
+	/**
+	 * Returns the range index over the melting points.
+	 *
+	 * @return the index
+	 */
+	public RangeIndex<Atom> meltingPoint() {
+		return require(meltingPoint, "meltingPoint");
+	}
+
+	/**
+	 * Copies the elements at the specified positions into a new {@link Atoms} list.
+	 *
+	 * @param positions the positions returned by a query
+	 * @return the list
+	 */
+	public Atoms<Atom> select(int[] positions) {
+		Atom[] selected = new Atom[positions.length];
+		for (int i = 0; i < positions.length; i++)
+			selected[i] = atoms.get(positions[i]);
+
+		return new Atoms<>(selected);
+	}
+
+	private static <I> I require(I index, String field) {
+		if (index == null)
+			throw new IllegalStateException("No index declared on " + field);
+
+		return index;
+	}
+
+	// endregion
+}
@@ -0,0 +1,92 @@
+package me.atomiz;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The fixed width binary record of an {@link Atom} used by the off heap and file backed lists.
+ * <pre>
+ * offset  size  field
+ *      0     4  number
+ *      4     1  state ordinal, -1 for no state
+ *      8     8  mass
+ *     16     8  density
+ *     24     8  melting point
+ *     32     4  name offset in the name area, -1 for no name
+ *     36     4  name length in UTF-8 bytes
+ * </pre>
+ * Names are stored once per distinct name in a separate area.
+ */
+final class AtomLayout {
+	static final int RECORD = 40;
+
+	private static final int NUMBER = 0;
+	private static final int STATE = 4;
+	private static final int MASS = 8;
+	private static final int DENSITY = 16;
+	private static final int MELTING_POINT = 24;
+	private static final int NAME_OFFSET = 32;
+	private static final int NAME_LENGTH = 36;
+
+	private static final byte NO_STATE = -1;
+	private static final AtomicState[] STATES = AtomicState.values();
+
+	private AtomLayout() {
+	}
+
+	/**
+	 * Writes the fields of a record at the specified byte position.
+	 */
+	static void write(ByteBuffer records, int pos, int number, AtomicState state, double mass, double density,
+	                  double meltingPoint, int nameOffset, int nameLength) {
+		records.putInt(pos + NUMBER, number);
+		records.put(pos + STATE, state == null ? NO_STATE : (byte) state.ordinal());
+		records.putDouble(pos + MASS, mass);
+		records.putDouble(pos + DENSITY, density);
+		records.putDouble(pos + MELTING_POINT, meltingPoint);
+		records.putInt(pos + NAME_OFFSET, nameOffset);
+		records.putInt(pos + NAME_LENGTH, nameLength);
+	}
+
+	static int number(ByteBuffer records, int pos) {
+		return records.getInt(pos + NUMBER);
+	}
+
+	static AtomicState state(ByteBuffer records, int pos) {
+		byte s = records.get(pos + STATE);
+		return s == NO_STATE ? null : STATES[s];
+	}
+
+	static double mass(ByteBuffer records, int pos) {
+		return records.getDouble(pos + MASS);
+	}
+
+	static double density(ByteBuffer records, int pos) {
+		return records.getDouble(pos + DENSITY);
+	}
+
+	static double meltingPoint(ByteBuffer records, int pos) {
+		return records.getDouble(pos + MELTING_POINT);
+	}
+
+	/**
+	 * Decodes the name of the record at the specified byte position from the name area.
+	 */
+	static String name(ByteBuffer records, int pos, ByteBuffer names) {
+		int offset = records.getInt(pos + NAME_OFFSET);
+		if (offset < 0)
+			return null;
+
+		byte[] bytes = new byte[records.getInt(pos + NAME_LENGTH)];
+		names.get(offset, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Materializes the record at the specified byte position.
+	 */
+	static Atom read(ByteBuffer records, int pos, ByteBuffer names) {
+		return new Atom(name(records, pos, names), number(records, pos), state(records, pos), mass(records, pos),
+				density(records, pos), meltingPoint(records, pos));
+	}
+}
@@ -0,0 +1,290 @@
+package me.atomiz;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streams comma separated {@link Atom} rows of {@code name,number,state,mass,density,meltingPoint} into an
+ * {@link Atoms} list.
+ * <p>
+ * The input is read through one reused buffer and parsed in place, numbers are parsed from the bytes without creating
+ * strings and repeated names share one string. Parsed elements are handed to the list in batches, so the memory used
+ * besides the list itself stays bounded. When the length of the input is known, the list is grown once to the
+ * estimated amount of rows after the first batch.
+ * <p>
+ * Empty names are loaded as {@code null} and empty states as {@link AtomicState#UNKNOWN}, other states are matched to
+ * {@link AtomicState} ignoring case. A first
+ * line whose number field is not a number is skipped as a header. Quoted fields are not supported.
+ */
+final class AtomLoader {
+	private final static int BUFFER_SIZE = 1 << 16;
+	private final static int BATCH = 4096;
+	private final static int NAMES = 1024;
+	private final static int FIELDS = 6;
+	private final static AtomicState[] STATES = AtomicState.values();
+	private final static double[] POW10 = new double[23];
+
+	static {
+		POW10[0] = 1;
+		for (int i = 1; i < POW10.length; i++)
+			POW10[i] = POW10[i - 1] * 10;
+	}
+
+	private final Atoms<Atom> target;
+	private final long length;
+	private final Atom[] batch = new Atom[BATCH];
+	private final int[] fields = new int[FIELDS + 1];
+	private final String[] names = new String[NAMES];
+	private final byte[][] nameBytes = new byte[NAMES][];
+	private int batched;
+	private long line;
+	private long consumed;
+	private int loaded;
+
+	private AtomLoader(Atoms<Atom> target, long length) {
+		this.target = target;
+		this.length = length;
+	}
+
+	/**
+	 * Appends the rows of the specified file to the list.
+	 *
+	 * @param path   the file
+	 * @param target the list
+	 * @return the amount of loaded elements
+	 * @throws IOException if the file can not be read or holds a malformed row
+	 */
+	public static int load(Path path, Atoms<Atom> target) throws IOException {
+		try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+			return load(in, target);
+		}
+	}
+
+	/**
+	 * Appends the rows read from the specified channel to the list.
+	 *
+	 * @param in     the channel
+	 * @param target the list
+	 * @return the amount of loaded elements
+	 * @throws IOException if the channel fails or a row is malformed
+	 */
+	public static int load(ReadableByteChannel in, Atoms<Atom> target) throws IOException {
+		long length = in instanceof FileChannel ? ((FileChannel) in).size() - ((FileChannel) in).position() : -1;
+		return new AtomLoader(target, length).run(in);
+	}
+
+	private int run(ReadableByteChannel in) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		boolean eof = false;
+		while (!eof) {
+			eof = in.read(buffer) < 0;
+			if (!eof && !buffer.hasRemaining() && lineEnd(buffer) < 0) {
+				buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+				continue;
+			}
+
+			buffer.flip();
+			byte[] bytes = buffer.array();
+			int start = 0, limit = buffer.limit();
+			for (int end = start; end < limit; end++) {
+				if (bytes[end] != '\n')
+					continue;
+
+				parse(bytes, start, end);
+				consumed += end + 1 - start;
+				start = end + 1;
+			}
+
+			if (eof && start < limit) {
+				parse(bytes, start, limit);
+				start = limit;
+			}
+
+			buffer.position(start);
+			buffer.compact();
+		}
+
+		flush();
+		return loaded;
+	}
+
+	private static int lineEnd(ByteBuffer buffer) {
+		byte[] bytes = buffer.array();
+		for (int i = 0, n = buffer.position(); i < n; i++)
+			if (bytes[i] == '\n')
+				return i;
+
+		return -1;
+	}
+
+	// region parse
+
+	private void parse(byte[] b, int from, int to) throws IOException {
+		line++;
+		if (to > from && b[to - 1] == '\r')
+			to--;
+		if (to == from)
+			return;
+
+		int count = 0;
+		fields[count++] = from;
+		for (int i = from; i < to && count <= FIELDS; i++)
+			if (b[i] == ',')
+				fields[count++] = i + 1;
+
+		if (count != FIELDS)
+			throw malformed("expected " + FIELDS + " fields", b, from, to);
+
+		fields[FIELDS] = to + 1;
+		if (line == 1 && !isNumber(b, fields[1], fields[2] - 1))
+			return;
+
+		batch[batched++] = new Atom(
+				name(b, fields[0], fields[1] - 1),
+				parseInt(b, fields[1], fields[2] - 1, from, to),
+				state(b, fields[2], fields[3] - 1, from, to),
+				parseDouble(b, fields[3], fields[4] - 1, from, to),
+				parseDouble(b, fields[4], fields[5] - 1, from, to),
+				parseDouble(b, fields[5], fields[6] - 1, from, to));
+
+		if (batched == BATCH)
+			flush();
+	}
+
+	private void flush() {
+		if (batched == 0)
+			return;
+
+		if (loaded == 0 && length > 0) {
+			long rows = length * batched / Math.max(consumed, 1);
+			target.ensureCapacity((int) Math.min(target.size() + rows + rows / 16, GrowthPolicy.MAX_CAPACITY));
+		}
+
+		target.addAll(batched == BATCH ? batch : Arrays.copyOf(batch, batched));
+		loaded += batched;
+		batched = 0;
+	}
+
+	/**
+	 * Returns the name of the field, sharing the string of the last equal name which hashed to the same slot.
+	 */
+	private String name(byte[] b, int from, int to) {
+		if (from == to)
+			return null;
+
+		int hash = 0;
+		for (int i = from; i < to; i++)
+			hash = 31 * hash + b[i];
+
+		int slot = (hash ^ hash >>> 16) & (NAMES - 1);
+		byte[] cached = nameBytes[slot];
+		if (cached != null && Arrays.equals(cached, 0, cached.length, b, from, to))
+			return names[slot];
+
+		nameBytes[slot] = Arrays.copyOfRange(b, from, to);
+		return names[slot] = new String(b, from, to - from, StandardCharsets.UTF_8);
+	}
+
+	private AtomicState state(byte[] b, int from, int to, int lineFrom, int lineTo) throws IOException {
+		if (from == to)
+			return AtomicState.UNKNOWN;
+
+		for (AtomicState state : STATES) {
+			String name = state.name();
+			if (name.length() != to - from)
+				continue;
+
+			int i = 0;
+			while (i < name.length() && Character.toUpperCase(b[from + i]) == name.charAt(i))
+				i++;
+			if (i == name.length())
+				return state;
+		}
+
+		throw malformed("unknown state", b, lineFrom, lineTo);
+	}
+
+	private static boolean isNumber(byte[] b, int from, int to) {
+		if (from < to && (b[from] == '-' || b[from] == '+'))
+			from++;
+		if (from == to)
+			return false;
+
+		for (int i = from; i < to; i++)
+			if (b[i] < '0' || b[i] > '9')
+				return false;
+
+		return true;
+	}
+
+	private int parseInt(byte[] b, int from, int to, int lineFrom, int lineTo) throws IOException {
+		boolean negative = from < to && b[from] == '-';
+		int i = from < to && (b[from] == '-' || b[from] == '+') ? from + 1 : from;
+		if (i == to || to - i > 10)
+			throw malformed("invalid number", b, lineFrom, lineTo);
+
+		long value = 0;
+		for (; i < to; i++) {
+			int digit = b[i] - '0';
+			if (digit < 0 || digit > 9)
+				throw malformed("invalid number", b, lineFrom, lineTo);
+
+			value = value * 10 + digit;
+		}
+
+		value = negative ? -value : value;
+		if (value != (int) value)
+			throw malformed("invalid number", b, lineFrom, lineTo);
+
+		return (int) value;
+	}
+
+	/**
+	 * Parses plain decimals of up to 15 digits and 22 fraction digits exactly from the bytes, since both the digits and
+	 * the power of ten are exact doubles and the division rounds correctly. Anything else falls back to
+	 * {@link Double#parseDouble}.
+	 */
+	private double parseDouble(byte[] b, int from, int to, int lineFrom, int lineTo) throws IOException {
+		boolean negative = from < to && b[from] == '-';
+		int i = from < to && (b[from] == '-' || b[from] == '+') ? from + 1 : from;
+		long mantissa = 0;
+		int digits = 0, fraction = -1;
+		for (; i < to; i++) {
+			int c = b[i];
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa * 10 + c - '0';
+				digits++;
+				if (fraction >= 0)
+					fraction++;
+			} else if (c == '.' && fraction < 0) {
+				fraction = 0;
+			} else {
+				break;
+			}
+		}
+
+		if (i == to && digits > 0 && digits <= 15 && fraction < POW10.length) {
+			double value = fraction > 0 ? mantissa / POW10[fraction] : mantissa;
+			return negative ? -value : value;
+		}
+
+		try {
+			return Double.parseDouble(new String(b, from, to - from, StandardCharsets.ISO_8859_1));
+		} catch (NumberFormatException e) {
+			throw malformed("invalid decimal", b, lineFrom, lineTo);
+		}
+	}
+
+	private IOException malformed(String reason, byte[] b, int from, int to) {
+		return new IOException("Malformed atom on line " + line + " (" + reason + "): "
+				+ new String(b, from, to - from, StandardCharsets.UTF_8));
+	}
+
+	// endregion
+}
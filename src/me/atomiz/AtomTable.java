@@ -0,0 +1,383 @@
+package me.atomiz;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * A column oriented list of {@link Atom} records. Every field is kept in its own primitive array and the names are
+ * dictionary coded, so scans over a single field only touch that field's memory. {@link Atom} instances are only
+ * created when an element is requested.
+ */
+class AtomTable {
+	private final static int RESIZE_THRESHOLD = 10;
+	private final static byte NO_STATE = -1;
+	private final static int NO_NAME = -1;
+	private final static AtomicState[] STATES = AtomicState.values();
+
+	private int[] name;
+	private int[] number;
+	private byte[] state;
+	private double[] mass;
+	private double[] density;
+	private double[] meltingPoint;
+	private int size = 0;
+
+	private String[] names = new String[0];
+	private final Map<String, Integer> codes = new HashMap<>();
+
+	public AtomTable() {
+		this(0);
+	}
+
+	public AtomTable(int size) {
+		name = new int[size];
+		number = new int[size];
+		state = new byte[size];
+		mass = new double[size];
+		density = new double[size];
+		meltingPoint = new double[size];
+	}
+
+	/**
+	 * Creates a table holding the elements of the specified list.
+	 *
+	 * @param atoms the list, must not contain {@code null} elements
+	 * @return the table
+	 */
+	public static AtomTable of(Atoms<Atom> atoms) {
+		AtomTable table = new AtomTable(atoms.size());
+		for (int i = 0; i < atoms.size(); i++)
+			table.add(atoms.get(i));
+
+		return table;
+	}
+
+	// region base
+
+	/**
+	 * Returns the amount of rows stored in the table.
+	 *
+	 * @return the table size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if the table has no rows.
+	 *
+	 * @return {@code true} if the table has no rows
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Clears the table. The name dictionary is kept.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Materializes the row at the specified index as a new {@link Atom}.
+	 *
+	 * @param i the index
+	 * @return the element
+	 */
+	public Atom get(int i) {
+		Objects.checkIndex(i, size);
+		return new Atom(name(i), number[i], state(i), mass[i], density[i], meltingPoint[i]);
+	}
+
+	/**
+	 * Returns the amount of rows matching the filter. The filter receives the row index and should read the columns it
+	 * needs through the accessors, e.g. {@code i -> table.mass(i) > 5}.
+	 *
+	 * @param filter the filter to test for
+	 * @return the amount
+	 */
+	public int countIf(IntPredicate filter) {
+		Objects.requireNonNull(filter);
+		int count = 0;
+		for (int i = 0; i < size; i++)
+			if (filter.test(i))
+				count++;
+
+		return count;
+	}
+
+	/**
+	 * Returns the amount of rows meeting the filter. Every row is materialized, prefer {@link #countIf(IntPredicate)}.
+	 *
+	 * @param filter the filter to test for
+	 * @return the amount
+	 */
+	public int countAtomsIf(Predicate<Atom> filter) {
+		Objects.requireNonNull(filter);
+		int count = 0;
+		for (int i = 0; i < size; i++)
+			if (filter.test(get(i)))
+				count++;
+
+		return count;
+	}
+
+	/**
+	 * Returns an estimate of the bytes used by the columns and the name dictionary.
+	 *
+	 * @return the amount of bytes
+	 */
+	public long bytes() {
+		long columns = (long) number.length * (4 + 4 + 1 + 8 + 8 + 8);
+		long dictionary = (long) names.length * 4;
+		for (int c = 0; c < codes.size(); c++)
+			dictionary += 40 + names[c].length() * 2L;
+
+		return columns + dictionary;
+	}
+
+	private void resize(int amount) {
+		if (size + amount <= number.length)
+			return;
+
+		int capacity = Math.max(Math.max(number.length << 1, size + amount), RESIZE_THRESHOLD);
+		name = Arrays.copyOf(name, capacity);
+		number = Arrays.copyOf(number, capacity);
+		state = Arrays.copyOf(state, capacity);
+		mass = Arrays.copyOf(mass, capacity);
+		density = Arrays.copyOf(density, capacity);
+		meltingPoint = Arrays.copyOf(meltingPoint, capacity);
+	}
+
+	private int code(String n) {
+		if (n == null)
+			return NO_NAME;
+
+		Integer code = codes.get(n);
+		if (code != null)
+			return code;
+
+		int c = codes.size();
+		if (c == names.length)
+			names = Arrays.copyOf(names, Math.max(names.length << 1, RESIZE_THRESHOLD));
+		names[c] = n;
+		codes.put(n, c);
+		return c;
+	}
+
+	// endregion
+
+	// region columns
+
+	/**
+	 * Returns the name of the row at the specified index.
+	 *
+	 * @param i the index
+	 * @return the name
+	 */
+	public String name(int i) {
+		Objects.checkIndex(i, size);
+		int c = name[i];
+		return c == NO_NAME ? null : names[c];
+	}
+
+	/**
+	 * Returns the atomic number of the row at the specified index.
+	 *
+	 * @param i the index
+	 * @return the atomic number
+	 */
+	public int number(int i) {
+		Objects.checkIndex(i, size);
+		return number[i];
+	}
+
+	/**
+	 * Returns the {@link AtomicState} of the row at the specified index.
+	 *
+	 * @param i the index
+	 * @return the {@link AtomicState}
+	 */
+	public AtomicState state(int i) {
+		Objects.checkIndex(i, size);
+		byte s = state[i];
+		return s == NO_STATE ? null : STATES[s];
+	}
+
+	/**
+	 * Returns the mass of the row at the specified index.
+	 *
+	 * @param i the index
+	 * @return the mass
+	 */
+	public double mass(int i) {
+		Objects.checkIndex(i, size);
+		return mass[i];
+	}
+
+	/**
+	 * Returns the density of the row at the specified index.
+	 *
+	 * @param i the index
+	 * @return the density
+	 */
+	public double density(int i) {
+		Objects.checkIndex(i, size);
+		return density[i];
+	}
+
+	/**
+	 * Returns the melting point of the row at the specified index.
+	 *
+	 * @param i the index
+	 * @return the melting point
+	 */
+	public double meltingPoint(int i) {
+		Objects.checkIndex(i, size);
+		return meltingPoint[i];
+	}
+
+	/**
+	 * Returns the backing array of the atomic numbers, valid up to {@link #size}. Used by the {@link AtomFilter} scans.
+	 */
+	int[] numbers() {
+		return number;
+	}
+
+	/**
+	 * Returns the backing array of the state ordinals, -1 for no state, valid up to {@link #size}. Used by the
+	 * {@link AtomFilter} scans.
+	 */
+	byte[] states() {
+		return state;
+	}
+
+	/**
+	 * Returns the backing array of the masses, valid up to {@link #size}. Used by the {@link AtomFilter} scans.
+	 */
+	double[] masses() {
+		return mass;
+	}
+
+	/**
+	 * Returns the backing array of the densities, valid up to {@link #size}. Used by the {@link AtomFilter} scans.
+	 */
+	double[] densities() {
+		return density;
+	}
+
+	/**
+	 * Returns the backing array of the melting points, valid up to {@link #size}. Used by the {@link AtomFilter} scans.
+	 */
+	double[] meltingPoints() {
+		return meltingPoint;
+	}
+
+	// endregion
+
+	// region add/set
+
+	/**
+	 * Adds the specified element to the table.
+	 *
+	 * @param e the element
+	 */
+	public void add(Atom e) {
+		add(e.name, e.number, e.state, e.mass, e.density, e.meltingPoint);
+	}
+
+	/**
+	 * Adds a row with the specified fields to the table without creating an {@link Atom}.
+	 *
+	 * @param name         The name
+	 * @param number       The atomic number
+	 * @param state        The {@link AtomicState}
+	 * @param mass         The mass
+	 * @param density      The density
+	 * @param meltingPoint The melting point
+	 */
+	public void add(String name, int number, AtomicState state, double mass, double density, double meltingPoint) {
+		resize(1);
+		write(size++, name, number, state, mass, density, meltingPoint);
+	}
+
+	/**
+	 * Sets the row at the specified index to the fields of the specified element.
+	 *
+	 * @param index   the index
+	 * @param element the element
+	 * @return the element previously at this index
+	 */
+	public Atom set(int index, Atom element) {
+		Atom prev = get(index);
+		write(index, element.name, element.number, element.state, element.mass, element.density, element.meltingPoint);
+		return prev;
+	}
+
+	private void write(int i, String name, int number, AtomicState state, double mass, double density, double meltingPoint) {
+		this.name[i] = code(name);
+		this.number[i] = number;
+		this.state[i] = state == null ? NO_STATE : (byte) state.ordinal();
+		this.mass[i] = mass;
+		this.density[i] = density;
+		this.meltingPoint[i] = meltingPoint;
+	}
+
+	// endregion
+
+	// region remove
+
+	/**
+	 * Removes the row at the specified index.
+	 *
+	 * @param index the index
+	 */
+	public void remove(int index) {
+		Objects.checkIndex(index, size);
+		int moved = size - index - 1;
+		System.arraycopy(name, index + 1, name, index, moved);
+		System.arraycopy(number, index + 1, number, index, moved);
+		System.arraycopy(state, index + 1, state, index, moved);
+		System.arraycopy(mass, index + 1, mass, index, moved);
+		System.arraycopy(density, index + 1, density, index, moved);
+		System.arraycopy(meltingPoint, index + 1, meltingPoint, index, moved);
+		size--;
+	}
+
+	/**
+	 * Removes the last row of the table.
+	 */
+	public void removeLast() {
+		if (size > 0)
+			size--;
+	}
+
+	// endregion
+
+	/**
+	 * Materializes every row into a new {@link Atoms} list.
+	 *
+	 * @return the list
+	 */
+	public Atoms<Atom> toAtoms() {
+		Atoms<Atom> atoms = new Atoms<>(size);
+		for (int i = 0; i < size; i++)
+			atoms.add(get(i));
+
+		return atoms;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < size; i++)
+			sb.append(i == 0 ? "" : "\n").append(get(i));
+
+		return sb.toString();
+	}
+}
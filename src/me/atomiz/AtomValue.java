@@ -0,0 +1,233 @@
+package me.atomiz;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+
+/**
+ * An immutable {@link Atom} value shared through a pool. Equal values are never pooled twice, so pooled values can be
+ * compared by identity and {@link java.util.Objects#equals} returns before reading any field. The hash is computed
+ * once.
+ * <p>
+ * The pool references its values weakly, values no longer used anywhere else are dropped by the garbage collector.
+ * It is probed with the hash and the fields of the requested value, so finding a pooled value creates no object.
+ * A value is never equal to a mutable {@link Atom}, use {@link #toAtom} or {@link Atom#intern} to compare them.
+ */
+final class AtomValue {
+	private static final Object LOCK = new Object();
+	private static final ReferenceQueue<AtomValue> CLEARED = new ReferenceQueue<>();
+	private static Entry[] pool = new Entry[64];
+	private static int pooled;
+
+	private final String name;
+	private final int number;
+	private final AtomicState state;
+	private final double mass;
+	private final double density;
+	private final double meltingPoint;
+	private final int hash;
+
+	private AtomValue(String name, int number, AtomicState state, double mass, double density, double meltingPoint, int hash) {
+		this.name = name;
+		this.number = number;
+		this.state = state;
+		this.mass = mass;
+		this.density = density;
+		this.meltingPoint = meltingPoint;
+		this.hash = hash;
+	}
+
+	/**
+	 * A weakly referenced pooled value in the chain of its bucket.
+	 */
+	private static final class Entry extends WeakReference<AtomValue> {
+		final int hash;
+		Entry next;
+
+		Entry(AtomValue value, Entry next) {
+			super(value, CLEARED);
+			hash = value.hash;
+			this.next = next;
+		}
+	}
+
+	/**
+	 * Returns the shared instance with the specified values, creating it on first use.
+	 *
+	 * @param name         The name
+	 * @param number       The atomic number
+	 * @param state        The {@link AtomicState}
+	 * @param mass         The mass
+	 * @param density      The density
+	 * @param meltingPoint The melting point
+	 * @return the shared instance
+	 */
+	static AtomValue of(String name, int number, AtomicState state, double mass, double density, double meltingPoint) {
+		int hash = Atom.hash(name, number, state, mass, density, meltingPoint);
+		synchronized (LOCK) {
+			expunge();
+			int b = hash & (pool.length - 1);
+			for (Entry e = pool[b]; e != null; e = e.next) {
+				AtomValue value = e.hash == hash ? e.get() : null;
+				if (value != null && value.is(name, number, state, mass, density, meltingPoint))
+					return value;
+			}
+
+			AtomValue value = new AtomValue(name, number, state, mass, density, meltingPoint, hash);
+			pool[b] = new Entry(value, pool[b]);
+			if (++pooled > pool.length * 3 / 4)
+				resize();
+
+			return value;
+		}
+	}
+
+	/**
+	 * Returns the amount of values currently pooled.
+	 *
+	 * @return the amount
+	 */
+	static int pooled() {
+		synchronized (LOCK) {
+			expunge();
+			return pooled;
+		}
+	}
+
+	/**
+	 * Unlinks the entries whose values were collected. The caller holds the lock.
+	 */
+	private static void expunge() {
+		for (Object cleared; (cleared = CLEARED.poll()) != null; ) {
+			Entry entry = (Entry) cleared;
+			int b = entry.hash & (pool.length - 1);
+			for (Entry e = pool[b], prev = null; e != null; prev = e, e = e.next)
+				if (e == entry) {
+					if (prev == null)
+						pool[b] = e.next;
+					else
+						prev.next = e.next;
+					pooled--;
+					break;
+				}
+		}
+	}
+
+	/**
+	 * Doubles the amount of buckets. The caller holds the lock.
+	 */
+	private static void resize() {
+		Entry[] grown = new Entry[pool.length * 2];
+		for (Entry e : pool)
+			while (e != null) {
+				Entry next = e.next;
+				int b = e.hash & (grown.length - 1);
+				e.next = grown[b];
+				grown[b] = e;
+				e = next;
+			}
+
+		pool = grown;
+	}
+
+	private boolean is(String name, int number, AtomicState state, double mass, double density, double meltingPoint) {
+		return this.number == number
+				&& Double.compare(this.mass, mass) == 0
+				&& Double.compare(this.density, density) == 0
+				&& Double.compare(this.meltingPoint, meltingPoint) == 0
+				&& Objects.equals(this.name, name)
+				&& this.state == state;
+	}
+
+	// region values
+
+	/**
+	 * Returns the name.
+	 *
+	 * @return the name
+	 */
+	public String name() {
+		return name;
+	}
+
+	/**
+	 * Returns the atomic number.
+	 *
+	 * @return the atomic number
+	 */
+	public int number() {
+		return number;
+	}
+
+	/**
+	 * Returns the {@link AtomicState}.
+	 *
+	 * @return the state
+	 */
+	public AtomicState state() {
+		return state;
+	}
+
+	/**
+	 * Returns the mass.
+	 *
+	 * @return the mass
+	 */
+	public double mass() {
+		return mass;
+	}
+
+	/**
+	 * Returns the density.
+	 *
+	 * @return the density
+	 */
+	public double density() {
+		return density;
+	}
+
+	/**
+	 * Returns the melting point.
+	 *
+	 * @return the melting point
+	 */
+	public double meltingPoint() {
+		return meltingPoint;
+	}
+
+	// endregion
+
+	/**
+	 * Creates a new mutable {@link Atom} with the values of this one.
+	 *
+	 * @return the atom
+	 */
+	public Atom toAtom() {
+		return new Atom(name, number, state, mass, density, meltingPoint);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof AtomValue))
+			return false;
+		AtomValue atom = (AtomValue) o;
+		return hash == atom.hash && is(atom.name, atom.number, atom.state, atom.mass, atom.density, atom.meltingPoint);
+	}
+
+	@Override
+	public String toString() {
+		return name + " - "
+				+ number + ", "
+				+ state.toString().toLowerCase() + ", "
+				+ mass + ", "
+				+ density + ", "
+				+ meltingPoint;
+	}
+}
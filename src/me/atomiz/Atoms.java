@@ -3,17 +3,31 @@ package me.atomiz;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A custom list with specified elements of a given type.
  *
  * @param <T> the type
  */
-class Atoms<T> {
+class Atoms<T> implements Iterable<T> {
 	private final static int RESIZE_THRESHOLD = 10;
 	private final int INITIAL_SIZE;
 	private T[] atoms;
 	private int size = 0;
+	private GrowthPolicy growth = GrowthPolicy.DEFAULT;
+	private HashIndex<T, T> index;
+	@SuppressWarnings("unchecked")
+	private AtomsIndex<T>[] indexes = (AtomsIndex<T>[]) new AtomsIndex<?>[0];
+	private int modCount = 0;
+	private Atoms<T> root;
+	private int offset = 0;
+	private int expectedModCount;
+	private AtomsMetrics metrics;
+	private boolean frozen;
 
 	public Atoms() {
 		INITIAL_SIZE = 0;
@@ -38,9 +52,34 @@ class Atoms<T> {
 	}
 
 	public Atoms(Atoms<T> atoms) {
+		atoms.checkStale();
 		INITIAL_SIZE = atoms.size;
 		size = atoms.size;
-		this.atoms = atoms.atoms;
+		this.atoms = Arrays.copyOfRange(atoms.atoms, atoms.offset, atoms.offset + atoms.size);
+	}
+
+	/**
+	 * Creates an immutable list of the elements of the specified array, which must not be modified afterwards. The list
+	 * never changes, so once it is safely published to other threads, through a volatile or final field, a concurrent
+	 * collection or a lock, they can all read it without synchronization. Its fields are not final, handing it over
+	 * through a plain field is a data race.
+	 */
+	static <T> Atoms<T> frozen(T[] array) {
+		Atoms<T> atoms = new Atoms<>(array);
+		atoms.frozen = true;
+		return atoms;
+	}
+
+	/**
+	 * Creates a read only view of {@code size} elements of the specified list starting from {@code offset}.
+	 */
+	private Atoms(Atoms<T> root, int offset, int size) {
+		INITIAL_SIZE = size;
+		this.size = size;
+		this.root = root;
+		this.offset = offset;
+		atoms = root.atoms;
+		expectedModCount = root.modCount;
 	}
 
 	// region base
@@ -52,8 +91,12 @@ class Atoms<T> {
 	 * @return the amount
 	 */
 	public int count(T e) {
+		if (index != null)
+			return index.count(e);
+
+		checkStale();
 		int count = 0;
-		for (int i = 0; i < size; i++) {
+		for (int i = offset, end = offset + size; i < end; i++) {
 			if (Objects.equals(atoms[i], e))
 				count++;
 		}
@@ -69,8 +112,9 @@ class Atoms<T> {
 	 */
 	public int countIf(Predicate<T> filter) {
 		Objects.requireNonNull(filter);
+		checkStale();
 		int count = 0;
-		for (int i = 0; i < size; i++) {
+		for (int i = offset, end = offset + size; i < end; i++) {
 			if (filter.test(atoms[i]))
 				count++;
 		}
@@ -85,11 +129,10 @@ class Atoms<T> {
 	 * @return {@code true} if the list contains the specified element
 	 */
 	public boolean contains(T e) {
-		for (int i = 0; i < size; i++)
-			if (Objects.equals(atoms[i], e))
-				return true;
+		if (index != null)
+			return index.contains(e);
 
-		return false;
+		return indexOf(e) != -1;
 	}
 
 	/**
@@ -99,10 +142,18 @@ class Atoms<T> {
 	 * @return the index of the element or -1
 	 */
 	public int indexOf(T e) {
-		for (int i = 0; i < size; i++)
-			if (Objects.equals(atoms[i], e))
-				return i;
+		if (index != null)
+			return index.first(e);
+
+		checkStale();
+		long start = start();
+		for (int i = offset, end = offset + size; i < end; i++)
+			if (Objects.equals(atoms[i], e)) {
+				scanned(start, i - offset + 1, true);
+				return i - offset;
+			}
 
+		scanned(start, size, false);
 		return -1;
 	}
 
@@ -113,10 +164,18 @@ class Atoms<T> {
 	 * @return the last index of the element or -1
 	 */
 	public int lastIndexOf(T e) {
-		for (int i = size - 1; i >= 0; i--)
-			if (Objects.equals(atoms[i], e))
-				return i;
+		if (index != null)
+			return index.last(e);
+
+		checkStale();
+		long start = start();
+		for (int i = offset + size - 1; i >= offset; i--)
+			if (Objects.equals(atoms[i], e)) {
+				scanned(start, offset + size - i, true);
+				return i - offset;
+			}
 
+		scanned(start, size, false);
 		return -1;
 	}
 
@@ -127,7 +186,11 @@ class Atoms<T> {
 	 * @return the element
 	 */
 	public T get(int i) {
-		return atoms[i];
+		if (root == null)
+			return atoms[i];
+
+		checkStale();
+		return atoms[offset + Objects.checkIndex(i, size)];
 	}
 
 	/**
@@ -152,8 +215,11 @@ class Atoms<T> {
 	 * Clears the list.
 	 */
 	public void clear() {
+		checkMutable();
+		modCount++;
 		size = 0;
 		atoms = (T[]) new Object[RESIZE_THRESHOLD];
+		rebuildIndexes();
 	}
 
 	/**
@@ -161,21 +227,423 @@ class Atoms<T> {
 	 *
 	 * @param action the action
 	 */
+	@Override
 	public void forEach(Consumer<? super T> action) {
 		Objects.requireNonNull(action);
-		Arrays.stream(atoms, 0, size).forEach(action);
+		checkStale();
+		T[] atoms = this.atoms;
+		for (int i = offset, end = offset + size; i < end; i++)
+			action.accept(atoms[i]);
+	}
+
+	/**
+	 * Performs an action on each element and its index.
+	 *
+	 * @param action the action
+	 */
+	public void forEachIndexed(IntObjConsumer<? super T> action) {
+		Objects.requireNonNull(action);
+		checkStale();
+		T[] atoms = this.atoms;
+		for (int i = 0; i < size; i++)
+			action.accept(i, atoms[offset + i]);
+	}
+
+	/**
+	 * Returns the sum of the specified value of each element.
+	 *
+	 * @param value the value of an element
+	 * @return the sum
+	 */
+	public double sumDouble(ToDoubleFunction<? super T> value) {
+		Objects.requireNonNull(value);
+		checkStale();
+		double sum = 0;
+		for (int i = offset, end = offset + size; i < end; i++)
+			sum += value.applyAsDouble(atoms[i]);
+
+		return sum;
+	}
+
+	/**
+	 * Returns the sum of the specified value of each element.
+	 *
+	 * @param value the value of an element
+	 * @return the sum
+	 */
+	public long sumLong(ToLongFunction<? super T> value) {
+		Objects.requireNonNull(value);
+		checkStale();
+		long sum = 0;
+		for (int i = offset, end = offset + size; i < end; i++)
+			sum += value.applyAsLong(atoms[i]);
+
+		return sum;
 	}
 
 	private void resize(int amount) {
 		if (amount > 0) {
-			if (size + amount > atoms.length)
-				atoms = Arrays.copyOf(atoms, Math.max(atoms.length << 1, RESIZE_THRESHOLD));
+			if (size + amount > atoms.length || size + amount < 0)
+				reallocate(growth.grow(atoms.length, size + amount));
 		} else if (amount < 0) {
-			if (atoms.length >> 1 >= size + amount)
-				atoms = Arrays.copyOf(atoms, atoms.length << 1);
+			int capacity = growth.shrink(atoms.length, size);
+			if (capacity < atoms.length && capacity >= size)
+				reallocate(capacity);
 		}
 	}
 
+	private void reallocate(int capacity) {
+		atoms = Arrays.copyOf(atoms, capacity);
+		if (metrics != null)
+			metrics.resized(Math.min(size, capacity));
+	}
+
+	/**
+	 * Returns the clock reading measured operations start from, {@code 0} without metrics.
+	 */
+	private long start() {
+		return metrics == null ? 0 : System.nanoTime();
+	}
+
+	private void scanned(long start, int length, boolean hit) {
+		if (metrics != null)
+			metrics.scanned(start, length, hit);
+	}
+
+	/**
+	 * Returns {@code true} if the list was {@link AtomsBuilder#build() built} and can not be modified.
+	 *
+	 * @return {@code true} if the list is immutable
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Throws if this list is a view or frozen, neither can be modified.
+	 */
+	private void checkMutable() {
+		if (root != null)
+			throw new UnsupportedOperationException("A view of a list can not be modified");
+		if (frozen)
+			throw new UnsupportedOperationException("A built list can not be modified");
+	}
+
+	/**
+	 * Throws if this list is a view and its parent list was structurally modified since the view was created.
+	 */
+	private void checkStale() {
+		if (root != null && root.modCount != expectedModCount)
+			throw new ConcurrentModificationException("The parent list of the view was modified");
+	}
+
+	// endregion
+
+	// region stream
+
+	/**
+	 * Returns an iterator over the elements. It throws a {@link ConcurrentModificationException} once the list is
+	 * structurally modified.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return Spliterators.iterator(spliterator());
+	}
+
+	/**
+	 * Returns a cursor over the elements. Unlike an {@link #iterator} it can be {@link Cursor#reset reset} and walked
+	 * again without allocating.
+	 *
+	 * @return the cursor
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * A reusable cursor over the elements of the list, positioned before the first element until {@link #next} is
+	 * called:
+	 * <pre>
+	 * for (cursor.reset(); cursor.next(); )
+	 *     use(cursor.get());
+	 * </pre>
+	 * It throws a {@link ConcurrentModificationException} once the list is structurally modified since the last reset.
+	 */
+	public final class Cursor {
+		private T[] array;
+		private int i;
+		private int end;
+		private int expected;
+
+		private Cursor() {
+			reset();
+		}
+
+		/**
+		 * Moves the cursor before the first element of the current elements of the list.
+		 *
+		 * @return this
+		 */
+		public Cursor reset() {
+			checkStale();
+			array = atoms;
+			i = offset - 1;
+			end = offset + size;
+			expected = (root == null ? Atoms.this : root).modCount;
+			return this;
+		}
+
+		/**
+		 * Moves the cursor to the next element.
+		 *
+		 * @return {@code true} if the cursor is on an element, {@code false} once the elements are exhausted
+		 */
+		public boolean next() {
+			if ((root == null ? Atoms.this : root).modCount != expected)
+				throw new ConcurrentModificationException();
+
+			return i < end && ++i < end;
+		}
+
+		/**
+		 * Returns the element the cursor is on.
+		 *
+		 * @return the element
+		 */
+		public T get() {
+			if (i < offset || i >= end)
+				throw new NoSuchElementException();
+
+			return array[i];
+		}
+
+		/**
+		 * Returns the index of the element the cursor is on.
+		 *
+		 * @return the index
+		 */
+		public int index() {
+			return i - offset;
+		}
+	}
+
+	/**
+	 * Returns a {@link Spliterator} over the backing array which splits into exactly sized halves. It throws a
+	 * {@link ConcurrentModificationException} once the list is structurally modified.
+	 *
+	 * @return the spliterator
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		checkStale();
+		Atoms<T> list = root == null ? this : root;
+		int expected = list.modCount;
+		return new AtomsSpliterator<>(atoms, offset, offset + size, () -> {
+			if (list.modCount != expected)
+				throw new ConcurrentModificationException();
+		});
+	}
+
+	/**
+	 * Returns a sequential {@link Stream} of the elements.
+	 *
+	 * @return the stream
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Returns a parallel {@link Stream} of the elements, splitting the backing array without copying it.
+	 *
+	 * @return the stream
+	 */
+	public Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	// endregion
+
+	// region capacity
+
+	/**
+	 * Sets the policy deciding how the backing array grows and shrinks.
+	 *
+	 * @param growth the policy
+	 */
+	public void setGrowthPolicy(GrowthPolicy growth) {
+		checkMutable();
+		this.growth = Objects.requireNonNull(growth);
+	}
+
+	/**
+	 * Returns the policy deciding how the backing array grows and shrinks.
+	 *
+	 * @return the policy
+	 */
+	public GrowthPolicy getGrowthPolicy() {
+		return growth;
+	}
+
+	/**
+	 * Grows the backing array so that it fits at least the specified amount of elements without further copying.
+	 *
+	 * @param capacity the minimum capacity
+	 */
+	public void ensureCapacity(int capacity) {
+		checkMutable();
+		if (capacity <= atoms.length)
+			return;
+
+		modCount++;
+		reallocate(capacity);
+	}
+
+	/**
+	 * Shrinks the backing array to the amount of elements in the list.
+	 */
+	public void trimToSize() {
+		checkMutable();
+		if (size == atoms.length)
+			return;
+
+		modCount++;
+		reallocate(size);
+	}
+
+	/**
+	 * Returns the length of the backing array.
+	 *
+	 * @return the capacity
+	 */
+	int capacity() {
+		return atoms.length;
+	}
+
+	// endregion
+
+	// region metrics
+
+	/**
+	 * Attaches the specified metrics to the list or detaches the current ones when {@code null}. Without metrics the
+	 * instrumented operations only check for them.
+	 *
+	 * @param metrics the metrics or {@code null}
+	 */
+	public void setMetrics(AtomsMetrics metrics) {
+		if (this.metrics != null)
+			this.metrics.detach(this);
+		if (metrics != null)
+			metrics.attach(this);
+
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Returns the metrics attached to the list or {@code null}.
+	 *
+	 * @return the metrics or {@code null}
+	 */
+	public AtomsMetrics getMetrics() {
+		return metrics;
+	}
+
+	// endregion
+
+	// region index
+
+	/**
+	 * Enables or disables the hash index over the elements. While enabled {@link #contains}, {@link #count},
+	 * {@link #indexOf} and {@link #lastIndexOf} are answered in constant time, at the cost of updating the index on
+	 * every modification. Elements must not change their {@link Object#hashCode() hash} while they are indexed.
+	 *
+	 * @param indexed whether the list should be indexed
+	 */
+	public void setIndexed(boolean indexed) {
+		checkMutable();
+		if (indexed == (index != null))
+			return;
+
+		if (indexed) {
+			index = new HashIndex<>(e -> e);
+			addIndex(index);
+		} else {
+			removeIndex(index);
+			index = null;
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the hash index over the elements is enabled.
+	 *
+	 * @return {@code true} if the list is indexed
+	 */
+	public boolean isIndexed() {
+		return index != null;
+	}
+
+	/**
+	 * Returns an estimate of the bytes used by the indexes of the list.
+	 *
+	 * @return the amount of bytes
+	 */
+	public long indexBytes() {
+		long bytes = 0;
+		for (AtomsIndex<T> i : indexes)
+			bytes += i.bytes();
+
+		return bytes;
+	}
+
+	/**
+	 * Builds the specified index from the current elements and keeps it in sync with the list.
+	 *
+	 * @param i the index
+	 */
+	void addIndex(AtomsIndex<T> i) {
+		checkMutable();
+		i.rebuild(atoms, size);
+		indexes = Arrays.copyOf(indexes, indexes.length + 1);
+		indexes[indexes.length - 1] = i;
+	}
+
+	/**
+	 * Stops keeping the specified index in sync with the list.
+	 *
+	 * @param i the index
+	 */
+	void removeIndex(AtomsIndex<T> i) {
+		for (int j = 0; j < indexes.length; j++)
+			if (indexes[j] == i) {
+				AtomsIndex<T>[] a = Arrays.copyOf(indexes, indexes.length - 1);
+				System.arraycopy(indexes, j + 1, a, j, indexes.length - j - 1);
+				indexes = a;
+				return;
+			}
+	}
+
+	private void indexAdded(int i, T e) {
+		for (AtomsIndex<T> x : indexes)
+			x.added(i, e);
+	}
+
+	private void indexRemoved(int i, T e) {
+		for (AtomsIndex<T> x : indexes)
+			x.removed(i, e);
+	}
+
+	private void indexSet(int i, T previous, T e) {
+		for (AtomsIndex<T> x : indexes)
+			x.set(i, previous, e);
+	}
+
+	private void rebuildIndexes() {
+		for (AtomsIndex<T> x : indexes)
+			x.rebuild(atoms, size);
+	}
+
 	// endregion
 
 	// region add
@@ -186,8 +654,14 @@ class Atoms<T> {
 	 * @param e the element
 	 */
 	public void add(T e) {
+		checkMutable();
+		long start = start();
+		modCount++;
 		resize(1);
 		atoms[size++] = e;
+		indexAdded(size - 1, e);
+		if (metrics != null)
+			metrics.added(start);
 	}
 
 	/**
@@ -197,10 +671,17 @@ class Atoms<T> {
 	 * @param e     the element
 	 */
 	public void add(int index, T e) {
+		checkMutable();
+		Objects.checkIndex(index, size + 1);
+		long start = start();
+		modCount++;
 		resize(1);
-		System.arraycopy(atoms, index, atoms, index + 1, atoms.length - index - 1);
-		set(index, e);
+		System.arraycopy(atoms, index, atoms, index + 1, size - index);
+		atoms[index] = e;
 		size++;
+		indexAdded(index, e);
+		if (metrics != null)
+			metrics.inserted(start, size - index - 1);
 	}
 
 	/**
@@ -209,8 +690,7 @@ class Atoms<T> {
 	 * @param e the {@link Arrays array} of elements
 	 */
 	public void addAll(T[] e) {
-		resize(e.length);
-		Arrays.stream(e).forEach(a -> atoms[size++] = a);
+		append(e, 0, e.length);
 	}
 
 	/**
@@ -219,7 +699,7 @@ class Atoms<T> {
 	 * @param e the {@link Collection Collection}
 	 */
 	public void addAll(Collection<T> e) {
-		e.forEach(this::add);
+		addAll((T[]) e.toArray());
 	}
 
 	/**
@@ -228,7 +708,8 @@ class Atoms<T> {
 	 * @param e the {@link Arrays array} of elements
 	 */
 	public void addAll(Atoms<T> e) {
-		addAll(e.atoms);
+		e.checkStale();
+		append(e.atoms, e.offset, e.size);
 	}
 
 	/**
@@ -238,12 +719,7 @@ class Atoms<T> {
 	 * @param elements the elements
 	 */
 	public void addAll(int index, T[] elements) {
-		resize(elements.length);
-
-		System.arraycopy(atoms, index, atoms, index + elements.length, atoms.length - index - elements.length);
-		System.arraycopy(elements, 0, atoms, index, elements.length);
-
-		size += elements.length;
+		insert(index, elements, 0, elements.length);
 	}
 
 	/**
@@ -263,9 +739,48 @@ class Atoms<T> {
 	 * @param atoms the collection to add
 	 */
 	public void addAll(int index, Atoms<T> atoms) {
-		List<T> a = new ArrayList<>();
-		atoms.forEach(a::add);
-		addAll(index, a);
+		atoms.checkStale();
+		insert(index, atoms.atoms, atoms.offset, atoms.size);
+	}
+
+	/**
+	 * Appends {@code length} elements of the specified array starting from {@code from}, growing the list at most once.
+	 */
+	private void append(T[] src, int from, int length) {
+		checkMutable();
+		modCount++;
+		resize(length);
+
+		System.arraycopy(src, from, atoms, size, length);
+		size += length;
+
+		for (int i = size - length; i < size; i++)
+			indexAdded(i, atoms[i]);
+	}
+
+	/**
+	 * Inserts {@code length} elements of the specified array starting from {@code from} at the specified index, growing
+	 * the list at most once.
+	 */
+	private void insert(int index, T[] src, int from, int length) {
+		checkMutable();
+		Objects.checkIndex(index, size + 1);
+		long start = start();
+		modCount++;
+
+		if (src == atoms) {
+			src = Arrays.copyOfRange(src, from, from + length);
+			from = 0;
+		}
+
+		resize(length);
+		System.arraycopy(atoms, index, atoms, index + length, size - index);
+		System.arraycopy(src, from, atoms, index, length);
+
+		size += length;
+		rebuildIndexes();
+		if (metrics != null)
+			metrics.inserted(start, size - length - index);
 	}
 
 	// endregion
@@ -280,11 +795,14 @@ class Atoms<T> {
 	 * @return the element previously at this index
 	 */
 	public T set(int index, T element) {
+		checkMutable();
 		if (index < 0)
 			return null;
 
+		Objects.checkIndex(index, size);
 		T prev = atoms[index];
 		atoms[index] = element;
+		indexSet(index, prev, element);
 		return prev;
 	}
 
@@ -296,11 +814,12 @@ class Atoms<T> {
 	 * @return the amount of replaced occurrences
 	 */
 	private int replace(T element, T replace, boolean first) {
+		checkMutable();
 		if (!contains(element))
 			return -1;
 
 		int index = first ? indexOf(element) : lastIndexOf(element);
-		atoms[index] = replace;
+		set(index, replace);
 
 		return index;
 	}
@@ -335,13 +854,22 @@ class Atoms<T> {
 	 * @return the amount of replaced occurrences
 	 */
 	public int replaceAll(T element, T replacement) {
+		checkMutable();
 		if (!contains(element))
 			return -1;
 
+		if (index != null) {
+			int[] positions = index.positions(element);
+			for (int i : positions)
+				set(i, replacement);
+
+			return positions.length;
+		}
+
 		int amount = 0;
-		for (int i = 0; i < atoms.length; i++)
+		for (int i = 0; i < size; i++)
 			if (Objects.equals(atoms[i], element)) {
-				atoms[i] = replacement;
+				set(i, replacement);
 				amount++;
 			}
 
@@ -353,19 +881,63 @@ class Atoms<T> {
 	// region remove
 
 	private boolean remove(T e, boolean first) {
+		checkMutable();
+		long start = start();
 		int i = first ? indexOf(e) : lastIndexOf(e);
 
 		if (i == -1)
 			return false;
 
+		modCount++;
+		T removed = atoms[i];
 		atoms[i] = null;
 		size--;
 		System.arraycopy(atoms, i + 1, atoms, i, size - i);
 
 		resize(-1);
+		indexRemoved(i, removed);
+		if (metrics != null)
+			metrics.removed(start, size - i);
 		return true;
 	}
 
+	/**
+	 * Tests every element first, then moves the elements not matching the filter to the front of the list in a single
+	 * pass, clears the freed tail and shrinks the list once. A filter throwing leaves the list unchanged.
+	 *
+	 * @param filter the condition of the elements to drop
+	 * @return the amount of removed elements
+	 */
+	private int compact(Predicate<T> filter) {
+		checkMutable();
+		int first = 0;
+		while (first < size && !filter.test(atoms[first]))
+			first++;
+		if (first == size)
+			return 0;
+
+		long[] drop = new long[size - first + 63 >>> 6];
+		drop[0] = 1;
+		int removed = 1;
+		for (int r = first + 1; r < size; r++)
+			if (filter.test(atoms[r])) {
+				drop[r - first >>> 6] |= 1L << r - first;
+				removed++;
+			}
+
+		modCount++;
+		int w = first;
+		for (int r = first + 1; r < size; r++)
+			if ((drop[r - first >>> 6] & 1L << r - first) == 0)
+				atoms[w++] = atoms[r];
+
+		Arrays.fill(atoms, w, size, null);
+		size = w;
+		resize(-removed);
+		rebuildIndexes();
+		return removed;
+	}
+
 	/**
 	 * Removes the first occurrence of the specified element from the list.
 	 *
@@ -376,6 +948,29 @@ class Atoms<T> {
 		return remove(e, true);
 	}
 
+	/**
+	 * Removes the element at the specified index.
+	 *
+	 * @param index the index
+	 * @return the removed element
+	 */
+	public T removeAt(int index) {
+		checkMutable();
+		Objects.checkIndex(index, size);
+		long start = start();
+		modCount++;
+		T removed = atoms[index];
+		size--;
+		System.arraycopy(atoms, index + 1, atoms, index, size - index);
+		atoms[size] = null;
+
+		resize(-1);
+		indexRemoved(index, removed);
+		if (metrics != null)
+			metrics.removed(start, size - index);
+		return removed;
+	}
+
 	/**
 	 * Removes the last occurrence of the specified element in the list.
 	 */
@@ -387,10 +982,14 @@ class Atoms<T> {
 	 * Removes the last element of the list.
 	 */
 	public void removeLast() {
+		checkMutable();
 		if (size == 0)
 			return;
-		atoms[--size] = null;
+		modCount++;
+		T removed = atoms[--size];
+		atoms[size] = null;
 		resize(-1);
+		indexRemoved(size, removed);
 	}
 
 	/**
@@ -400,14 +999,7 @@ class Atoms<T> {
 	 * @return the amount of removed elements
 	 */
 	public int removeAll(T e) {
-		if (!contains(e))
-			return 0;
-
-		int amount = 0;
-		for (; contains(e); amount++)
-			remove(e);
-
-		return amount;
+		return removeIf(a -> Objects.equals(a, e));
 	}
 
 	/**
@@ -418,50 +1010,212 @@ class Atoms<T> {
 	 */
 	public int removeIf(Predicate<T> filter) {
 		Objects.requireNonNull(filter);
-		int i = 0;
-		for (; i < size; i++)
-			if (filter.test(atoms[i]))
-				remove(atoms[i--]);
+		return compact(filter);
+	}
+
+	// endregion
 
-		return i;
+	// region parallel
+
+	/**
+	 * Returns the amount of elements meeting the filter, testing chunks of the list in parallel. The filter must be
+	 * safe to call from several threads.
+	 *
+	 * @param filter      the filter to test for
+	 * @param parallelism the pool and chunk threshold
+	 * @return the amount
+	 */
+	public int countIf(Predicate<T> filter, Parallelism parallelism) {
+		Objects.requireNonNull(filter);
+		checkStale();
+		int chunks = parallelism.chunks(size);
+		int[] counts = new int[chunks];
+		parallelism.run(chunks, c -> {
+			int count = 0;
+			for (int i = offset + Parallelism.start(c, chunks, size), end = offset + Parallelism.start(c + 1, chunks, size); i < end; i++)
+				if (filter.test(atoms[i]))
+					count++;
+			counts[c] = count;
+		});
+
+		return sum(counts);
+	}
+
+	/**
+	 * Returns the amount of occurrences of the specified element in the list, comparing chunks of the list in
+	 * parallel. An indexed list answers from its index instead.
+	 *
+	 * @param e           the element to count
+	 * @param parallelism the pool and chunk threshold
+	 * @return the amount
+	 */
+	public int count(T e, Parallelism parallelism) {
+		if (index != null)
+			return index.count(e);
+
+		return countIf(a -> Objects.equals(a, e), parallelism);
+	}
+
+	/**
+	 * Replaces all occurrences of this element with the specified replacement, replacing in chunks of the list in
+	 * parallel.
+	 *
+	 * @param element     the element to replace
+	 * @param replacement the replacement
+	 * @param parallelism the pool and chunk threshold
+	 * @return the amount of replaced occurrences or -1 if the list does not contain the element
+	 */
+	public int replaceAll(T element, T replacement, Parallelism parallelism) {
+		checkMutable();
+		int chunks = parallelism.chunks(size);
+		int[] counts = new int[chunks];
+		parallelism.run(chunks, c -> {
+			int count = 0;
+			for (int i = Parallelism.start(c, chunks, size), end = Parallelism.start(c + 1, chunks, size); i < end; i++)
+				if (Objects.equals(atoms[i], element)) {
+					atoms[i] = replacement;
+					count++;
+				}
+			counts[c] = count;
+		});
+
+		int amount = sum(counts);
+		if (amount == 0)
+			return -1;
+
+		rebuildIndexes();
+		return amount;
+	}
+
+	/**
+	 * Removes all elements matching the specified condition. Chunks of the list are tested in parallel, then a prefix
+	 * sum of the kept elements per chunk gives every chunk its target offset and the chunks are compacted in parallel
+	 * into a new array. The filter must be safe to call from several threads.
+	 *
+	 * @param filter      the condition
+	 * @param parallelism the pool and chunk threshold
+	 * @return the amount of removed elements
+	 */
+	public int removeIf(Predicate<T> filter, Parallelism parallelism) {
+		Objects.requireNonNull(filter);
+		checkMutable();
+		int chunks = parallelism.chunks(size);
+		if (chunks == 1)
+			return removeIf(filter);
+
+		boolean[] removed = new boolean[size];
+		int[] kept = new int[chunks + 1];
+		parallelism.run(chunks, c -> {
+			int count = 0;
+			for (int i = Parallelism.start(c, chunks, size), end = Parallelism.start(c + 1, chunks, size); i < end; i++)
+				if (filter.test(atoms[i]))
+					removed[i] = true;
+				else
+					count++;
+			kept[c + 1] = count;
+		});
+
+		for (int c = 0; c < chunks; c++)
+			kept[c + 1] += kept[c];
+
+		int remaining = kept[chunks];
+		if (remaining == size)
+			return 0;
+
+		T[] src = atoms;
+		T[] dst = (T[]) new Object[atoms.length];
+		parallelism.run(chunks, c -> {
+			int w = kept[c];
+			for (int i = Parallelism.start(c, chunks, size), end = Parallelism.start(c + 1, chunks, size); i < end; i++)
+				if (!removed[i])
+					dst[w++] = src[i];
+		});
+
+		modCount++;
+		int amount = size - remaining;
+		atoms = dst;
+		size = remaining;
+		resize(-amount);
+		rebuildIndexes();
+		return amount;
+	}
+
+	/**
+	 * Performs an action on each element, running chunks of the list in parallel. The action must be safe to call from
+	 * several threads, the order of the calls is unspecified.
+	 *
+	 * @param action      the action
+	 * @param parallelism the pool and chunk threshold
+	 */
+	public void forEach(Consumer<? super T> action, Parallelism parallelism) {
+		Objects.requireNonNull(action);
+		checkStale();
+		int chunks = parallelism.chunks(size);
+		parallelism.run(chunks, c -> {
+			for (int i = offset + Parallelism.start(c, chunks, size), end = offset + Parallelism.start(c + 1, chunks, size); i < end; i++)
+				action.accept(atoms[i]);
+		});
+	}
+
+	private static int sum(int[] counts) {
+		int sum = 0;
+		for (int count : counts)
+			sum += count;
+
+		return sum;
 	}
 
 	// endregion
 
+	// region range
+
 	/**
-	 * Retrieves the specified amount of elements starting from the specified index.
+	 * Returns a read only view of the specified amount of elements starting from the specified index. The view shares
+	 * the elements of this list and becomes unusable once this list is structurally modified.
 	 *
 	 * @param start the start index (inclusive)
-	 * @param count the end index (exclusive)
-	 * @return the elements
+	 * @param count the amount of elements
+	 * @return the view
 	 */
 	public Atoms<T> getRange(int start, int count) {
-		Atoms<T> atoms = new Atoms<>();
-
-		for (int i = start; i < start + count; i++)
-			atoms.add(this.atoms[i]);
-
-		return atoms;
+		Objects.checkFromIndexSize(start, count, size);
+		return subList(start, start + count);
 	}
 
 	/**
-	 * Returns a list of the elements in the current list starting from the specified index and ending at the specified second index param.
+	 * Returns a read only view of the elements in the current list starting from the specified index and ending at the
+	 * specified second index param. The view shares the elements of this list and becomes unusable once this list is
+	 * structurally modified.
 	 *
 	 * @param from the starting index (inclusive) of the sublist
 	 * @param to   the ending index (exclusive) of the sublist
-	 * @return the elements
+	 * @return the view
 	 */
 	public Atoms<T> subList(int from, int to) {
-		Atoms<T> atoms = new Atoms<>();
-
-		for (int i = from; i < to; i++)
-			atoms.add(this.atoms[i]);
+		Objects.checkFromToIndex(from, to, size);
+		checkStale();
+		return new Atoms<>(root == null ? this : root, offset + from, to - from);
+	}
 
-		return atoms;
+	/**
+	 * Returns a new independent list with a copy of the elements in the current list starting from the specified index
+	 * and ending at the specified second index param.
+	 *
+	 * @param from the starting index (inclusive) of the copy
+	 * @param to   the ending index (exclusive) of the copy
+	 * @return the copy
+	 */
+	public Atoms<T> copyOfRange(int from, int to) {
+		Objects.checkFromToIndex(from, to, size);
+		checkStale();
+		return new Atoms<>(Arrays.copyOfRange(atoms, offset + from, offset + to));
 	}
 
+	// endregion
+
 	@Override
 	public String toString() {
-		return String.join("\n", Arrays.toString(atoms));
+		checkStale();
+		return String.join("\n", Arrays.toString(Arrays.copyOfRange(atoms, offset, offset + size)));
 	}
-}
\ No newline at end of file
+}
@@ -3,6 +3,10 @@ package me.atomiz;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A custom list with specified elements of a given type.
@@ -15,6 +19,9 @@ class AtomsBuilder<T> {
 	private final int INITIAL_SIZE;
 	private T[] atoms;
 	private int size = 0;
+	private GrowthPolicy growth = GrowthPolicy.DEFAULT;
+	private Atoms<T> built;
+	private boolean shared;
 
 	public AtomsBuilder() {
 		INITIAL_SIZE = 0;
@@ -41,7 +48,57 @@ class AtomsBuilder<T> {
 	public AtomsBuilder(AtomsBuilder<T> atoms) {
 		INITIAL_SIZE = atoms.size;
 		size = atoms.size;
-		this.atoms = atoms.atoms;
+		this.atoms = Arrays.copyOf(atoms.atoms, atoms.size);
+	}
+
+	/**
+	 * Creates a builder working on the specified array, of which the first {@code size} slots are elements.
+	 */
+	AtomsBuilder(T[] array, int size) {
+		INITIAL_SIZE = size;
+		this.size = size;
+		atoms = array;
+	}
+
+	/**
+	 * Hands over the backing array, of which the first {@link #size()} slots are elements. Like {@link #build()} the
+	 * builder copies it before its next modification, so later edits never reach the returned array.
+	 */
+	T[] share() {
+		shared = true;
+		return atoms;
+	}
+
+	/**
+	 * Returns an immutable {@link Atoms} list of the current elements. The backing array is trimmed to the elements
+	 * and handed over without copying, the builder copies it again only on its next modification. Building again
+	 * without modifying the builder in between returns the same list. Like any object with non final fields it must be
+	 * safely published before other threads read it.
+	 *
+	 * @return the immutable list
+	 */
+	public Atoms<T> build() {
+		if (built == null) {
+			if (atoms.length != size)
+				atoms = Arrays.copyOf(atoms, size);
+
+			built = Atoms.frozen(atoms);
+			shared = true;
+		}
+
+		return built;
+	}
+
+	/**
+	 * Copies the backing array before it is modified if it was handed to a built list or {@link #share shared}.
+	 */
+	private void own() {
+		if (!shared)
+			return;
+
+		atoms = Arrays.copyOf(atoms, atoms.length);
+		built = null;
+		shared = false;
 	}
 
 	// region base
@@ -155,6 +212,8 @@ class AtomsBuilder<T> {
 	public AtomsBuilder<T> clear() {
 		size = 0;
 		atoms = (T[]) new Object[RESIZE_THRESHOLD];
+		built = null;
+		shared = false;
 
 		return this;
 	}
@@ -167,21 +226,222 @@ class AtomsBuilder<T> {
 	 */
 	public AtomsBuilder<T> forEach(Consumer<? super T> action) {
 		Objects.requireNonNull(action);
-		Arrays.stream(atoms, 0, size).forEach(action);
+		T[] atoms = this.atoms;
+		for (int i = 0; i < size; i++)
+			action.accept(atoms[i]);
+
+		return this;
+	}
+
+	/**
+	 * Performs an action on each element and its index.
+	 *
+	 * @param action the action
+	 * @return the modified list
+	 */
+	public AtomsBuilder<T> forEachIndexed(IntObjConsumer<? super T> action) {
+		Objects.requireNonNull(action);
+		T[] atoms = this.atoms;
+		for (int i = 0; i < size; i++)
+			action.accept(i, atoms[i]);
 
 		return this;
 	}
 
+	/**
+	 * Returns the sum of the specified value of each element.
+	 *
+	 * @param value the value of an element
+	 * @return the sum
+	 */
+	public double sumDouble(ToDoubleFunction<? super T> value) {
+		Objects.requireNonNull(value);
+		double sum = 0;
+		for (int i = 0; i < size; i++)
+			sum += value.applyAsDouble(atoms[i]);
+
+		return sum;
+	}
+
+	/**
+	 * Returns the sum of the specified value of each element.
+	 *
+	 * @param value the value of an element
+	 * @return the sum
+	 */
+	public long sumLong(ToLongFunction<? super T> value) {
+		Objects.requireNonNull(value);
+		long sum = 0;
+		for (int i = 0; i < size; i++)
+			sum += value.applyAsLong(atoms[i]);
+
+		return sum;
+	}
+
 	private void resize(int amount) {
 		if (amount > 0) {
-			if (size + amount > atoms.length)
-				atoms = Arrays.copyOf(atoms, Math.max(atoms.length << 1, RESIZE_THRESHOLD));
+			if (size + amount > atoms.length || size + amount < 0)
+				reallocate(growth.grow(atoms.length, size + amount));
 		} else if (amount < 0) {
-			if (atoms.length >> 1 >= size + amount)
-				atoms = Arrays.copyOf(atoms, atoms.length << 1);
+			int capacity = growth.shrink(atoms.length, size);
+			if (capacity < atoms.length && capacity >= size)
+				reallocate(capacity);
 		}
 	}
 
+	private void reallocate(int capacity) {
+		atoms = Arrays.copyOf(atoms, capacity);
+		built = null;
+		shared = false;
+	}
+
+	// endregion
+
+	// region stream
+
+	/**
+	 * Returns an iterator over the elements.
+	 *
+	 * @return the iterator
+	 */
+	public Iterator<T> iterator() {
+		return Spliterators.iterator(spliterator());
+	}
+
+	/**
+	 * Returns a cursor over the elements. Unlike an {@link #iterator} it can be {@link Cursor#reset reset} and walked
+	 * again without allocating.
+	 *
+	 * @return the cursor
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * A reusable cursor over the elements of the list, positioned before the first element until {@link #next} is
+	 * called. Modifying the list while walking it leaves the cursor on the elements of the last reset.
+	 */
+	public final class Cursor {
+		private T[] array;
+		private int i;
+		private int end;
+
+		private Cursor() {
+			reset();
+		}
+
+		/**
+		 * Moves the cursor before the first element of the current elements of the list.
+		 *
+		 * @return this
+		 */
+		public Cursor reset() {
+			array = atoms;
+			i = -1;
+			end = size;
+			return this;
+		}
+
+		/**
+		 * Moves the cursor to the next element.
+		 *
+		 * @return {@code true} if the cursor is on an element, {@code false} once the elements are exhausted
+		 */
+		public boolean next() {
+			return i < end && ++i < end;
+		}
+
+		/**
+		 * Returns the element the cursor is on.
+		 *
+		 * @return the element
+		 */
+		public T get() {
+			if (i < 0 || i >= end)
+				throw new NoSuchElementException();
+
+			return array[i];
+		}
+
+		/**
+		 * Returns the index of the element the cursor is on.
+		 *
+		 * @return the index
+		 */
+		public int index() {
+			return i;
+		}
+	}
+
+	/**
+	 * Returns a {@link Spliterator} over the backing array which splits into exactly sized halves.
+	 *
+	 * @return the spliterator
+	 */
+	public Spliterator<T> spliterator() {
+		return new AtomsSpliterator<>(atoms, 0, size, null);
+	}
+
+	/**
+	 * Returns a sequential {@link Stream} of the elements.
+	 *
+	 * @return the stream
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Returns a parallel {@link Stream} of the elements, splitting the backing array without copying it.
+	 *
+	 * @return the stream
+	 */
+	public Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	// endregion
+
+	// region capacity
+
+	/**
+	 * Sets the policy deciding how the backing array grows and shrinks.
+	 *
+	 * @param growth the policy
+	 * @return the modified list
+	 */
+	public AtomsBuilder<T> growthPolicy(GrowthPolicy growth) {
+		this.growth = Objects.requireNonNull(growth);
+
+		return this;
+	}
+
+	/**
+	 * Grows the backing array so that it fits at least the specified amount of elements without further copying.
+	 *
+	 * @param capacity the minimum capacity
+	 * @return the modified list
+	 */
+	public AtomsBuilder<T> ensureCapacity(int capacity) {
+		if (capacity > atoms.length)
+			reallocate(capacity);
+
+		return this;
+	}
+
+	/**
+	 * Shrinks the backing array to the amount of elements in the list.
+	 *
+	 * @return the modified list
+	 */
+	public AtomsBuilder<T> trimToSize() {
+		if (size != atoms.length)
+			reallocate(size);
+
+		return this;
+	}
+
 	// endregion
 
 	// region add
@@ -194,6 +454,7 @@ class AtomsBuilder<T> {
 	 */
 	public AtomsBuilder<T> add(T e) {
 		resize(1);
+		own();
 		atoms[size++] = e;
 
 		return this;
@@ -207,9 +468,11 @@ class AtomsBuilder<T> {
 	 * @return the modified list
 	 */
 	public AtomsBuilder<T> add(int index, T e) {
+		Objects.checkIndex(index, size + 1);
 		resize(1);
-		System.arraycopy(atoms, index, atoms, index + 1, atoms.length - index - 1);
-		set(index, e);
+		own();
+		System.arraycopy(atoms, index, atoms, index + 1, size - index);
+		atoms[index] = e;
 		size++;
 
 		return this;
@@ -222,10 +485,7 @@ class AtomsBuilder<T> {
 	 * @return the modified list
 	 */
 	public AtomsBuilder<T> addAll(T[] e) {
-		resize(e.length);
-		Arrays.stream(e).forEach(a -> atoms[size++] = a);
-
-		return this;
+		return append(e, 0, e.length);
 	}
 
 	/**
@@ -235,9 +495,7 @@ class AtomsBuilder<T> {
 	 * @return the modified list
 	 */
 	public AtomsBuilder<T> addAll(Collection<T> e) {
-		e.forEach(this::add);
-
-		return this;
+		return addAll((T[]) e.toArray());
 	}
 
 	/**
@@ -247,9 +505,7 @@ class AtomsBuilder<T> {
 	 * @return the modified list
 	 */
 	public AtomsBuilder<T> addAll(AtomsBuilder<T> e) {
-		addAll(e.atoms);
-
-		return this;
+		return append(e.atoms, 0, e.size);
 	}
 
 	/**
@@ -260,14 +516,7 @@ class AtomsBuilder<T> {
 	 * @return the modified list
 	 */
 	public AtomsBuilder<T> addAll(int index, T[] elements) {
-		resize(elements.length);
-
-		System.arraycopy(atoms, index, atoms, index + elements.length, atoms.length - index - elements.length);
-		System.arraycopy(elements, 0, atoms, index, elements.length);
-
-		size += elements.length;
-
-		return this;
+		return insert(index, elements, 0, elements.length);
 	}
 
 	/**
@@ -278,9 +527,7 @@ class AtomsBuilder<T> {
 	 * @return the modified list
 	 */
 	public AtomsBuilder<T> addAll(int index, Collection<T> collection) {
-		addAll(index, (T[]) collection.toArray());
-
-		return this;
+		return addAll(index, (T[]) collection.toArray());
 	}
 
 	/**
@@ -291,9 +538,40 @@ class AtomsBuilder<T> {
 	 * @return the modified list
 	 */
 	public AtomsBuilder<T> addAll(int index, AtomsBuilder<T> atoms) {
-		List<T> a = new ArrayList<>();
-		atoms.forEach(a::add);
-		addAll(index, a);
+		return insert(index, atoms.atoms, 0, atoms.size);
+	}
+
+	/**
+	 * Appends {@code length} elements of the specified array starting from {@code from}, growing the list at most once.
+	 */
+	private AtomsBuilder<T> append(T[] src, int from, int length) {
+		resize(length);
+		own();
+
+		System.arraycopy(src, from, atoms, size, length);
+		size += length;
+
+		return this;
+	}
+
+	/**
+	 * Inserts {@code length} elements of the specified array starting from {@code from} at the specified index, growing
+	 * the list at most once.
+	 */
+	private AtomsBuilder<T> insert(int index, T[] src, int from, int length) {
+		Objects.checkIndex(index, size + 1);
+
+		if (src == atoms) {
+			src = Arrays.copyOfRange(src, from, from + length);
+			from = 0;
+		}
+
+		resize(length);
+		own();
+		System.arraycopy(atoms, index, atoms, index + length, size - index);
+		System.arraycopy(src, from, atoms, index, length);
+
+		size += length;
 
 		return this;
 	}
@@ -308,11 +586,11 @@ class AtomsBuilder<T> {
 	 * @param index   the index
 	 * @param element the element
 	 * @return the modified list
+	 * @throws IndexOutOfBoundsException if the index is out of range
 	 */
 	public AtomsBuilder<T> set(int index, T element) {
-		if (index < 0)
-			return null;
-
+		Objects.checkIndex(index, size);
+		own();
 		atoms[index] = element;
 
 		return this;
@@ -330,6 +608,7 @@ class AtomsBuilder<T> {
 			return this;
 
 		int index = first ? indexOf(element) : lastIndexOf(element);
+		own();
 		atoms[index] = replace;
 
 		return this;
@@ -365,15 +644,14 @@ class AtomsBuilder<T> {
 	 * @return the modified list
 	 */
 	public AtomsBuilder<T> replaceAll(T element, T replacement) {
-		if (!contains(element))
+		int first = indexOf(element);
+		if (first == -1)
 			return this;
 
-		int amount = 0;
-		for (int i = 0; i < atoms.length; i++)
-			if (Objects.equals(atoms[i], element)) {
+		own();
+		for (int i = first; i < size; i++)
+			if (Objects.equals(atoms[i], element))
 				atoms[i] = replacement;
-				amount++;
-			}
 
 		return this;
 	}
@@ -388,6 +666,7 @@ class AtomsBuilder<T> {
 		if (i == -1)
 			return this;
 
+		own();
 		atoms[i] = null;
 		size--;
 		System.arraycopy(atoms, i + 1, atoms, i, size - i);
@@ -397,6 +676,41 @@ class AtomsBuilder<T> {
 		return this;
 	}
 
+	/**
+	 * Tests every element first, then moves the elements not matching the filter to the front of the list in a single
+	 * pass, clears the freed tail and shrinks the list once. A filter throwing leaves the list unchanged.
+	 *
+	 * @param filter the condition of the elements to drop
+	 * @return the amount of removed elements
+	 */
+	private int compact(Predicate<T> filter) {
+		int first = 0;
+		while (first < size && !filter.test(atoms[first]))
+			first++;
+		if (first == size)
+			return 0;
+
+		long[] drop = new long[size - first + 63 >>> 6];
+		drop[0] = 1;
+		int removed = 1;
+		for (int r = first + 1; r < size; r++)
+			if (filter.test(atoms[r])) {
+				drop[r - first >>> 6] |= 1L << r - first;
+				removed++;
+			}
+
+		own();
+		int w = first;
+		for (int r = first + 1; r < size; r++)
+			if ((drop[r - first >>> 6] & 1L << r - first) == 0)
+				atoms[w++] = atoms[r];
+
+		Arrays.fill(atoms, w, size, null);
+		size = w;
+		resize(-removed);
+		return removed;
+	}
+
 	/**
 	 * Removes the first occurrence of the specified element from the list.
 	 *
@@ -424,6 +738,7 @@ class AtomsBuilder<T> {
 	public AtomsBuilder<T> removeLast() {
 		if (size == 0)
 			return this;
+		own();
 		atoms[--size] = null;
 		resize(-1);
 
@@ -437,14 +752,7 @@ class AtomsBuilder<T> {
 	 * @return the modified list
 	 */
 	public AtomsBuilder<T> removeAll(T e) {
-		if (!contains(e))
-			return this;
-
-		int amount = 0;
-		for (; contains(e); amount++)
-			remove(e);
-
-		return this;
+		return removeIf(a -> Objects.equals(a, e));
 	}
 
 	/**
@@ -455,10 +763,7 @@ class AtomsBuilder<T> {
 	 */
 	public AtomsBuilder<T> removeIf(Predicate<T> filter) {
 		Objects.requireNonNull(filter);
-		int i = 0;
-		for (; i < size; i++)
-			if (filter.test(atoms[i]))
-				remove(atoms[i--]);
+		compact(filter);
 
 		return this;
 	}
@@ -466,35 +771,27 @@ class AtomsBuilder<T> {
 	// endregion
 
 	/**
-	 * Retrieves the specified amount of elements starting from the specified index.
+	 * Retrieves a copy of the specified amount of elements starting from the specified index.
 	 *
 	 * @param start the start index (inclusive)
-	 * @param count the end index (exclusive)
-	 * @return the modified list
+	 * @param count the amount of elements
+	 * @return the copied elements
 	 */
 	public AtomsBuilder<T> getRange(int start, int count) {
-		AtomsBuilder<T> atoms = new AtomsBuilder<>();
-
-		for (int i = start; i < start + count; i++)
-			atoms.add(this.atoms[i]);
-
-		return atoms;
+		Objects.checkFromIndexSize(start, count, size);
+		return subList(start, start + count);
 	}
 
 	/**
-	 * Returns a list of the elements in the current list starting from the specified index and ending at the specified second index param.
+	 * Returns a copy of the elements in the current list starting from the specified index and ending at the specified second index param.
 	 *
 	 * @param from the starting index (inclusive) of the sublist
 	 * @param to   the ending index (exclusive) of the sublist
-	 * @return the modified list
+	 * @return the copied elements
 	 */
 	public AtomsBuilder<T> subList(int from, int to) {
-		AtomsBuilder<T> atoms = new AtomsBuilder<>();
-
-		for (int i = from; i < to; i++)
-			atoms.add(this.atoms[i]);
-
-		return atoms;
+		Objects.checkFromToIndex(from, to, size);
+		return new AtomsBuilder<>(Arrays.copyOfRange(atoms, from, to));
 	}
 
 	@Override
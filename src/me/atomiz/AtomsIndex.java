@@ -0,0 +1,52 @@
+package me.atomiz;
+
+/**
+ * An index kept in sync with the elements of an {@link Atoms} list. The list notifies its indexes after every
+ * modification.
+ *
+ * @param <T> the type
+ */
+interface AtomsIndex<T> {
+
+	/**
+	 * Called after the specified element was inserted at the specified index. Elements previously located at or after
+	 * the index were moved by one.
+	 *
+	 * @param index the index
+	 * @param e     the element
+	 */
+	void added(int index, T e);
+
+	/**
+	 * Called after the specified element was removed from the specified index. Elements previously located after the
+	 * index were moved back by one.
+	 *
+	 * @param index the index
+	 * @param e     the element
+	 */
+	void removed(int index, T e);
+
+	/**
+	 * Called after the element at the specified index was replaced.
+	 *
+	 * @param index    the index
+	 * @param previous the replaced element
+	 * @param e        the new element
+	 */
+	void set(int index, T previous, T e);
+
+	/**
+	 * Called after a bulk modification. The index should be rebuilt from the specified elements.
+	 *
+	 * @param atoms the backing array
+	 * @param size  the amount of elements in the array
+	 */
+	void rebuild(T[] atoms, int size);
+
+	/**
+	 * Returns an estimate of the bytes used by the index.
+	 *
+	 * @return the amount of bytes
+	 */
+	long bytes();
+}
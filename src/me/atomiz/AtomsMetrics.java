@@ -0,0 +1,299 @@
+package me.atomiz;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms of the work done by the {@link Atoms} lists it is {@link Atoms#setMetrics attached} to. A
+ * list without metrics only checks a {@code null} field on its hot paths, a list with metrics also reads the clock
+ * twice per measured operation.
+ * <p>
+ * The collected values are read through {@link #snapshot} or, once {@link #register registered}, as the attributes of
+ * a JMX MBean. One instance can be shared by several lists and threads.
+ */
+class AtomsMetrics {
+	private final static int REFERENCE_BYTES = referenceBytes();
+
+	private final LongAdder resizes = new LongAdder();
+	private final LongAdder copied = new LongAdder();
+	private final LongAdder shifted = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final Histogram scanLength = new Histogram();
+	private final Histogram lookupNanos = new Histogram();
+	private final Histogram addNanos = new Histogram();
+	private final Histogram insertNanos = new Histogram();
+	private final Histogram removeNanos = new Histogram();
+	private final List<WeakReference<Atoms<?>>> lists = new ArrayList<>();
+	private ObjectName name;
+
+	/**
+	 * A histogram of non negative values in power of two buckets.
+	 */
+	static final class Histogram {
+		private final AtomicLongArray buckets = new AtomicLongArray(64);
+		private final LongAdder count = new LongAdder();
+		private final LongAdder sum = new LongAdder();
+		private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+		void record(long value) {
+			value = Math.max(value, 0);
+			buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value) & 63);
+			count.increment();
+			sum.add(value);
+			max.accumulate(value);
+		}
+
+		/**
+		 * Returns the upper bound of the bucket holding the specified quantile of the recorded values.
+		 */
+		long quantile(double q) {
+			long total = count.sum();
+			if (total == 0)
+				return 0;
+
+			long rank = (long) Math.ceil(q * total), seen = 0;
+			for (int b = 0; b < 64; b++) {
+				seen += buckets.get(b);
+				if (seen >= rank)
+					return b == 0 ? 0 : Math.min((1L << b) - 1, max.get());
+			}
+
+			return max.get();
+		}
+
+		void reset() {
+			for (int b = 0; b < 64; b++)
+				buckets.set(b, 0);
+
+			count.reset();
+			sum.reset();
+			max.reset();
+		}
+
+		private void into(Map<String, Number> values, String prefix) {
+			long n = count.sum();
+			values.put(prefix + "Count", n);
+			values.put(prefix + "Mean", n == 0 ? 0.0 : (double) sum.sum() / n);
+			values.put(prefix + "P50", quantile(0.5));
+			values.put(prefix + "P99", quantile(0.99));
+			values.put(prefix + "Max", max.get());
+		}
+	}
+
+	// region recording
+
+	void resized(int elements) {
+		resizes.increment();
+		copied.add(elements);
+	}
+
+	void scanned(long start, int length, boolean hit) {
+		lookupNanos.record(System.nanoTime() - start);
+		scanLength.record(length);
+		(hit ? hits : misses).increment();
+	}
+
+	void added(long start) {
+		addNanos.record(System.nanoTime() - start);
+	}
+
+	void inserted(long start, int moved) {
+		insertNanos.record(System.nanoTime() - start);
+		shifted.add(moved);
+	}
+
+	void removed(long start, int moved) {
+		removeNanos.record(System.nanoTime() - start);
+		shifted.add(moved);
+	}
+
+	synchronized void attach(Atoms<?> atoms) {
+		lists.add(new WeakReference<>(atoms));
+	}
+
+	synchronized void detach(Atoms<?> atoms) {
+		lists.removeIf(r -> r.get() == null || r.get() == atoms);
+	}
+
+	// endregion
+
+	// region reading
+
+	/**
+	 * Returns the current values by name, in a stable order:
+	 * <ul>
+	 *     <li>{@code resizes}, {@code copiedBytes}: reallocations of backing arrays and the bytes they copied</li>
+	 *     <li>{@code shiftedBytes}: the bytes moved to open or close a gap by inserts and removals</li>
+	 *     <li>{@code hits}, {@code misses}, {@code hitRatio}: the outcome of linear lookups</li>
+	 *     <li>{@code scanLength*}: the elements compared by a linear lookup</li>
+	 *     <li>{@code lookupNanos*}, {@code addNanos*}, {@code insertNanos*}, {@code removeNanos*}: latencies</li>
+	 *     <li>{@code size}, {@code capacity}, {@code occupancy}: the elements and array slots of the attached lists</li>
+	 * </ul>
+	 * Histograms report their {@code Count}, {@code Mean}, {@code P50}, {@code P99} and {@code Max}, quantiles are
+	 * rounded up to the next power of two.
+	 *
+	 * @return the values
+	 */
+	public Map<String, Number> snapshot() {
+		Map<String, Number> values = new LinkedHashMap<>();
+		long hit = hits.sum(), miss = misses.sum();
+		values.put("resizes", resizes.sum());
+		values.put("copiedBytes", copied.sum() * REFERENCE_BYTES);
+		values.put("shiftedBytes", shifted.sum() * REFERENCE_BYTES);
+		values.put("hits", hit);
+		values.put("misses", miss);
+		values.put("hitRatio", hit + miss == 0 ? 0.0 : (double) hit / (hit + miss));
+		scanLength.into(values, "scanLength");
+		lookupNanos.into(values, "lookupNanos");
+		addNanos.into(values, "addNanos");
+		insertNanos.into(values, "insertNanos");
+		removeNanos.into(values, "removeNanos");
+
+		long size = 0, capacity = 0;
+		synchronized (this) {
+			for (Iterator<WeakReference<Atoms<?>>> i = lists.iterator(); i.hasNext(); ) {
+				Atoms<?> atoms = i.next().get();
+				if (atoms == null) {
+					i.remove();
+					continue;
+				}
+
+				size += atoms.size();
+				capacity += atoms.capacity();
+			}
+		}
+
+		values.put("size", size);
+		values.put("capacity", capacity);
+		values.put("occupancy", capacity == 0 ? 0.0 : (double) size / capacity);
+		return values;
+	}
+
+	/**
+	 * Resets every counter and histogram.
+	 */
+	public void reset() {
+		resizes.reset();
+		copied.reset();
+		shifted.reset();
+		hits.reset();
+		misses.reset();
+		scanLength.reset();
+		lookupNanos.reset();
+		addNanos.reset();
+		insertNanos.reset();
+		removeNanos.reset();
+	}
+
+	// endregion
+
+	// region jmx
+
+	/**
+	 * Registers the metrics with the platform MBean server as {@code me.atomiz:type=Atoms,name=<name>}. The attributes
+	 * are the values of {@link #snapshot}.
+	 *
+	 * @param name the name of the metrics
+	 * @throws JMException if the name is invalid or already registered
+	 */
+	public synchronized void register(String name) throws JMException {
+		unregister();
+		ObjectName objectName = new ObjectName("me.atomiz:type=Atoms,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), objectName);
+		this.name = objectName;
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server if they were registered.
+	 *
+	 * @throws JMException if the server fails to unregister them
+	 */
+	public synchronized void unregister() throws JMException {
+		if (name == null)
+			return;
+
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		name = null;
+	}
+
+	/**
+	 * Exposes the snapshot as read only attributes.
+	 */
+	private final class Bean implements DynamicMBean {
+
+		@Override
+		public Object getAttribute(String attribute) throws AttributeNotFoundException {
+			Number value = snapshot().get(attribute);
+			if (value == null)
+				throw new AttributeNotFoundException(attribute);
+
+			return value;
+		}
+
+		@Override
+		public AttributeList getAttributes(String[] attributes) {
+			Map<String, Number> values = snapshot();
+			AttributeList list = new AttributeList();
+			for (String attribute : attributes)
+				if (values.containsKey(attribute))
+					list.add(new Attribute(attribute, values.get(attribute)));
+
+			return list;
+		}
+
+		@Override
+		public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+			throw new AttributeNotFoundException("The metrics are read only");
+		}
+
+		@Override
+		public AttributeList setAttributes(AttributeList attributes) {
+			return new AttributeList();
+		}
+
+		@Override
+		public Object invoke(String action, Object[] params, String[] signature) throws ReflectionException {
+			if ("reset".equals(action)) {
+				reset();
+				return null;
+			}
+
+			throw new ReflectionException(new NoSuchMethodException(action));
+		}
+
+		@Override
+		public MBeanInfo getMBeanInfo() {
+			Map<String, Number> values = snapshot();
+			MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+			int i = 0;
+			for (Map.Entry<String, Number> e : values.entrySet())
+				attributes[i++] = new MBeanAttributeInfo(e.getKey(), e.getValue().getClass().getName(), e.getKey(), true, false, false);
+
+			MBeanOperationInfo reset = new MBeanOperationInfo("reset", "Resets the counters", new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+			return new MBeanInfo(AtomsMetrics.class.getName(), "Atoms metrics", attributes, null, new MBeanOperationInfo[]{ reset }, null);
+		}
+	}
+
+	// endregion
+
+	private static int referenceBytes() {
+		try {
+			HotSpotDiagnosticMXBean vm = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+			return Boolean.parseBoolean(vm.getVMOption("UseCompressedOops").getValue()) ? 4 : 8;
+		} catch (RuntimeException e) {
+			return 8;
+		}
+	}
+}
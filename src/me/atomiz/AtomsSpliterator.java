@@ -0,0 +1,79 @@
+package me.atomiz;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Spliterator} over a range of a backing array. Splitting halves the range exactly, so every part knows its
+ * size and parallel streams divide the work evenly without copying.
+ *
+ * @param <T> the type
+ */
+final class AtomsSpliterator<T> implements Spliterator<T> {
+	private final T[] atoms;
+	private final Runnable check;
+	private int index;
+	private final int fence;
+
+	/**
+	 * Creates a spliterator over the elements from {@code origin} (inclusive) to {@code fence} (exclusive).
+	 *
+	 * @param atoms  the backing array
+	 * @param origin the first index
+	 * @param fence  the index after the last element
+	 * @param check  throws if the list was modified during the traversal, may be {@code null}
+	 */
+	AtomsSpliterator(T[] atoms, int origin, int fence, Runnable check) {
+		this.atoms = atoms;
+		this.index = origin;
+		this.fence = fence;
+		this.check = check;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		if (index >= fence)
+			return false;
+
+		action.accept(atoms[index++]);
+		check();
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		for (int i = index, end = fence; i < end; i++)
+			action.accept(atoms[i]);
+
+		index = fence;
+		check();
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		int lo = index, mid = (lo + fence) >>> 1;
+		if (lo >= mid)
+			return null;
+
+		index = mid;
+		return new AtomsSpliterator<>(atoms, lo, mid, check);
+	}
+
+	@Override
+	public long estimateSize() {
+		return fence - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED;
+	}
+
+	private void check() {
+		if (check != null)
+			check.run();
+	}
+}
@@ -0,0 +1,446 @@
+package me.atomiz;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A thread safe list with the operations of {@link Atoms}.
+ * <p>
+ * The elements are kept in buckets doubling in size, so growing never moves existing elements. Appending threads
+ * reserve an index with a single atomic increment, write their element and then advance the published size over every
+ * written slot, so an append never waits for another one. Appends and {@link #set} only lock the stripe of their
+ * thread.
+ * <p>
+ * Structural operations which move or drop elements lock every stripe of a striped lock and never edit the published
+ * buckets: they copy the buckets from the first changed one on into a new generation of the list and publish it at
+ * once. {@link #get}, {@link #size} and the scanning methods never lock and work on the generation published when they
+ * start, so a scan sees every element of it exactly once and never a cleared slot. It does not see the structural
+ * changes published after it started, but it does see concurrent {@link #set sets} and may see appends.
+ *
+ * @param <T> the type
+ */
+class ConcurrentAtoms<T> {
+	private final static int FIRST_BITS = 4;
+	private final static int BUCKETS = 31 - FIRST_BITS;
+	private final static int CAPACITY = ((1 << BUCKETS) - 1) << FIRST_BITS;
+	private final static Object NULL = new Object();
+
+	private volatile Table table = new Table(0);
+	private final ReentrantReadWriteLock[] stripes;
+
+	/**
+	 * A generation of the list. Its slots below the published size only change through {@link #set}, structural
+	 * operations replace the whole generation.
+	 */
+	private static final class Table {
+		final AtomicReferenceArray<AtomicReferenceArray<Object>> buckets = new AtomicReferenceArray<>(BUCKETS);
+		final AtomicInteger reserved;
+		final AtomicInteger size;
+
+		Table(int size) {
+			reserved = new AtomicInteger(size);
+			this.size = new AtomicInteger(size);
+		}
+	}
+
+	public ConcurrentAtoms() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates an empty list expecting the specified amount of concurrently writing threads.
+	 *
+	 * @param writers the amount of writers
+	 */
+	public ConcurrentAtoms(int writers) {
+		int count = Integer.highestOneBit(Math.max(writers, 1) * 2 - 1) << 1;
+		stripes = new ReentrantReadWriteLock[count];
+		for (int i = 0; i < count; i++)
+			stripes[i] = new ReentrantReadWriteLock();
+	}
+
+	// region base
+
+	/**
+	 * Returns the amount of occurrences of the specified element in the list.
+	 *
+	 * @param e the element to count
+	 * @return the amount
+	 */
+	public int count(T e) {
+		return countIf(a -> Objects.equals(a, e));
+	}
+
+	/**
+	 * Returns the amount of elements meeting the filter.
+	 *
+	 * @param filter the filter to test for
+	 * @return the amount
+	 */
+	public int countIf(Predicate<T> filter) {
+		Objects.requireNonNull(filter);
+		Table t = table;
+		int count = 0;
+		for (int i = 0, n = t.size.get(); i < n; i++)
+			if (filter.test(slot(t, i)))
+				count++;
+
+		return count;
+	}
+
+	/**
+	 * Checks whether the list contains the specified element.
+	 *
+	 * @param e the element
+	 * @return {@code true} if the list contains the specified element
+	 */
+	public boolean contains(T e) {
+		return indexOf(e) != -1;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the specified element in the list or -1 if the list does not contain the element.
+	 *
+	 * @param e the element
+	 * @return the index of the element or -1
+	 */
+	public int indexOf(T e) {
+		return indexOf(table, e);
+	}
+
+	private static int indexOf(Table t, Object e) {
+		for (int i = 0, n = t.size.get(); i < n; i++)
+			if (Objects.equals(slot(t, i), e))
+				return i;
+
+		return -1;
+	}
+
+	/**
+	 * Returns the element located at the specified index in the list.
+	 *
+	 * @param i the index
+	 * @return the element
+	 */
+	public T get(int i) {
+		Table t = table;
+		return slot(t, Objects.checkIndex(i, t.size.get()));
+	}
+
+	/**
+	 * Returns the amount of published elements in the list.
+	 *
+	 * @return the list size
+	 */
+	public int size() {
+		return table.size.get();
+	}
+
+	/**
+	 * Returns {@code true} if the list has no published elements.
+	 *
+	 * @return {@code true} if the list has no elements
+	 */
+	public boolean isEmpty() {
+		return table.size.get() == 0;
+	}
+
+	/**
+	 * Clears the list.
+	 */
+	public void clear() {
+		lockAll();
+		try {
+			table = new Table(0);
+		} finally {
+			unlockAll();
+		}
+	}
+
+	/**
+	 * Performs an action on each element published when the iteration reaches it.
+	 *
+	 * @param action the action
+	 */
+	public void forEach(Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		Table t = table;
+		for (int i = 0, n = t.size.get(); i < n; i++)
+			action.accept(slot(t, i));
+	}
+
+	/**
+	 * Copies the published elements into a new {@link Atoms} list.
+	 *
+	 * @return the list
+	 */
+	public Atoms<T> toAtoms() {
+		Table t = table;
+		int n = t.size.get();
+		Atoms<T> atoms = new Atoms<>(n);
+		for (int i = 0; i < n; i++)
+			atoms.add(slot(t, i));
+
+		return atoms;
+	}
+
+	// endregion
+
+	// region add/set
+
+	/**
+	 * Adds the specified element to the list. Concurrent appends never block each other on a lock and never copy
+	 * existing elements.
+	 *
+	 * @param e the element
+	 */
+	public void add(T e) {
+		Lock lock = stripe().readLock();
+		lock.lock();
+		try {
+			Table t = table;
+			int i = t.reserved.getAndIncrement();
+			if (i < 0 || i >= CAPACITY) {
+				t.reserved.decrementAndGet();
+				throw new OutOfMemoryError("The list is full");
+			}
+
+			put(t, i, e);
+			publish(t);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Inserts the specified element at the specified index in the list.
+	 *
+	 * @param index the index
+	 * @param e     the element
+	 */
+	public void add(int index, T e) {
+		lockAll();
+		try {
+			Table t = table;
+			int n = t.size.get();
+			Objects.checkIndex(index, n + 1);
+			if (n == CAPACITY)
+				throw new OutOfMemoryError("The list is full");
+
+			Table next = copy(t, index, n + 1);
+			put(next, index, e);
+			for (int i = index; i < n; i++)
+				put(next, i + 1, slot(t, i));
+
+			table = next;
+		} finally {
+			unlockAll();
+		}
+	}
+
+	/**
+	 * Sets the element at the specified index to the specified element.
+	 *
+	 * @param index   the index
+	 * @param element the element
+	 * @return the element previously at this index
+	 */
+	public T set(int index, T element) {
+		Lock lock = stripe().readLock();
+		lock.lock();
+		try {
+			Table t = table;
+			Objects.checkIndex(index, t.size.get());
+			return unwrap(bucket(t, bucketOf(index)).getAndSet(offsetOf(index), element == null ? NULL : element));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// endregion
+
+	// region remove
+
+	/**
+	 * Removes the first occurrence of the specified element from the list.
+	 *
+	 * @param e the element
+	 * @return {@code true} if the element was removed
+	 */
+	public boolean remove(T e) {
+		lockAll();
+		try {
+			Table t = table;
+			int i = indexOf(t, e);
+			if (i == -1)
+				return false;
+
+			int n = t.size.get();
+			Table next = copy(t, i, n - 1);
+			for (; i < n - 1; i++)
+				put(next, i, slot(t, i + 1));
+
+			table = next;
+			return true;
+		} finally {
+			unlockAll();
+		}
+	}
+
+	/**
+	 * Removes the last element of the list.
+	 */
+	public void removeLast() {
+		lockAll();
+		try {
+			Table t = table;
+			int n = t.size.get();
+			if (n > 0)
+				table = copy(t, n - 1, n - 1);
+		} finally {
+			unlockAll();
+		}
+	}
+
+	/**
+	 * Removes all elements matching the specified condition.
+	 *
+	 * @param filter the condition
+	 * @return the amount of removed elements
+	 */
+	public int removeIf(Predicate<T> filter) {
+		Objects.requireNonNull(filter);
+		lockAll();
+		try {
+			Table t = table;
+			int n = t.size.get();
+			int first = 0;
+			while (first < n && !filter.test(slot(t, first)))
+				first++;
+			if (first == n)
+				return 0;
+
+			Table next = copy(t, first, n);
+			int w = first;
+			for (int r = first + 1; r < n; r++) {
+				T e = slot(t, r);
+				if (!filter.test(e))
+					put(next, w++, e);
+			}
+
+			next.reserved.set(w);
+			next.size.set(w);
+			table = next;
+			return n - w;
+		} finally {
+			unlockAll();
+		}
+	}
+
+	/**
+	 * Removes all occurrences of the specified element from the list.
+	 *
+	 * @param e the element
+	 * @return the amount of removed elements
+	 */
+	public int removeAll(T e) {
+		return removeIf(a -> Objects.equals(a, e));
+	}
+
+	/**
+	 * Returns a new generation of the specified size sharing the buckets before the one holding index {@code from}
+	 * and holding copies of the slots of that bucket before {@code from}. The caller holds every stripe and fills the
+	 * slots from {@code from} on before publishing it.
+	 */
+	private static Table copy(Table t, int from, int size) {
+		Table next = new Table(size);
+		int b = bucketOf(from);
+		for (int i = 0; i < b; i++)
+			next.buckets.set(i, t.buckets.get(i));
+
+		for (int i = bucketStart(b); i < from; i++)
+			put(next, i, slot(t, i));
+
+		return next;
+	}
+
+	// endregion
+
+	// region slots
+
+	/**
+	 * Advances the published size over every written slot. Whichever append writes the last missing slot of a run also
+	 * publishes the slots written after it.
+	 */
+	private static void publish(Table t) {
+		for (int n = t.size.get(); n < t.reserved.get() && written(t, n); n = t.size.get())
+			t.size.compareAndSet(n, n + 1);
+	}
+
+	private static boolean written(Table t, int i) {
+		AtomicReferenceArray<Object> bucket = t.buckets.get(bucketOf(i));
+		return bucket != null && bucket.get(offsetOf(i)) != null;
+	}
+
+	private static <T> T slot(Table t, int i) {
+		AtomicReferenceArray<Object> bucket = t.buckets.get(bucketOf(i));
+		return bucket == null ? null : unwrap(bucket.get(offsetOf(i)));
+	}
+
+	private static void put(Table t, int i, Object e) {
+		bucket(t, bucketOf(i)).set(offsetOf(i), e == null ? NULL : e);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T unwrap(Object o) {
+		return o == NULL ? null : (T) o;
+	}
+
+	private static AtomicReferenceArray<Object> bucket(Table t, int b) {
+		AtomicReferenceArray<AtomicReferenceArray<Object>> buckets = t.buckets;
+		AtomicReferenceArray<Object> bucket = buckets.get(b);
+		if (bucket != null)
+			return bucket;
+
+		buckets.compareAndSet(b, null, new AtomicReferenceArray<>(1 << (b + FIRST_BITS)));
+		return buckets.get(b);
+	}
+
+	private static int bucketOf(int i) {
+		return 31 - Integer.numberOfLeadingZeros((i >>> FIRST_BITS) + 1);
+	}
+
+	private static int offsetOf(int i) {
+		return i - bucketStart(bucketOf(i));
+	}
+
+	private static int bucketStart(int b) {
+		return (1 << (b + FIRST_BITS)) - (1 << FIRST_BITS);
+	}
+
+	private ReentrantReadWriteLock stripe() {
+		return stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+	}
+
+	private void lockAll() {
+		for (ReentrantReadWriteLock stripe : stripes)
+			stripe.writeLock().lock();
+	}
+
+	private void unlockAll() {
+		for (int i = stripes.length - 1; i >= 0; i--)
+			stripes[i].writeLock().unlock();
+	}
+
+	// endregion
+
+	@Override
+	public String toString() {
+		return toAtoms().toString();
+	}
+}
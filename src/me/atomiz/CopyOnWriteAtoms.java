@@ -0,0 +1,328 @@
+package me.atomiz;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A thread safe list with the operations of {@link Atoms} for lists read far more often than they are written.
+ * <p>
+ * Readers work on an immutable snapshot of the elements and never lock. Every write copies the elements once and
+ * publishes the copy, writers are serialized. Several writes can share a single copy through {@link #mutate}.
+ *
+ * @param <T> the type
+ */
+class CopyOnWriteAtoms<T> {
+	private final static int HEADROOM = 16;
+
+	/**
+	 * An immutable published state of the list.
+	 */
+	private static final class Snapshot<T> {
+		final T[] atoms;
+		final int size;
+
+		Snapshot(T[] atoms, int size) {
+			this.atoms = atoms;
+			this.size = size;
+		}
+	}
+
+	private final Object lock = new Object();
+	private volatile Snapshot<T> snapshot;
+
+	public CopyOnWriteAtoms() {
+		snapshot = new Snapshot<>((T[]) new Object[0], 0);
+	}
+
+	public CopyOnWriteAtoms(T[] array) {
+		snapshot = new Snapshot<>(array.clone(), array.length);
+	}
+
+	// region base
+
+	/**
+	 * Returns the amount of occurrences of the specified element in the list.
+	 *
+	 * @param e the element to count
+	 * @return the amount
+	 */
+	public int count(T e) {
+		return countIf(a -> Objects.equals(a, e));
+	}
+
+	/**
+	 * Returns the amount of elements meeting the filter.
+	 *
+	 * @param filter the filter to test for
+	 * @return the amount
+	 */
+	public int countIf(Predicate<T> filter) {
+		Objects.requireNonNull(filter);
+		Snapshot<T> s = snapshot;
+		int count = 0;
+		for (int i = 0; i < s.size; i++)
+			if (filter.test(s.atoms[i]))
+				count++;
+
+		return count;
+	}
+
+	/**
+	 * Checks whether the list contains the specified element.
+	 *
+	 * @param e the element
+	 * @return {@code true} if the list contains the specified element
+	 */
+	public boolean contains(T e) {
+		return indexOf(e) != -1;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the specified element in the list or -1 if the list does not contain the element.
+	 *
+	 * @param e the element
+	 * @return the index of the element or -1
+	 */
+	public int indexOf(T e) {
+		return indexOf(snapshot, e);
+	}
+
+	/**
+	 * Returns the element located at the specified index in the list.
+	 *
+	 * @param i the index
+	 * @return the element
+	 */
+	public T get(int i) {
+		Snapshot<T> s = snapshot;
+		return s.atoms[Objects.checkIndex(i, s.size)];
+	}
+
+	/**
+	 * Returns the amount of elements stored in the list.
+	 *
+	 * @return the list size
+	 */
+	public int size() {
+		return snapshot.size;
+	}
+
+	/**
+	 * Returns {@code true} if the list has no elements.
+	 *
+	 * @return {@code true} if the list has no elements
+	 */
+	public boolean isEmpty() {
+		return snapshot.size == 0;
+	}
+
+	/**
+	 * Performs an action on each element of the snapshot current when the call started. Writes made during the
+	 * iteration are not visible to it.
+	 *
+	 * @param action the action
+	 */
+	public void forEach(Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		Snapshot<T> s = snapshot;
+		for (int i = 0; i < s.size; i++)
+			action.accept(s.atoms[i]);
+	}
+
+	/**
+	 * Clears the list.
+	 */
+	public void clear() {
+		synchronized (lock) {
+			snapshot = new Snapshot<>((T[]) new Object[0], 0);
+		}
+	}
+
+	private static <T> int indexOf(Snapshot<T> s, T e) {
+		for (int i = 0; i < s.size; i++)
+			if (Objects.equals(s.atoms[i], e))
+				return i;
+
+		return -1;
+	}
+
+	// endregion
+
+	// region write
+
+	/**
+	 * Applies the specified edits to a single copy of the elements and publishes the result once. Readers see either
+	 * none or all of the edits. A builder kept after the call copies the elements again before its next edit, so it
+	 * never modifies the published list.
+	 * <pre>{@code
+	 * atoms.mutate(b -> b.add(x).remove(y).set(0, z));
+	 * }</pre>
+	 *
+	 * @param edits the edits
+	 */
+	public void mutate(Consumer<AtomsBuilder<T>> edits) {
+		Objects.requireNonNull(edits);
+		synchronized (lock) {
+			Snapshot<T> s = snapshot;
+			AtomsBuilder<T> builder = new AtomsBuilder<>(Arrays.copyOf(s.atoms, s.size + HEADROOM), s.size);
+			edits.accept(builder);
+			snapshot = new Snapshot<>(builder.share(), builder.size());
+		}
+	}
+
+	/**
+	 * Adds the specified element to the list.
+	 *
+	 * @param e the element
+	 */
+	public void add(T e) {
+		synchronized (lock) {
+			Snapshot<T> s = snapshot;
+			T[] atoms = Arrays.copyOf(s.atoms, s.size + 1);
+			atoms[s.size] = e;
+			snapshot = new Snapshot<>(atoms, s.size + 1);
+		}
+	}
+
+	/**
+	 * Inserts the specified element at the specified index in the list.
+	 *
+	 * @param index the index
+	 * @param e     the element
+	 */
+	public void add(int index, T e) {
+		synchronized (lock) {
+			Snapshot<T> s = snapshot;
+			Objects.checkIndex(index, s.size + 1);
+			T[] atoms = (T[]) new Object[s.size + 1];
+			System.arraycopy(s.atoms, 0, atoms, 0, index);
+			System.arraycopy(s.atoms, index, atoms, index + 1, s.size - index);
+			atoms[index] = e;
+			snapshot = new Snapshot<>(atoms, s.size + 1);
+		}
+	}
+
+	/**
+	 * Sets the element at the specified index to the specified element.
+	 *
+	 * @param index   the index
+	 * @param element the element
+	 * @return the element previously at this index
+	 */
+	public T set(int index, T element) {
+		synchronized (lock) {
+			Snapshot<T> s = snapshot;
+			Objects.checkIndex(index, s.size);
+			T[] atoms = Arrays.copyOf(s.atoms, s.size);
+			T prev = atoms[index];
+			atoms[index] = element;
+			snapshot = new Snapshot<>(atoms, s.size);
+			return prev;
+		}
+	}
+
+	/**
+	 * Replaces all occurrences of this element with the specified replacement.
+	 *
+	 * @param element     the element to replace
+	 * @param replacement the replacement
+	 * @return the amount of replaced occurrences
+	 */
+	public int replaceAll(T element, T replacement) {
+		synchronized (lock) {
+			Snapshot<T> s = snapshot;
+			if (indexOf(s, element) == -1)
+				return -1;
+
+			T[] atoms = Arrays.copyOf(s.atoms, s.size);
+			int amount = 0;
+			for (int i = 0; i < s.size; i++)
+				if (Objects.equals(atoms[i], element)) {
+					atoms[i] = replacement;
+					amount++;
+				}
+
+			snapshot = new Snapshot<>(atoms, s.size);
+			return amount;
+		}
+	}
+
+	// endregion
+
+	// region remove
+
+	/**
+	 * Removes the first occurrence of the specified element from the list.
+	 *
+	 * @param e the element
+	 * @return {@code true} if the element was removed
+	 */
+	public boolean remove(T e) {
+		synchronized (lock) {
+			Snapshot<T> s = snapshot;
+			int i = indexOf(s, e);
+			if (i == -1)
+				return false;
+
+			T[] atoms = (T[]) new Object[s.size - 1];
+			System.arraycopy(s.atoms, 0, atoms, 0, i);
+			System.arraycopy(s.atoms, i + 1, atoms, i, s.size - i - 1);
+			snapshot = new Snapshot<>(atoms, s.size - 1);
+			return true;
+		}
+	}
+
+	/**
+	 * Removes the last element of the list.
+	 */
+	public void removeLast() {
+		synchronized (lock) {
+			Snapshot<T> s = snapshot;
+			if (s.size > 0)
+				snapshot = new Snapshot<>(Arrays.copyOf(s.atoms, s.size - 1), s.size - 1);
+		}
+	}
+
+	/**
+	 * Removes all elements matching the specified condition.
+	 *
+	 * @param filter the condition
+	 * @return the amount of removed elements
+	 */
+	public int removeIf(Predicate<T> filter) {
+		Objects.requireNonNull(filter);
+		synchronized (lock) {
+			Snapshot<T> s = snapshot;
+			T[] atoms = (T[]) new Object[s.size];
+			int w = 0;
+			for (int r = 0; r < s.size; r++)
+				if (!filter.test(s.atoms[r]))
+					atoms[w++] = s.atoms[r];
+
+			if (w < s.size)
+				snapshot = new Snapshot<>(atoms, w);
+
+			return s.size - w;
+		}
+	}
+
+	/**
+	 * Removes all occurrences of the specified element from the list.
+	 *
+	 * @param e the element
+	 * @return the amount of removed elements
+	 */
+	public int removeAll(T e) {
+		return removeIf(a -> Objects.equals(a, e));
+	}
+
+	// endregion
+
+	@Override
+	public String toString() {
+		Snapshot<T> s = snapshot;
+		return Arrays.toString(Arrays.copyOf(s.atoms, s.size));
+	}
+}
@@ -0,0 +1,50 @@
+package me.atomiz;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the memory of direct and mapped buffers right away instead of once the garbage collector finds them. The
+ * buffer must not be read or written afterwards, doing so can crash the virtual machine.
+ * <p>
+ * Uses {@code sun.misc.Unsafe.invokeCleaner}, looked up reflectively. Without it the memory is released by the garbage
+ * collector as usual.
+ */
+final class DirectMemory {
+	private final static MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+	private DirectMemory() {
+	}
+
+	/**
+	 * Releases the memory of the specified buffer. Heap buffers and {@code null} are ignored.
+	 *
+	 * @param buffer the buffer, not a slice or duplicate of another one
+	 */
+	static void free(ByteBuffer buffer) {
+		if (buffer == null || !buffer.isDirect() || INVOKE_CLEANER == null)
+			return;
+
+		try {
+			INVOKE_CLEANER.invokeExact(buffer);
+		} catch (Throwable ignored) {
+			// left to the garbage collector
+		}
+	}
+
+	private static MethodHandle invokeCleaner() {
+		try {
+			Class<?> unsafe = Class.forName("sun.misc.Unsafe");
+			Field instance = unsafe.getDeclaredField("theUnsafe");
+			instance.setAccessible(true);
+			return MethodHandles.lookup()
+					.findVirtual(unsafe, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+					.bindTo(instance.get(null));
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package me.atomiz;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A list backed by a gap buffer: a single array whose free slots form one gap, placed where the last insertion or
+ * removal happened. Inserting or removing at the gap is O(1), moving it costs the distance it moves, so edits around
+ * a moving cursor only copy the elements between consecutive edits instead of the whole tail like {@link Atoms}.
+ * Edits at random indexes still move half of the elements on average.
+ * <p>
+ * {@link #get} adds the gap length to indexes after the gap and stays constant time.
+ *
+ * @param <T> the type
+ */
+class GapAtoms<T> {
+	private T[] atoms;
+	private int gapStart = 0;
+	private int gapEnd;
+	private int size = 0;
+	private GrowthPolicy growth = GrowthPolicy.DEFAULT;
+
+	public GapAtoms() {
+		this(0);
+	}
+
+	public GapAtoms(int capacity) {
+		atoms = (T[]) new Object[capacity];
+		gapEnd = capacity;
+	}
+
+	public GapAtoms(T[] array) {
+		this(array.length);
+		addAll(0, array);
+	}
+
+	// region base
+
+	/**
+	 * Returns the amount of elements stored in the list.
+	 *
+	 * @return the list size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if the list has no elements.
+	 *
+	 * @return {@code true} if the list has no elements
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the element located at the specified index in the list.
+	 *
+	 * @param i the index
+	 * @return the element
+	 */
+	public T get(int i) {
+		Objects.checkIndex(i, size);
+		return atoms[i < gapStart ? i : i + gapEnd - gapStart];
+	}
+
+	/**
+	 * Returns the amount of occurrences of the specified element in the list.
+	 *
+	 * @param e the element to count
+	 * @return the amount
+	 */
+	public int count(T e) {
+		int count = 0;
+		for (int i = 0; i < gapStart; i++)
+			if (Objects.equals(atoms[i], e))
+				count++;
+		for (int i = gapEnd; i < atoms.length; i++)
+			if (Objects.equals(atoms[i], e))
+				count++;
+
+		return count;
+	}
+
+	/**
+	 * Checks whether the list contains the specified element.
+	 *
+	 * @param e the element
+	 * @return {@code true} if the list contains the specified element
+	 */
+	public boolean contains(T e) {
+		return indexOf(e) != -1;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the specified element in the list or -1 if the list does not contain the element.
+	 *
+	 * @param e the element
+	 * @return the index of the element or -1
+	 */
+	public int indexOf(T e) {
+		for (int i = 0; i < gapStart; i++)
+			if (Objects.equals(atoms[i], e))
+				return i;
+		for (int i = gapEnd; i < atoms.length; i++)
+			if (Objects.equals(atoms[i], e))
+				return i - gapEnd + gapStart;
+
+		return -1;
+	}
+
+	/**
+	 * Performs an action on each element.
+	 *
+	 * @param action the action
+	 */
+	public void forEach(Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		for (int i = 0; i < gapStart; i++)
+			action.accept(atoms[i]);
+		for (int i = gapEnd; i < atoms.length; i++)
+			action.accept(atoms[i]);
+	}
+
+	/**
+	 * Clears the list.
+	 */
+	public void clear() {
+		Arrays.fill(atoms, null);
+		gapStart = 0;
+		gapEnd = atoms.length;
+		size = 0;
+	}
+
+	/**
+	 * Sets the policy deciding how the backing array grows and shrinks.
+	 *
+	 * @param growth the policy
+	 */
+	public void setGrowthPolicy(GrowthPolicy growth) {
+		this.growth = Objects.requireNonNull(growth);
+	}
+
+	// endregion
+
+	// region modify
+
+	/**
+	 * Adds the specified element to the list.
+	 *
+	 * @param e the element
+	 */
+	public void add(T e) {
+		add(size, e);
+	}
+
+	/**
+	 * Inserts the specified element at the specified index in the list.
+	 *
+	 * @param index the index
+	 * @param e     the element
+	 */
+	public void add(int index, T e) {
+		Objects.checkIndex(index, size + 1);
+		reserve(1);
+		moveGap(index);
+		atoms[gapStart++] = e;
+		size++;
+	}
+
+	/**
+	 * Inserts the elements of the specified {@link Arrays Array} to the list starting from the specified index.
+	 *
+	 * @param index    the index
+	 * @param elements the elements
+	 */
+	public void addAll(int index, T[] elements) {
+		Objects.checkIndex(index, size + 1);
+		reserve(elements.length);
+		moveGap(index);
+		System.arraycopy(elements, 0, atoms, gapStart, elements.length);
+		gapStart += elements.length;
+		size += elements.length;
+	}
+
+	/**
+	 * Sets the element at the specified index to the specified element.
+	 *
+	 * @param index   the index
+	 * @param element the element
+	 * @return the previous element
+	 */
+	public T set(int index, T element) {
+		Objects.checkIndex(index, size);
+		int i = index < gapStart ? index : index + gapEnd - gapStart;
+		T prev = atoms[i];
+		atoms[i] = element;
+		return prev;
+	}
+
+	/**
+	 * Removes the element at the specified index.
+	 *
+	 * @param index the index
+	 * @return the removed element
+	 */
+	public T removeAt(int index) {
+		Objects.checkIndex(index, size);
+		moveGap(index);
+		T prev = atoms[gapEnd];
+		atoms[gapEnd++] = null;
+		size--;
+
+		int capacity = growth.shrink(atoms.length, size);
+		if (capacity < atoms.length && capacity >= size)
+			reallocate(capacity);
+
+		return prev;
+	}
+
+	/**
+	 * Removes the first occurrence of the specified element from the list.
+	 *
+	 * @param e the element
+	 * @return {@code true} if the element was removed
+	 */
+	public boolean remove(T e) {
+		int i = indexOf(e);
+		if (i == -1)
+			return false;
+
+		removeAt(i);
+		return true;
+	}
+
+	/**
+	 * Removes the last element of the list.
+	 */
+	public void removeLast() {
+		if (size > 0)
+			removeAt(size - 1);
+	}
+
+	/**
+	 * Grows the backing array if the gap is shorter than the specified amount of slots.
+	 */
+	private void reserve(int amount) {
+		if (gapEnd - gapStart < amount)
+			reallocate(growth.grow(atoms.length, size + amount));
+	}
+
+	/**
+	 * Copies the elements into a new array of the specified capacity, keeping the gap at its index.
+	 */
+	private void reallocate(int capacity) {
+		T[] array = (T[]) new Object[capacity];
+		int after = atoms.length - gapEnd;
+		System.arraycopy(atoms, 0, array, 0, gapStart);
+		System.arraycopy(atoms, gapEnd, array, capacity - after, after);
+		atoms = array;
+		gapEnd = capacity - after;
+	}
+
+	/**
+	 * Moves the gap to start at the specified index, copying only the elements between its old and new position and
+	 * clearing the slots they leave.
+	 */
+	private void moveGap(int index) {
+		if (index < gapStart) {
+			int moved = gapStart - index;
+			System.arraycopy(atoms, index, atoms, gapEnd - moved, moved);
+			Arrays.fill(atoms, index, Math.min(gapStart, gapEnd - moved), null);
+			gapStart = index;
+			gapEnd -= moved;
+		} else if (index > gapStart) {
+			int moved = index - gapStart;
+			System.arraycopy(atoms, gapEnd, atoms, gapStart, moved);
+			Arrays.fill(atoms, Math.max(gapEnd, index), gapEnd + moved, null);
+			gapStart = index;
+			gapEnd += moved;
+		}
+	}
+
+	// endregion
+
+	/**
+	 * Copies the elements into a new {@link Atoms} list.
+	 *
+	 * @return the list
+	 */
+	public Atoms<T> toAtoms() {
+		return new Atoms<>(toArray());
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	private T[] toArray() {
+		T[] array = (T[]) new Object[size];
+		System.arraycopy(atoms, 0, array, 0, gapStart);
+		System.arraycopy(atoms, gapEnd, array, gapStart, atoms.length - gapEnd);
+		return array;
+	}
+}
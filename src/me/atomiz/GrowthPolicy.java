@@ -0,0 +1,115 @@
+package me.atomiz;
+
+/**
+ * Decides the capacity of the backing array of a list when it has to grow and whether it should shrink after elements
+ * were removed.
+ */
+interface GrowthPolicy {
+
+	/**
+	 * The smallest capacity a growing list receives.
+	 */
+	int MIN_CAPACITY = 10;
+
+	/**
+	 * The largest capacity an array can safely be allocated with.
+	 */
+	int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Doubles the capacity and shrinks to half of it once only a quarter is used.
+	 */
+	GrowthPolicy DEFAULT = doubling().shrinkWithHysteresis();
+
+	/**
+	 * Returns the new capacity of a full list.
+	 *
+	 * @param capacity the current capacity
+	 * @param required the capacity needed to fit the pending elements, always greater than {@code capacity}
+	 * @return the new capacity, at least {@code required}
+	 */
+	int grow(int capacity, int required);
+
+	/**
+	 * Returns the capacity the list should shrink to after elements were removed. The default never shrinks.
+	 *
+	 * @param capacity the current capacity
+	 * @param size     the amount of elements left
+	 * @return the new capacity, at least {@code size}, or {@code capacity} to keep the array
+	 */
+	default int shrink(int capacity, int size) {
+		return capacity;
+	}
+
+	/**
+	 * Grows the capacity by doubling it.
+	 *
+	 * @return the policy
+	 */
+	static GrowthPolicy doubling() {
+		return (capacity, required) -> fit(capacity * 2L, required);
+	}
+
+	/**
+	 * Grows the capacity by half of it.
+	 *
+	 * @return the policy
+	 */
+	static GrowthPolicy oneAndHalf() {
+		return (capacity, required) -> fit(capacity + (capacity >> 1), required);
+	}
+
+	/**
+	 * Grows the capacity by a fixed amount of elements, which keeps the unused capacity of append only lists bounded.
+	 *
+	 * @param chunk the amount of elements to grow by
+	 * @return the policy
+	 */
+	static GrowthPolicy fixedChunk(int chunk) {
+		if (chunk <= 0)
+			throw new IllegalArgumentException("The chunk must be positive: " + chunk);
+
+		return (capacity, required) -> fit((long) capacity + chunk, required);
+	}
+
+	/**
+	 * Returns a policy growing like this one which never shrinks.
+	 *
+	 * @return the policy
+	 */
+	default GrowthPolicy neverShrink() {
+		return this::grow;
+	}
+
+	/**
+	 * Returns a policy growing like this one which halves the capacity once at most a quarter of it is used. The gap
+	 * between the thresholds keeps a list alternating between adding and removing around one size from copying its
+	 * array on every call.
+	 *
+	 * @return the policy
+	 */
+	default GrowthPolicy shrinkWithHysteresis() {
+		GrowthPolicy growth = this;
+		return new GrowthPolicy() {
+			@Override
+			public int grow(int capacity, int required) {
+				return growth.grow(capacity, required);
+			}
+
+			@Override
+			public int shrink(int capacity, int size) {
+				if (capacity <= MIN_CAPACITY || size > capacity >> 2)
+					return capacity;
+
+				return Math.max(capacity >> 1, MIN_CAPACITY);
+			}
+		};
+	}
+
+	private static int fit(long capacity, int required) {
+		if (required < 0 || required > MAX_CAPACITY)
+			throw new OutOfMemoryError("Required capacity too large: " + required);
+
+		return (int) Math.min(Math.max(Math.max(capacity, required), MIN_CAPACITY), MAX_CAPACITY);
+	}
+}
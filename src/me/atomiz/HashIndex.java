@@ -0,0 +1,185 @@
+package me.atomiz;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A hash multimap from a key of each element to the positions of the elements with that key.
+ *
+ * @param <T> the type
+ * @param <K> the key type
+ */
+class HashIndex<T, K> implements AtomsIndex<T> {
+	private final static int[] NONE = new int[0];
+	private final Function<? super T, ? extends K> key;
+	private final Supplier<Map<K, IntList>> factory;
+	private Map<K, IntList> positions;
+	private IntList nulls = new IntList();
+	private int size = 0;
+
+	/**
+	 * Creates an index over the specified key backed by a {@link HashMap}.
+	 *
+	 * @param key the key of an element
+	 */
+	public HashIndex(Function<? super T, ? extends K> key) {
+		this(key, HashMap::new);
+	}
+
+	/**
+	 * Creates an index over the specified key backed by maps of the specified factory.
+	 *
+	 * @param key     the key of an element
+	 * @param factory creates the map, {@code null} keys are never passed to it
+	 */
+	public HashIndex(Function<? super T, ? extends K> key, Supplier<Map<K, IntList>> factory) {
+		this.key = Objects.requireNonNull(key);
+		this.factory = Objects.requireNonNull(factory);
+		positions = factory.get();
+	}
+
+	// region queries
+
+	/**
+	 * Checks whether any element has the specified key.
+	 *
+	 * @param k the key
+	 * @return {@code true} if an element has the key
+	 */
+	public boolean contains(K k) {
+		return count(k) > 0;
+	}
+
+	/**
+	 * Returns the amount of elements with the specified key.
+	 *
+	 * @param k the key
+	 * @return the amount
+	 */
+	public int count(K k) {
+		IntList list = list(k);
+		return list == null ? 0 : list.size();
+	}
+
+	/**
+	 * Returns the position of the first element with the specified key or -1.
+	 *
+	 * @param k the key
+	 * @return the position or -1
+	 */
+	public int first(K k) {
+		IntList list = list(k);
+		return list == null || list.size() == 0 ? -1 : list.get(0);
+	}
+
+	/**
+	 * Returns the position of the last element with the specified key or -1.
+	 *
+	 * @param k the key
+	 * @return the position or -1
+	 */
+	public int last(K k) {
+		IntList list = list(k);
+		return list == null || list.size() == 0 ? -1 : list.get(list.size() - 1);
+	}
+
+	/**
+	 * Returns the ascending positions of the elements with the specified key.
+	 *
+	 * @param k the key
+	 * @return the positions
+	 */
+	public int[] positions(K k) {
+		IntList list = list(k);
+		return list == null ? NONE : list.toArray();
+	}
+
+	private IntList list(K k) {
+		return k == null ? nulls : positions.get(k);
+	}
+
+	// endregion
+
+	// region maintenance
+
+	@Override
+	public void added(int index, T e) {
+		if (index < size)
+			shift(index, 1);
+
+		put(index, e);
+		size++;
+	}
+
+	@Override
+	public void removed(int index, T e) {
+		IntList list = list(key(e));
+		if (list != null) {
+			list.remove(index);
+			if (list.size() == 0 && list != nulls)
+				positions.remove(key(e));
+		}
+
+		size--;
+		if (index < size)
+			shift(index + 1, -1);
+	}
+
+	@Override
+	public void set(int index, T previous, T e) {
+		K before = key(previous);
+		K after = key(e);
+		if (Objects.equals(before, after))
+			return;
+
+		IntList list = list(before);
+		if (list != null) {
+			list.remove(index);
+			if (list.size() == 0 && list != nulls)
+				positions.remove(before);
+		}
+
+		put(index, e);
+	}
+
+	@Override
+	public void rebuild(T[] atoms, int size) {
+		positions = factory.get();
+		nulls = new IntList();
+		this.size = size;
+		for (int i = 0; i < size; i++)
+			put(i, atoms[i]);
+	}
+
+	@Override
+	public long bytes() {
+		long bytes = 48 + positions.size() * 36L + nulls.bytes();
+		for (IntList list : positions.values())
+			bytes += list.bytes();
+
+		return bytes;
+	}
+
+	private K key(T e) {
+		return e == null ? null : key.apply(e);
+	}
+
+	private void put(int index, T e) {
+		K k = key(e);
+		if (k == null)
+			nulls.add(index);
+		else
+			positions.computeIfAbsent(k, x -> new IntList()).add(index);
+	}
+
+	private void shift(int from, int delta) {
+		nulls.shift(from, delta);
+		for (IntList list : positions.values())
+			list.shift(from, delta);
+	}
+
+	// endregion
+}
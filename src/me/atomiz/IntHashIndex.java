@@ -0,0 +1,194 @@
+package me.atomiz;
+
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * An open addressing multimap from an {@code int} key of each element to the positions of the elements with that key,
+ * which avoids boxing the keys. Keys whose last element was removed keep an empty slot until the next rebuild.
+ *
+ * @param <T> the type
+ */
+class IntHashIndex<T> implements AtomsIndex<T> {
+	private final static int[] NONE = new int[0];
+	private final static int INITIAL_CAPACITY = 16;
+	private final ToIntFunction<? super T> key;
+	private int[] keys = new int[INITIAL_CAPACITY];
+	private IntList[] lists = new IntList[INITIAL_CAPACITY];
+	private int used = 0;
+	private IntList nulls = new IntList();
+	private int size = 0;
+
+	/**
+	 * Creates an index over the specified key.
+	 *
+	 * @param key the key of an element, never called with {@code null}
+	 */
+	public IntHashIndex(ToIntFunction<? super T> key) {
+		this.key = Objects.requireNonNull(key);
+	}
+
+	// region queries
+
+	/**
+	 * Checks whether any element has the specified key.
+	 *
+	 * @param k the key
+	 * @return {@code true} if an element has the key
+	 */
+	public boolean contains(int k) {
+		return count(k) > 0;
+	}
+
+	/**
+	 * Returns the amount of elements with the specified key.
+	 *
+	 * @param k the key
+	 * @return the amount
+	 */
+	public int count(int k) {
+		IntList list = lists[slot(k)];
+		return list == null ? 0 : list.size();
+	}
+
+	/**
+	 * Returns the position of the first element with the specified key or -1.
+	 *
+	 * @param k the key
+	 * @return the position or -1
+	 */
+	public int first(int k) {
+		IntList list = lists[slot(k)];
+		return list == null || list.size() == 0 ? -1 : list.get(0);
+	}
+
+	/**
+	 * Returns the position of the last element with the specified key or -1.
+	 *
+	 * @param k the key
+	 * @return the position or -1
+	 */
+	public int last(int k) {
+		IntList list = lists[slot(k)];
+		return list == null || list.size() == 0 ? -1 : list.get(list.size() - 1);
+	}
+
+	/**
+	 * Returns the ascending positions of the elements with the specified key.
+	 *
+	 * @param k the key
+	 * @return the positions
+	 */
+	public int[] positions(int k) {
+		IntList list = lists[slot(k)];
+		return list == null ? NONE : list.toArray();
+	}
+
+	// endregion
+
+	// region maintenance
+
+	@Override
+	public void added(int index, T e) {
+		if (index < size)
+			shift(index, 1);
+
+		list(e).add(index);
+		size++;
+	}
+
+	@Override
+	public void removed(int index, T e) {
+		list(e).remove(index);
+		size--;
+		if (index < size)
+			shift(index + 1, -1);
+	}
+
+	@Override
+	public void set(int index, T previous, T e) {
+		if (previous != null && e != null && key.applyAsInt(previous) == key.applyAsInt(e))
+			return;
+
+		list(previous).remove(index);
+		list(e).add(index);
+	}
+
+	@Override
+	public void rebuild(T[] atoms, int size) {
+		keys = new int[INITIAL_CAPACITY];
+		lists = new IntList[INITIAL_CAPACITY];
+		used = 0;
+		nulls = new IntList();
+		this.size = size;
+		for (int i = 0; i < size; i++)
+			list(atoms[i]).add(i);
+	}
+
+	@Override
+	public long bytes() {
+		long bytes = 48 + keys.length * 4L + lists.length * 4L + used * 16L + nulls.bytes();
+		for (IntList list : lists)
+			if (list != null)
+				bytes += list.bytes();
+
+		return bytes;
+	}
+
+	/**
+	 * Returns the positions of the key of the specified element, creating them if needed.
+	 */
+	private IntList list(T e) {
+		if (e == null)
+			return nulls;
+
+		int k = key.applyAsInt(e);
+		int i = slot(k);
+		if (lists[i] != null)
+			return lists[i];
+
+		if (used + 1 > lists.length >> 1) {
+			grow();
+			i = slot(k);
+		}
+
+		keys[i] = k;
+		used++;
+		return lists[i] = new IntList();
+	}
+
+	/**
+	 * Returns the slot of the specified key or the empty slot it would be stored in.
+	 */
+	private int slot(int k) {
+		int mask = lists.length - 1;
+		int h = k * 0x9e3779b9;
+		int i = (h ^ h >>> 16) & mask;
+		while (lists[i] != null && keys[i] != k)
+			i = i + 1 & mask;
+
+		return i;
+	}
+
+	private void grow() {
+		int[] oldKeys = keys;
+		IntList[] oldLists = lists;
+		keys = new int[oldKeys.length << 1];
+		lists = new IntList[oldLists.length << 1];
+		for (int i = 0; i < oldLists.length; i++)
+			if (oldLists[i] != null) {
+				int j = slot(oldKeys[i]);
+				keys[j] = oldKeys[i];
+				lists[j] = oldLists[i];
+			}
+	}
+
+	private void shift(int from, int delta) {
+		nulls.shift(from, delta);
+		for (IntList list : lists)
+			if (list != null)
+				list.shift(from, delta);
+	}
+
+	// endregion
+}
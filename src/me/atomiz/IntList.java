@@ -0,0 +1,101 @@
+package me.atomiz;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of ascending {@code int} positions used by the indexes.
+ */
+class IntList {
+	private final static int RESIZE_THRESHOLD = 4;
+	private int[] values = new int[RESIZE_THRESHOLD];
+	private int size = 0;
+
+	/**
+	 * Returns the amount of positions in the list.
+	 *
+	 * @return the list size
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the position at the specified index.
+	 *
+	 * @param i the index
+	 * @return the position
+	 */
+	int get(int i) {
+		return values[i];
+	}
+
+	/**
+	 * Inserts the specified position keeping the list ascending. Appending a position larger than all others is O(1).
+	 *
+	 * @param value the position
+	 */
+	void add(int value) {
+		if (size == values.length)
+			values = Arrays.copyOf(values, values.length << 1);
+
+		if (size == 0 || values[size - 1] < value) {
+			values[size++] = value;
+			return;
+		}
+
+		int i = insertionPoint(value);
+		System.arraycopy(values, i, values, i + 1, size - i);
+		values[i] = value;
+		size++;
+	}
+
+	/**
+	 * Removes the specified position.
+	 *
+	 * @param value the position
+	 * @return {@code true} if the position was removed
+	 */
+	boolean remove(int value) {
+		int i = Arrays.binarySearch(values, 0, size, value);
+		if (i < 0)
+			return false;
+
+		System.arraycopy(values, i + 1, values, i, size - i - 1);
+		size--;
+		return true;
+	}
+
+	/**
+	 * Adds the specified delta to every position greater than or equal to {@code from}.
+	 *
+	 * @param from  the first position to shift
+	 * @param delta the amount to add
+	 */
+	void shift(int from, int delta) {
+		for (int i = insertionPoint(from); i < size; i++)
+			values[i] += delta;
+	}
+
+	/**
+	 * Returns a copy of the positions.
+	 *
+	 * @return the positions
+	 */
+	int[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * Returns an estimate of the bytes used by the list.
+	 *
+	 * @return the amount of bytes
+	 */
+	long bytes() {
+		return 16 + 16 + values.length * 4L;
+	}
+
+	private int insertionPoint(int value) {
+		int i = Arrays.binarySearch(values, 0, size, value);
+		return i < 0 ? -i - 1 : i;
+	}
+}
@@ -0,0 +1,18 @@
+package me.atomiz;
+
+/**
+ * An operation on an element and its index in a list, taking the index as a primitive {@code int}.
+ *
+ * @param <T> the type
+ */
+@FunctionalInterface
+interface IntObjConsumer<T> {
+
+	/**
+	 * Performs the operation on the element at the specified index.
+	 *
+	 * @param index the index
+	 * @param e     the element
+	 */
+	void accept(int index, T e);
+}
@@ -0,0 +1,510 @@
+package me.atomiz;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A list of {@link Atom} records persisted in a pair of memory mapped files.
+ * <pre>
+ * file          header    64 bytes: magic, version, size, capacity, names size, names capacity
+ *               records   capacity * {@link AtomLayout#RECORD} bytes
+ * file.names    names     names capacity bytes, every distinct name as its length followed by its UTF-8 bytes
+ * </pre>
+ * The names live in their own file, so growing either area never moves the other one and the name offsets of the
+ * records never change. Both files grow by doubling.
+ * <p>
+ * {@link #open Opening} a file only reads and validates the header and maps the files, the records are paged in by the
+ * operating system when they are first read. The distinct names are read on the first write of a name, which needs
+ * them to store every name once.
+ * <p>
+ * The header is written by {@link #flush} and {@link #close} only, after the records and names were forced to the
+ * storage device, so a file reopened after a crash holds the elements of the last flush. Records replaced since then
+ * may be partially written: those replaced by {@link #set} and those that were flushed, dropped by {@link #removeLast}
+ * or {@link #clear} and overwritten by a later {@link #add}.
+ */
+class MappedAtoms implements Closeable {
+	private final static int MAGIC = 0x41544f4d;
+	private final static int VERSION = 2;
+	private final static int HEADER = 64;
+	private final static int INITIAL_CAPACITY = 1 << 10;
+	private final static int INITIAL_NAMES_CAPACITY = 1 << 12;
+	private final static int MAX_RECORDS = (GrowthPolicy.MAX_CAPACITY - HEADER) / AtomLayout.RECORD;
+
+	private final static int SIZE = 8;
+	private final static int CAPACITY = 12;
+	private final static int NAMES_SIZE = 16;
+	private final static int NAMES_CAPACITY = 20;
+
+	private final static GrowthPolicy GROWTH = GrowthPolicy.doubling();
+
+	private final FileChannel channel;
+	private final FileChannel namesChannel;
+	private MappedByteBuffer buffer;
+	private MappedByteBuffer names;
+	private final Path namesPath;
+	private Map<String, Long> nameSlots;
+	private int size;
+	private int capacity;
+	private int namesSize;
+	private int namesCapacity;
+
+	private MappedAtoms(FileChannel channel, FileChannel namesChannel, Path namesPath) {
+		this.channel = channel;
+		this.namesChannel = namesChannel;
+		this.namesPath = namesPath;
+	}
+
+	/**
+	 * Opens the specified file and its {@code .names} sibling or creates empty ones if the file does not exist.
+	 *
+	 * @param path the file
+	 * @return the list
+	 * @throws IOException if the files can not be opened, are not list files of a supported version or are corrupt
+	 */
+	public static MappedAtoms open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		FileChannel namesChannel = null;
+		try {
+			namesChannel = FileChannel.open(namesPath(path), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			MappedAtoms atoms = new MappedAtoms(channel, namesChannel, namesPath(path));
+			if (channel.size() == 0) {
+				atoms.mapRecords(INITIAL_CAPACITY);
+				atoms.mapNames(INITIAL_NAMES_CAPACITY);
+				atoms.nameSlots = new HashMap<>();
+				atoms.flush();
+			} else {
+				atoms.load(path);
+			}
+
+			return atoms;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			if (namesChannel != null)
+				namesChannel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the file holding the names of the list stored in the specified file.
+	 *
+	 * @param path the file of the list
+	 * @return the file of the names
+	 */
+	static Path namesPath(Path path) {
+		return path.resolveSibling(path.getFileName() + ".names");
+	}
+
+	/**
+	 * Reads and validates the header and maps both files.
+	 */
+	private void load(Path path) throws IOException {
+		if (channel.size() < HEADER)
+			throw new IOException("Not an atoms file: " + path);
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.nativeOrder());
+		while (header.hasRemaining())
+			if (channel.read(header, header.position()) < 0)
+				throw new IOException("Not an atoms file: " + path);
+		if (header.getInt(0) != MAGIC)
+			throw new IOException("Not an atoms file: " + path);
+		if (header.getInt(4) != VERSION)
+			throw new IOException("Unsupported atoms file version " + header.getInt(4) + ": " + path);
+
+		int size = header.getInt(SIZE);
+		int capacity = header.getInt(CAPACITY);
+		int namesSize = header.getInt(NAMES_SIZE);
+		int namesCapacity = header.getInt(NAMES_CAPACITY);
+		if (capacity < 0 || capacity > MAX_RECORDS || size < 0 || size > capacity)
+			throw new IOException("Corrupt atoms file, size " + size + " and capacity " + capacity + ": " + path);
+		if (length(capacity) > channel.size())
+			throw new IOException("Truncated atoms file: " + path);
+		if (namesCapacity < 0 || namesSize < 0 || namesSize > namesCapacity)
+			throw new IOException("Corrupt atoms file, names size " + namesSize + " and capacity " + namesCapacity + ": " + path);
+		if (namesCapacity > namesChannel.size())
+			throw new IOException("Truncated atoms names file: " + namesPath(path));
+
+		mapRecords(capacity);
+		mapNames(namesCapacity);
+		this.size = size;
+		this.namesSize = namesSize;
+	}
+
+	/**
+	 * A movable read only view of one record. Reading a numeric field does not create any object.
+	 */
+	final class Cursor {
+		private int pos;
+
+		/**
+		 * Moves the cursor to the record at the specified index.
+		 *
+		 * @param i the index
+		 * @return this cursor
+		 */
+		public Cursor at(int i) {
+			checkOpen();
+			pos = record(Objects.checkIndex(i, size));
+			return this;
+		}
+
+		public int number() {
+			return AtomLayout.number(records(), pos);
+		}
+
+		public AtomicState state() {
+			return AtomLayout.state(records(), pos);
+		}
+
+		public double mass() {
+			return AtomLayout.mass(records(), pos);
+		}
+
+		public double density() {
+			return AtomLayout.density(records(), pos);
+		}
+
+		public double meltingPoint() {
+			return AtomLayout.meltingPoint(records(), pos);
+		}
+
+		/**
+		 * Decodes the name of the current record.
+		 *
+		 * @return the name
+		 */
+		public String name() {
+			return AtomLayout.name(records(), pos, names);
+		}
+
+		/**
+		 * Materializes the current record.
+		 *
+		 * @return the element
+		 */
+		public Atom toAtom() {
+			return AtomLayout.read(records(), pos, names);
+		}
+
+		private ByteBuffer records() {
+			checkOpen();
+			return buffer;
+		}
+	}
+
+	// region base
+
+	/**
+	 * Returns the amount of elements stored in the list.
+	 *
+	 * @return the list size
+	 */
+	public int size() {
+		checkOpen();
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if the list has no elements.
+	 *
+	 * @return {@code true} if the list has no elements
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Materializes the element located at the specified index in the list.
+	 *
+	 * @param i the index
+	 * @return the element
+	 */
+	public Atom get(int i) {
+		return cursor().at(i).toAtom();
+	}
+
+	/**
+	 * Returns a new cursor over the records of the list.
+	 *
+	 * @return the cursor
+	 */
+	public Cursor cursor() {
+		checkOpen();
+		return new Cursor();
+	}
+
+	/**
+	 * Returns the amount of records meeting the filter. The filter receives the same cursor positioned on each record.
+	 *
+	 * @param filter the filter to test for
+	 * @return the amount
+	 */
+	public int countIf(Predicate<Cursor> filter) {
+		Objects.requireNonNull(filter);
+		Cursor cursor = cursor();
+		int count = 0;
+		for (int i = 0; i < size; i++)
+			if (filter.test(cursor.at(i)))
+				count++;
+
+		return count;
+	}
+
+	/**
+	 * Performs an action on each record. The action receives the same cursor positioned on each record.
+	 *
+	 * @param action the action
+	 */
+	public void forEach(Consumer<Cursor> action) {
+		Objects.requireNonNull(action);
+		Cursor cursor = cursor();
+		for (int i = 0; i < size; i++)
+			action.accept(cursor.at(i));
+	}
+
+	/**
+	 * Copies the elements into a new {@link Atoms} list.
+	 *
+	 * @return the list
+	 */
+	public Atoms<Atom> toAtoms() {
+		Atoms<Atom> atoms = new Atoms<>(Math.max(size(), 1));
+		forEach(c -> atoms.add(c.toAtom()));
+		return atoms;
+	}
+
+	/**
+	 * Clears the list. The files keep their length and the stored names.
+	 */
+	public void clear() {
+		checkOpen();
+		size = 0;
+	}
+
+	/**
+	 * Forces the records and names to the storage device, then writes and forces the header. A crash before the header
+	 * reaches the device leaves the previous header, which only refers to data forced before it.
+	 */
+	public void flush() {
+		checkOpen();
+		buffer.force();
+		names.force();
+
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putInt(SIZE, size);
+		buffer.putInt(CAPACITY, capacity);
+		buffer.putInt(NAMES_SIZE, namesSize);
+		buffer.putInt(NAMES_CAPACITY, namesCapacity);
+		buffer.force(0, HEADER);
+	}
+
+	/**
+	 * Flushes the list, releases the mappings and closes the files. Closing an already closed list has no effect.
+	 *
+	 * @throws IOException if the files can not be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		if (buffer == null)
+			return;
+
+		flush();
+		DirectMemory.free(buffer);
+		DirectMemory.free(names);
+		buffer = null;
+		names = null;
+		nameSlots = null;
+		try {
+			channel.close();
+		} finally {
+			namesChannel.close();
+		}
+	}
+
+	private void checkOpen() {
+		if (buffer == null)
+			throw new IllegalStateException("The list is closed");
+	}
+
+	// endregion
+
+	// region add/set
+
+	/**
+	 * Adds the specified element to the list.
+	 *
+	 * @param e the element
+	 */
+	public void add(Atom e) {
+		add(e.name, e.number, e.state, e.mass, e.density, e.meltingPoint);
+	}
+
+	/**
+	 * Adds a record with the specified fields to the list without creating an {@link Atom}.
+	 *
+	 * @param name         The name
+	 * @param number       The atomic number
+	 * @param state        The {@link AtomicState}
+	 * @param mass         The mass
+	 * @param density      The density
+	 * @param meltingPoint The melting point
+	 */
+	public void add(String name, int number, AtomicState state, double mass, double density, double meltingPoint) {
+		checkOpen();
+		if (size == capacity) {
+			if (capacity == MAX_RECORDS)
+				throw new OutOfMemoryError("The file can not be mapped at once beyond " + MAX_RECORDS + " records");
+
+			try {
+				mapRecords(Math.min(GROWTH.grow(capacity, size + 1), MAX_RECORDS));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		write(size, name, number, state, mass, density, meltingPoint);
+		size++;
+	}
+
+	/**
+	 * Sets the element at the specified index to the specified element.
+	 *
+	 * @param index   the index
+	 * @param element the element
+	 * @return the element previously at this index
+	 */
+	public Atom set(int index, Atom element) {
+		Atom prev = get(index);
+		write(index, element.name, element.number, element.state, element.mass, element.density, element.meltingPoint);
+		return prev;
+	}
+
+	private void write(int i, String name, int number, AtomicState state, double mass, double density, double meltingPoint) {
+		long slot = name == null ? -1L << 32 : nameSlot(name);
+		AtomLayout.write(buffer, record(i), number, state, mass, density, meltingPoint, (int) (slot >> 32), (int) slot);
+	}
+
+	/**
+	 * Returns the offset of the specified name in the names file in the high and its length in the low half, storing
+	 * it first if needed. Stored names are not encoded again.
+	 */
+	private long nameSlot(String name) {
+		if (nameSlots == null)
+			nameSlots = loadNames();
+
+		Long slot = nameSlots.get(name);
+		if (slot != null)
+			return slot;
+
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		long entry = Integer.BYTES + (long) bytes.length;
+		if (namesSize + entry > namesCapacity) {
+			if (namesSize + entry > GrowthPolicy.MAX_CAPACITY)
+				throw new OutOfMemoryError("The names file can not be mapped at once: " + (namesSize + entry) + " bytes");
+
+			try {
+				mapNames(GROWTH.grow(namesCapacity, (int) (namesSize + entry)));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		names.putInt(namesSize, bytes.length);
+		names.put(namesSize + Integer.BYTES, bytes);
+		long stored = (long) (namesSize + Integer.BYTES) << 32 | bytes.length;
+		nameSlots.put(name, stored);
+		namesSize += entry;
+		return stored;
+	}
+
+	/**
+	 * Reads the dictionary of stored names.
+	 *
+	 * @throws UncheckedIOException if an entry exceeds the name area
+	 */
+	private Map<String, Long> loadNames() {
+		Map<String, Long> slots = new HashMap<>();
+		for (int pos = 0; pos < namesSize; ) {
+			int length = namesSize - pos < Integer.BYTES ? -1 : names.getInt(pos);
+			if (length < 0 || length > namesSize - pos - Integer.BYTES)
+				throw new UncheckedIOException(new IOException("Corrupt atoms names file: " + namesPath));
+
+			byte[] bytes = new byte[length];
+			names.get(pos + Integer.BYTES, bytes);
+			slots.put(new String(bytes, StandardCharsets.UTF_8), (long) (pos + Integer.BYTES) << 32 | length);
+			pos += Integer.BYTES + length;
+		}
+
+		return slots;
+	}
+
+	// endregion
+
+	// region remove
+
+	/**
+	 * Removes the last element of the list.
+	 */
+	public void removeLast() {
+		checkOpen();
+		if (size > 0)
+			size--;
+	}
+
+	// endregion
+
+	// region mapping
+
+	/**
+	 * Extends the records file to the specified capacity if needed and maps it again. Existing records stay in place.
+	 */
+	private void mapRecords(int capacity) throws IOException {
+		MappedByteBuffer previous = buffer;
+		buffer = map(channel, length(capacity));
+		this.capacity = capacity;
+		DirectMemory.free(previous);
+	}
+
+	/**
+	 * Extends the names file to the specified capacity if needed and maps it again. Existing names stay in place.
+	 */
+	private void mapNames(int namesCapacity) throws IOException {
+		MappedByteBuffer previous = names;
+		names = map(namesChannel, namesCapacity);
+		this.namesCapacity = namesCapacity;
+		DirectMemory.free(previous);
+	}
+
+	private static MappedByteBuffer map(FileChannel channel, long length) throws IOException {
+		if (channel.size() < length)
+			channel.write(ByteBuffer.wrap(new byte[1]), length - 1);
+
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+		buffer.order(ByteOrder.nativeOrder());
+		return buffer;
+	}
+
+	private static int record(int i) {
+		return HEADER + i * AtomLayout.RECORD;
+	}
+
+	private static long length(int capacity) {
+		return HEADER + (long) capacity * AtomLayout.RECORD;
+	}
+
+	// endregion
+}
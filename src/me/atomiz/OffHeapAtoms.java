@@ -0,0 +1,370 @@
+package me.atomiz;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A list of {@link Atom} records stored outside of the Java heap in {@link AtomLayout fixed width} slots of direct
+ * {@link ByteBuffer ByteBuffers}. The garbage collector sees a few buffers instead of one object per element.
+ * <p>
+ * A single buffer holds at most 2 GB, so the records are split into chunks of {@code 2^18} records (10 MB) each. The
+ * first chunk grows by doubling until it is full, later chunks are allocated at full size and never copied. The list
+ * holds up to {@link #MAX_SIZE} records, the distinct names share one buffer of up to 2 GB.
+ * <p>
+ * Elements are materialized by {@link #get}, scans read the slots through a reusable {@link Cursor}. The list must be
+ * {@link #close() closed} once it is no longer used, which releases its memory right away. After that every operation
+ * throws an {@link IllegalStateException}.
+ */
+class OffHeapAtoms implements AutoCloseable {
+	/**
+	 * The largest amount of records a list can hold.
+	 */
+	static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+	private final static int RESIZE_THRESHOLD = 10;
+	private final static int NAMES_SIZE = 256;
+	private final static int CHUNK_BITS = 18;
+	private final static int CHUNK = 1 << CHUNK_BITS;
+	private final static int CHUNK_MASK = CHUNK - 1;
+
+	private ByteBuffer[] chunks;
+	private ByteBuffer names;
+	private final Map<String, Long> nameSlots = new HashMap<>();
+	private int size = 0;
+	private int capacity;
+	private int namesSize = 0;
+
+	public OffHeapAtoms() {
+		this(RESIZE_THRESHOLD);
+	}
+
+	public OffHeapAtoms(int size) {
+		if (size < 0 || size > MAX_SIZE)
+			throw new IllegalArgumentException("Illegal capacity: " + size);
+
+		capacity = Math.max(size, 1);
+		if (capacity > CHUNK)
+			capacity = (int) Math.min((long) capacity + CHUNK_MASK & ~CHUNK_MASK, MAX_SIZE);
+
+		chunks = new ByteBuffer[(capacity - 1 >>> CHUNK_BITS) + 1];
+		for (int c = 0; c < chunks.length; c++)
+			chunks[c] = allocate((long) Math.min(capacity, CHUNK) * AtomLayout.RECORD);
+
+		names = allocate(NAMES_SIZE);
+	}
+
+	/**
+	 * A movable read only view of one record. Reading a field does not create any object.
+	 */
+	final class Cursor {
+		private int chunk;
+		private int pos;
+
+		/**
+		 * Moves the cursor to the record at the specified index.
+		 *
+		 * @param i the index
+		 * @return this cursor
+		 */
+		public Cursor at(int i) {
+			checkOpen();
+			Objects.checkIndex(i, size);
+			chunk = i >>> CHUNK_BITS;
+			pos = (i & CHUNK_MASK) * AtomLayout.RECORD;
+			return this;
+		}
+
+		public int number() {
+			return AtomLayout.number(records(), pos);
+		}
+
+		public AtomicState state() {
+			return AtomLayout.state(records(), pos);
+		}
+
+		public double mass() {
+			return AtomLayout.mass(records(), pos);
+		}
+
+		public double density() {
+			return AtomLayout.density(records(), pos);
+		}
+
+		public double meltingPoint() {
+			return AtomLayout.meltingPoint(records(), pos);
+		}
+
+		/**
+		 * Decodes the name of the current record.
+		 *
+		 * @return the name
+		 */
+		public String name() {
+			return AtomLayout.name(records(), pos, names);
+		}
+
+		/**
+		 * Materializes the current record.
+		 *
+		 * @return the element
+		 */
+		public Atom toAtom() {
+			return AtomLayout.read(records(), pos, names);
+		}
+
+		/**
+		 * Returns the chunk of the current record, read again on every access since the first chunk is replaced when
+		 * it grows and every chunk is released on {@link #close()}.
+		 */
+		private ByteBuffer records() {
+			checkOpen();
+			return chunks[chunk];
+		}
+	}
+
+	// region base
+
+	/**
+	 * Returns the amount of elements stored in the list.
+	 *
+	 * @return the list size
+	 */
+	public int size() {
+		checkOpen();
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if the list has no elements.
+	 *
+	 * @return {@code true} if the list has no elements
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Materializes the element located at the specified index in the list.
+	 *
+	 * @param i the index
+	 * @return the element
+	 */
+	public Atom get(int i) {
+		return cursor().at(i).toAtom();
+	}
+
+	/**
+	 * Returns a new cursor over the records of the list.
+	 *
+	 * @return the cursor
+	 */
+	public Cursor cursor() {
+		checkOpen();
+		return new Cursor();
+	}
+
+	/**
+	 * Returns the amount of records meeting the filter. The filter receives the same cursor positioned on each record.
+	 *
+	 * @param filter the filter to test for
+	 * @return the amount
+	 */
+	public int countIf(Predicate<Cursor> filter) {
+		Objects.requireNonNull(filter);
+		Cursor cursor = cursor();
+		int count = 0;
+		for (int i = 0; i < size; i++)
+			if (filter.test(cursor.at(i)))
+				count++;
+
+		return count;
+	}
+
+	/**
+	 * Performs an action on each record. The action receives the same cursor positioned on each record.
+	 *
+	 * @param action the action
+	 */
+	public void forEach(Consumer<Cursor> action) {
+		Objects.requireNonNull(action);
+		Cursor cursor = cursor();
+		for (int i = 0; i < size; i++)
+			action.accept(cursor.at(i));
+	}
+
+	/**
+	 * Clears the list. The stored names are kept.
+	 */
+	public void clear() {
+		checkOpen();
+		size = 0;
+	}
+
+	/**
+	 * Returns the amount of bytes reserved outside of the heap.
+	 *
+	 * @return the amount of bytes
+	 */
+	public long bytes() {
+		checkOpen();
+		long bytes = names.capacity();
+		for (ByteBuffer chunk : chunks)
+			if (chunk != null)
+				bytes += chunk.capacity();
+
+		return bytes;
+	}
+
+	/**
+	 * Releases the memory of the list. Closing an already closed list has no effect.
+	 */
+	@Override
+	public void close() {
+		if (chunks == null)
+			return;
+
+		for (ByteBuffer chunk : chunks)
+			DirectMemory.free(chunk);
+		DirectMemory.free(names);
+
+		chunks = null;
+		names = null;
+		nameSlots.clear();
+		size = 0;
+	}
+
+	private void checkOpen() {
+		if (chunks == null)
+			throw new IllegalStateException("The list is closed");
+	}
+
+	// endregion
+
+	// region add/set
+
+	/**
+	 * Adds the specified element to the list.
+	 *
+	 * @param e the element
+	 */
+	public void add(Atom e) {
+		add(e.name, e.number, e.state, e.mass, e.density, e.meltingPoint);
+	}
+
+	/**
+	 * Adds a record with the specified fields to the list without creating an {@link Atom}.
+	 *
+	 * @param name         The name
+	 * @param number       The atomic number
+	 * @param state        The {@link AtomicState}
+	 * @param mass         The mass
+	 * @param density      The density
+	 * @param meltingPoint The melting point
+	 */
+	public void add(String name, int number, AtomicState state, double mass, double density, double meltingPoint) {
+		checkOpen();
+		if (size == MAX_SIZE)
+			throw new IllegalStateException("The list is full: " + MAX_SIZE + " records");
+		if (size == capacity)
+			grow();
+
+		write(size++, name, number, state, mass, density, meltingPoint);
+	}
+
+	/**
+	 * Sets the element at the specified index to the specified element.
+	 *
+	 * @param index   the index
+	 * @param element the element
+	 * @return the element previously at this index
+	 */
+	public Atom set(int index, Atom element) {
+		Atom prev = get(index);
+		write(index, element.name, element.number, element.state, element.mass, element.density, element.meltingPoint);
+		return prev;
+	}
+
+	private void write(int i, String name, int number, AtomicState state, double mass, double density, double meltingPoint) {
+		long slot = name == null ? -1L << 32 : nameSlot(name);
+		AtomLayout.write(chunks[i >>> CHUNK_BITS], (i & CHUNK_MASK) * AtomLayout.RECORD, number, state, mass, density,
+				meltingPoint, (int) (slot >> 32), (int) slot);
+	}
+
+	/**
+	 * Returns the offset of the specified name in the name area in the high and its length in the low half, storing
+	 * it on first use. Stored names are not encoded again.
+	 */
+	private long nameSlot(String name) {
+		Long slot = nameSlots.get(name);
+		if (slot != null)
+			return slot;
+
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		if ((long) namesSize + bytes.length > names.capacity())
+			names = grow(names, (long) namesSize + bytes.length);
+
+		names.put(namesSize, bytes);
+		long stored = (long) namesSize << 32 | bytes.length;
+		nameSlots.put(name, stored);
+		namesSize += bytes.length;
+		return stored;
+	}
+
+	// endregion
+
+	// region remove
+
+	/**
+	 * Removes the last element of the list.
+	 */
+	public void removeLast() {
+		checkOpen();
+		if (size > 0)
+			size--;
+	}
+
+	// endregion
+
+	/**
+	 * Makes room for one more record: doubles the first chunk while it is not full, otherwise adds a full chunk.
+	 */
+	private void grow() {
+		if (capacity < CHUNK) {
+			capacity = Math.min(capacity << 1, CHUNK);
+			chunks[0] = grow(chunks[0], (long) capacity * AtomLayout.RECORD);
+			return;
+		}
+
+		int c = capacity >>> CHUNK_BITS;
+		if (c == chunks.length)
+			chunks = Arrays.copyOf(chunks, chunks.length << 1);
+
+		chunks[c] = allocate((long) CHUNK * AtomLayout.RECORD);
+		capacity = (int) Math.min((long) capacity + CHUNK, MAX_SIZE);
+	}
+
+	private static ByteBuffer allocate(long capacity) {
+		return ByteBuffer.allocateDirect((int) capacity).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Copies the buffer into a new one of at least the required capacity and releases the old one.
+	 */
+	private static ByteBuffer grow(ByteBuffer buffer, long required) {
+		long capacity = Math.max(Math.min((long) buffer.capacity() << 1, Integer.MAX_VALUE - 8), required);
+		if (capacity > Integer.MAX_VALUE - 8)
+			throw new IllegalStateException("A buffer can not hold more than 2 GB, required: " + required + " bytes");
+
+		ByteBuffer grown = allocate(capacity);
+		grown.put(0, buffer, 0, buffer.capacity());
+		DirectMemory.free(buffer);
+		return grown;
+	}
+}
@@ -0,0 +1,106 @@
+package me.atomiz;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Configures the parallel bulk operations of {@link Atoms}: the pool running them and the amount of elements below
+ * which a list is processed on the calling thread. A list is cut into chunks of at least the threshold, each chunk is
+ * processed independently.
+ */
+final class Parallelism {
+
+	/**
+	 * Runs on the {@link ForkJoinPool#commonPool() common pool} with a threshold of 32 768 elements.
+	 */
+	static final Parallelism DEFAULT = new Parallelism(ForkJoinPool.commonPool(), 1 << 15);
+
+	private final ForkJoinPool pool;
+	private final int threshold;
+
+	private Parallelism(ForkJoinPool pool, int threshold) {
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Creates a configuration running on the specified pool.
+	 *
+	 * @param pool      the pool
+	 * @param threshold the minimum amount of elements per chunk
+	 * @return the configuration
+	 */
+	static Parallelism of(ForkJoinPool pool, int threshold) {
+		if (threshold <= 0)
+			throw new IllegalArgumentException("The threshold must be positive: " + threshold);
+
+		return new Parallelism(Objects.requireNonNull(pool), threshold);
+	}
+
+	/**
+	 * Returns the amount of chunks a range of the specified amount of elements is cut into. A range smaller than twice
+	 * the threshold and any range on a single threaded pool is a single chunk.
+	 *
+	 * @param n the amount of elements
+	 * @return the amount of chunks
+	 */
+	int chunks(int n) {
+		int byThreshold = n / threshold;
+		int byPool = pool.getParallelism() == 1 ? 1 : pool.getParallelism() * 4;
+		return Math.max(1, Math.min(byThreshold, byPool));
+	}
+
+	/**
+	 * Returns the first index of the specified chunk of a range of {@code n} elements cut into {@code chunks} chunks.
+	 *
+	 * @param chunk  the chunk
+	 * @param chunks the amount of chunks
+	 * @param n      the amount of elements
+	 * @return the first index, or {@code n} for {@code chunk == chunks}
+	 */
+	static int start(int chunk, int chunks, int n) {
+		return (int) ((long) n * chunk / chunks);
+	}
+
+	/**
+	 * Runs the body for every chunk index and waits for all of them. A single chunk runs on the calling thread.
+	 *
+	 * @param chunks the amount of chunks
+	 * @param body   receives the chunk index
+	 */
+	void run(int chunks, IntConsumer body) {
+		if (chunks == 1)
+			body.accept(0);
+		else
+			pool.invoke(new Chunks(0, chunks, body));
+	}
+
+	/**
+	 * Splits a range of chunk indexes in halves until a single chunk is left.
+	 */
+	private static final class Chunks extends RecursiveAction {
+		private final static long serialVersionUID = 1L;
+		private final int from;
+		private final int to;
+		private final IntConsumer body;
+
+		Chunks(int from, int to, IntConsumer body) {
+			this.from = from;
+			this.to = to;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				body.accept(from);
+				return;
+			}
+
+			int mid = (from + to) >>> 1;
+			invokeAll(new Chunks(from, mid, body), new Chunks(mid, to, body));
+		}
+	}
+}
@@ -0,0 +1,644 @@
+package me.atomiz;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable list of which every modification returns a new version sharing all untouched parts with the previous
+ * one. The elements are kept in a trie of 32 wide nodes plus a tail holding the last up to 32 elements, so
+ * {@link #get}, {@link #set}, {@link #add} and {@link #removeLast} copy at most the path from the root to one leaf
+ * and run in O(log32 n). Many versions differing in a few elements therefore cost memory proportional to their
+ * differences rather than to their size.
+ * <p>
+ * {@link #subList} is a constant time window over the same trie and {@link #addAll} appends the elements of another
+ * list through a {@link Transient transient} list, which edits the nodes it already copied in place. Transients are the
+ * fast way to build a large list:
+ * <pre>
+ * PersistentAtoms.Transient&lt;Atom&gt; t = PersistentAtoms.&lt;Atom&gt;empty().asTransient();
+ * for (Atom atom : source)
+ *     t.add(atom);
+ * PersistentAtoms&lt;Atom&gt; atoms = t.persistent();
+ * </pre>
+ * Persistent lists can be shared between threads without synchronization, transient lists can not.
+ *
+ * @param <T> the type
+ */
+class PersistentAtoms<T> implements Iterable<T> {
+	private final static int BITS = 5;
+	private final static int WIDTH = 1 << BITS;
+	private final static int MASK = WIDTH - 1;
+	private final static Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+	private final static Object[] EMPTY_TAIL = new Object[0];
+	private final static PersistentAtoms<?> EMPTY = new PersistentAtoms<>(0, BITS, EMPTY_NODE, EMPTY_TAIL, 0, 0);
+	private final int count;
+	private final int shift;
+	private final Node root;
+	private final Object[] tail;
+	private final int offset;
+	private final int size;
+
+	/**
+	 * A node of the trie, holding either child nodes or elements. A node is edited in place only by the transient list
+	 * owning its {@code edit} token.
+	 */
+	private static final class Node {
+		final Object edit;
+		final Object[] array;
+
+		Node(Object edit, Object[] array) {
+			this.edit = edit;
+			this.array = array;
+		}
+	}
+
+	/**
+	 * Creates a version showing {@code size} elements starting from {@code offset} of a trie of {@code count} elements.
+	 */
+	private PersistentAtoms(int count, int shift, Node root, Object[] tail, int offset, int size) {
+		this.count = count;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+		this.offset = offset;
+		this.size = size;
+	}
+
+	private PersistentAtoms(int count, int shift, Node root, Object[] tail) {
+		this(count, shift, root, tail, 0, count);
+	}
+
+	/**
+	 * Returns the empty list.
+	 *
+	 * @param <T> the type
+	 * @return the empty list
+	 */
+	public static <T> PersistentAtoms<T> empty() {
+		return (PersistentAtoms<T>) EMPTY;
+	}
+
+	/**
+	 * Returns a list of the specified elements.
+	 *
+	 * @param elements the elements
+	 * @param <T>      the type
+	 * @return the list
+	 */
+	@SafeVarargs
+	public static <T> PersistentAtoms<T> of(T... elements) {
+		Transient<T> t = PersistentAtoms.<T>empty().asTransient();
+		for (T e : elements)
+			t.add(e);
+
+		return t.persistent();
+	}
+
+	/**
+	 * Returns a list of the elements of the specified {@link Atoms} list.
+	 *
+	 * @param atoms the list
+	 * @param <T>   the type
+	 * @return the list
+	 */
+	public static <T> PersistentAtoms<T> copyOf(Atoms<T> atoms) {
+		Transient<T> t = PersistentAtoms.<T>empty().asTransient();
+		atoms.forEach(t::add);
+		return t.persistent();
+	}
+
+	// region base
+
+	/**
+	 * Returns the amount of elements stored in the list.
+	 *
+	 * @return the list size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if the list has no elements.
+	 *
+	 * @return {@code true} if the list has no elements
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the element located at the specified index in the list.
+	 *
+	 * @param i the index
+	 * @return the element
+	 */
+	public T get(int i) {
+		int j = offset + Objects.checkIndex(i, size);
+		return (T) leaf(j)[j & MASK];
+	}
+
+	/**
+	 * Returns the amount of occurrences of the specified element in the list.
+	 *
+	 * @param e the element to count
+	 * @return the amount
+	 */
+	public int count(T e) {
+		int count = 0;
+		Object[] leaf = null;
+		for (int i = offset, end = offset + size; i < end; i++) {
+			if (leaf == null || (i & MASK) == 0)
+				leaf = leaf(i);
+			if (Objects.equals(leaf[i & MASK], e))
+				count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Checks whether the list contains the specified element.
+	 *
+	 * @param e the element
+	 * @return {@code true} if the list contains the specified element
+	 */
+	public boolean contains(T e) {
+		return indexOf(e) != -1;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the specified element in the list or -1 if the list does not contain the element.
+	 *
+	 * @param e the element
+	 * @return the index of the element or -1
+	 */
+	public int indexOf(T e) {
+		Object[] leaf = null;
+		for (int i = offset, end = offset + size; i < end; i++) {
+			if (leaf == null || (i & MASK) == 0)
+				leaf = leaf(i);
+			if (Objects.equals(leaf[i & MASK], e))
+				return i - offset;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Performs an action on each element.
+	 *
+	 * @param action the action
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		Object[] leaf = null;
+		for (int i = offset, end = offset + size; i < end; i++) {
+			if (leaf == null || (i & MASK) == 0)
+				leaf = leaf(i);
+			action.accept((T) leaf[i & MASK]);
+		}
+	}
+
+	/**
+	 * Returns the elements of the trie block holding the specified index of the trie.
+	 */
+	private Object[] leaf(int i) {
+		return i >= tailOffset(count) ? tail : leaf(root, shift, i);
+	}
+
+	private static Object[] leaf(Node root, int shift, int i) {
+		Node node = root;
+		for (int level = shift; level > 0; level -= BITS)
+			node = (Node) node.array[i >>> level & MASK];
+
+		return node.array;
+	}
+
+	/**
+	 * Returns the index of the first element of the tail of a trie of {@code count} elements.
+	 */
+	private static int tailOffset(int count) {
+		return count < WIDTH ? 0 : count - 1 >>> BITS << BITS;
+	}
+
+	// endregion
+
+	// region stream
+
+	/**
+	 * Returns an iterator over the elements, walking one leaf at a time.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<>() {
+			private int i = offset;
+			private final int end = offset + size;
+			private Object[] leaf;
+
+			@Override
+			public boolean hasNext() {
+				return i < end;
+			}
+
+			@Override
+			public T next() {
+				if (i >= end)
+					throw new NoSuchElementException();
+				if (leaf == null || (i & MASK) == 0)
+					leaf = leaf(i);
+
+				return (T) leaf[i++ & MASK];
+			}
+		};
+	}
+
+	/**
+	 * Returns a sequential {@link Stream} of the elements.
+	 *
+	 * @return the stream
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+	}
+
+	// endregion
+
+	// region modify
+
+	/**
+	 * Returns a list with the specified element added to the end of this list.
+	 *
+	 * @param e the element
+	 * @return the new list
+	 */
+	public PersistentAtoms<T> add(T e) {
+		int end = offset + size;
+		if (end < count)
+			return set(end, e, size + 1);
+
+		int tailOffset = tailOffset(count);
+		if (count - tailOffset < WIDTH) {
+			Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+			newTail[tail.length] = e;
+			return new PersistentAtoms<>(count + 1, shift, root, newTail, offset, size + 1);
+		}
+
+		Node tailNode = new Node(null, tail);
+		Node newRoot;
+		int newShift = shift;
+		if (count >>> BITS > 1 << shift) {
+			newRoot = new Node(null, new Object[WIDTH]);
+			newRoot.array[0] = root;
+			newRoot.array[1] = newPath(null, shift, tailNode);
+			newShift += BITS;
+		} else
+			newRoot = pushTail(null, count, shift, root, tailNode);
+
+		return new PersistentAtoms<>(count + 1, newShift, newRoot, new Object[]{ e }, offset, size + 1);
+	}
+
+	/**
+	 * Returns a list with the elements of the specified list added to the end of this list.
+	 *
+	 * @param atoms the list to append
+	 * @return the new list
+	 */
+	public PersistentAtoms<T> addAll(PersistentAtoms<? extends T> atoms) {
+		if (atoms.isEmpty())
+			return this;
+		if (isEmpty() && atoms.offset == 0)
+			return (PersistentAtoms<T>) atoms;
+
+		Transient<T> t = asTransient();
+		atoms.forEach(t::add);
+		return t.persistent();
+	}
+
+	/**
+	 * Returns a list with the element at the specified index replaced by the specified element.
+	 *
+	 * @param index   the index
+	 * @param element the element
+	 * @return the new list
+	 */
+	public PersistentAtoms<T> set(int index, T element) {
+		return set(offset + Objects.checkIndex(index, size), element, size);
+	}
+
+	/**
+	 * Replaces the element at the specified index of the trie and shows {@code size} elements of the result.
+	 */
+	private PersistentAtoms<T> set(int i, T element, int size) {
+		if (i >= tailOffset(count)) {
+			Object[] newTail = tail.clone();
+			newTail[i & MASK] = element;
+			return new PersistentAtoms<>(count, shift, root, newTail, offset, size);
+		}
+
+		return new PersistentAtoms<>(count, shift, set(null, shift, root, i, element), tail, offset, size);
+	}
+
+	/**
+	 * Returns a list without the last element of this list, or this list if it is empty.
+	 *
+	 * @return the new list
+	 */
+	public PersistentAtoms<T> removeLast() {
+		if (size == 0)
+			return this;
+		if (offset + size < count)
+			return new PersistentAtoms<>(count, shift, root, tail, offset, size - 1);
+		if (count == 1)
+			return empty();
+
+		int tailOffset = tailOffset(count);
+		if (count - tailOffset > 1)
+			return new PersistentAtoms<>(count - 1, shift, root, Arrays.copyOf(tail, tail.length - 1), offset, size - 1);
+
+		Object[] newTail = leaf(root, shift, count - 2);
+		Node newRoot = popTail(null, count, shift, root);
+		int newShift = shift;
+		if (newRoot == null)
+			newRoot = EMPTY_NODE;
+		if (shift > BITS && newRoot.array[1] == null) {
+			newRoot = (Node) newRoot.array[0];
+			newShift -= BITS;
+		}
+
+		return new PersistentAtoms<>(count - 1, newShift, newRoot, newTail, offset, size - 1);
+	}
+
+	/**
+	 * Returns a transient list of the elements of this list. A list showing only a part of its trie copies the
+	 * elements it shows.
+	 *
+	 * @return the transient list
+	 */
+	public Transient<T> asTransient() {
+		if (offset == 0 && size == count)
+			return new Transient<>(this);
+
+		Transient<T> t = PersistentAtoms.<T>empty().asTransient();
+		forEach(t::add);
+		return t;
+	}
+
+	// endregion
+
+	// region trie
+
+	/**
+	 * Returns a chain of nodes from the specified level down to the specified leaf.
+	 */
+	private static Node newPath(Object edit, int level, Node node) {
+		if (level == 0)
+			return node;
+
+		Node path = new Node(edit, new Object[WIDTH]);
+		path.array[0] = newPath(edit, level - BITS, node);
+		return path;
+	}
+
+	/**
+	 * Appends the full tail of a trie of {@code count} elements as a new leaf below the specified node.
+	 */
+	private static Node pushTail(Object edit, int count, int level, Node parent, Node tailNode) {
+		Node node = editable(edit, parent);
+		int i = count - 1 >>> level & MASK;
+		if (level == BITS)
+			node.array[i] = tailNode;
+		else {
+			Node child = (Node) node.array[i];
+			node.array[i] = child == null ? newPath(edit, level - BITS, tailNode) : pushTail(edit, count, level - BITS, child, tailNode);
+		}
+
+		return node;
+	}
+
+	/**
+	 * Replaces the element at the specified index below the specified node.
+	 */
+	private static Node set(Object edit, int level, Node parent, int i, Object element) {
+		Node node = editable(edit, parent);
+		if (level == 0)
+			node.array[i & MASK] = element;
+		else {
+			int j = i >>> level & MASK;
+			node.array[j] = set(edit, level - BITS, (Node) node.array[j], i, element);
+		}
+
+		return node;
+	}
+
+	/**
+	 * Removes the last leaf of a trie of {@code count} elements below the specified node, returning {@code null} once
+	 * the node is left empty.
+	 */
+	private static Node popTail(Object edit, int count, int level, Node parent) {
+		int i = count - 2 >>> level & MASK;
+		if (level > BITS) {
+			Node child = popTail(edit, count, level - BITS, (Node) parent.array[i]);
+			if (child == null && i == 0)
+				return null;
+
+			Node node = editable(edit, parent);
+			node.array[i] = child;
+			return node;
+		}
+
+		if (i == 0)
+			return null;
+
+		Node node = editable(edit, parent);
+		node.array[i] = null;
+		return node;
+	}
+
+	/**
+	 * Returns the specified node if the owner of the edit token may change it in place, otherwise a copy owned by it.
+	 */
+	private static Node editable(Object edit, Node node) {
+		return edit != null && node.edit == edit ? node : new Node(edit, node.array.clone());
+	}
+
+	// endregion
+
+	/**
+	 * Copies the elements into a new {@link Atoms} list.
+	 *
+	 * @return the list
+	 */
+	public Atoms<T> toAtoms() {
+		return new Atoms<>(toArray());
+	}
+
+	/**
+	 * Returns a list of the elements starting from the specified index and ending at the specified second index. The
+	 * list shares the trie of this list and keeps all of its elements reachable.
+	 *
+	 * @param from the starting index (inclusive) of the sublist
+	 * @param to   the ending index (exclusive) of the sublist
+	 * @return the list
+	 */
+	public PersistentAtoms<T> subList(int from, int to) {
+		Objects.checkFromToIndex(from, to, size);
+		return new PersistentAtoms<>(count, shift, root, tail, offset + from, to - from);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	private T[] toArray() {
+		T[] array = (T[]) new Object[size];
+		int i = 0;
+		for (T e : this)
+			array[i++] = e;
+
+		return array;
+	}
+
+	/**
+	 * A mutable list built from a persistent one, which copies each node once and then edits it in place. It must
+	 * only be used by one thread and not after {@link #persistent} was called.
+	 *
+	 * @param <T> the type
+	 */
+	public static final class Transient<T> {
+		private Object edit = new Object();
+		private int count;
+		private int shift;
+		private Node root;
+		private Object[] tail;
+
+		private Transient(PersistentAtoms<T> atoms) {
+			count = atoms.count;
+			shift = atoms.shift;
+			root = new Node(edit, atoms.root.array.clone());
+			tail = Arrays.copyOf(atoms.tail, WIDTH);
+		}
+
+		/**
+		 * Returns the amount of elements stored in the list.
+		 *
+		 * @return the list size
+		 */
+		public int size() {
+			checkEditable();
+			return count;
+		}
+
+		/**
+		 * Returns the element located at the specified index in the list.
+		 *
+		 * @param i the index
+		 * @return the element
+		 */
+		public T get(int i) {
+			checkEditable();
+			Objects.checkIndex(i, count);
+			return (T) (i >= tailOffset(count) ? tail : leaf(root, shift, i))[i & MASK];
+		}
+
+		/**
+		 * Adds the specified element to the list.
+		 *
+		 * @param e the element
+		 * @return this
+		 */
+		public Transient<T> add(T e) {
+			checkEditable();
+			int tailOffset = tailOffset(count);
+			if (count - tailOffset < WIDTH) {
+				tail[count++ & MASK] = e;
+				return this;
+			}
+
+			Node tailNode = new Node(edit, tail);
+			tail = new Object[WIDTH];
+			tail[0] = e;
+			if (count >>> BITS > 1 << shift) {
+				Node newRoot = new Node(edit, new Object[WIDTH]);
+				newRoot.array[0] = root;
+				newRoot.array[1] = newPath(edit, shift, tailNode);
+				root = newRoot;
+				shift += BITS;
+			} else
+				root = pushTail(edit, count, shift, root, tailNode);
+
+			count++;
+			return this;
+		}
+
+		/**
+		 * Sets the element at the specified index to the specified element.
+		 *
+		 * @param index   the index
+		 * @param element the element
+		 * @return this
+		 */
+		public Transient<T> set(int index, T element) {
+			checkEditable();
+			Objects.checkIndex(index, count);
+			if (index >= tailOffset(count))
+				tail[index & MASK] = element;
+			else
+				root = PersistentAtoms.set(edit, shift, root, index, element);
+
+			return this;
+		}
+
+		/**
+		 * Removes the last element of the list.
+		 *
+		 * @return this
+		 */
+		public Transient<T> removeLast() {
+			checkEditable();
+			if (count == 0)
+				return this;
+
+			int tailOffset = tailOffset(count);
+			if (count == 1 || count - tailOffset > 1) {
+				tail[--count & MASK] = null;
+				return this;
+			}
+
+			Object[] newTail = Arrays.copyOf(leaf(root, shift, count - 2), WIDTH);
+			Node newRoot = popTail(edit, count, shift, root);
+			if (newRoot == null)
+				newRoot = new Node(edit, new Object[WIDTH]);
+			if (shift > BITS && newRoot.array[1] == null) {
+				newRoot = editable(edit, (Node) newRoot.array[0]);
+				shift -= BITS;
+			}
+
+			root = newRoot;
+			tail = newTail;
+			count--;
+			return this;
+		}
+
+		/**
+		 * Returns a persistent list of the elements and ends the use of this transient list.
+		 *
+		 * @return the persistent list
+		 */
+		public PersistentAtoms<T> persistent() {
+			checkEditable();
+			edit = null;
+			return count == 0 ? empty() : new PersistentAtoms<>(count, shift, root, Arrays.copyOf(tail, count - tailOffset(count)));
+		}
+
+		private void checkEditable() {
+			if (edit == null)
+				throw new IllegalStateException("The transient list was already made persistent");
+		}
+	}
+}
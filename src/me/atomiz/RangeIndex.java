@@ -0,0 +1,314 @@
+package me.atomiz;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * An ordered index over a {@code double} key of each element, kept as a sorted key array and the positions of the
+ * elements in the same order. Keys are ordered like {@link Double#compare}, equal keys by position. {@code null}
+ * elements are not indexed.
+ * <p>
+ * Counting a range binary searches its bounds in O(log n), listing a range or the top elements takes O(log n + k).
+ * Appending an element with the largest key is O(1), any other modification moves the entries after it and inserting
+ * or removing before the last element also renumbers the positions after it.
+ *
+ * @param <T> the type
+ */
+class RangeIndex<T> implements AtomsIndex<T> {
+	private final static int RESIZE_THRESHOLD = 16;
+	private final ToDoubleFunction<? super T> key;
+	private double[] keys = new double[RESIZE_THRESHOLD];
+	private int[] positions = new int[RESIZE_THRESHOLD];
+	private int count = 0;
+	private int size = 0;
+
+	/**
+	 * Creates an index over the specified key.
+	 *
+	 * @param key the key of an element, never called with {@code null}
+	 */
+	public RangeIndex(ToDoubleFunction<? super T> key) {
+		this.key = Objects.requireNonNull(key);
+	}
+
+	// region queries
+
+	/**
+	 * Returns the amount of indexed elements.
+	 *
+	 * @return the amount
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the amount of elements with a key between the specified ones, both inclusive.
+	 *
+	 * @param lo the lowest key
+	 * @param hi the highest key
+	 * @return the amount
+	 */
+	public int count(double lo, double hi) {
+		return Math.max(0, upper(hi) - lower(lo));
+	}
+
+	/**
+	 * Returns the amount of elements with a key greater than the specified one.
+	 *
+	 * @param lo the key
+	 * @return the amount
+	 */
+	public int countAbove(double lo) {
+		return count - upper(lo);
+	}
+
+	/**
+	 * Returns the amount of elements with a key lower than the specified one.
+	 *
+	 * @param hi the key
+	 * @return the amount
+	 */
+	public int countBelow(double hi) {
+		return lower(hi);
+	}
+
+	/**
+	 * Returns the positions of the elements with a key between the specified ones, both inclusive, ordered by key.
+	 *
+	 * @param lo the lowest key
+	 * @param hi the highest key
+	 * @return the positions
+	 */
+	public int[] range(double lo, double hi) {
+		int from = lower(lo);
+		return Arrays.copyOfRange(positions, from, Math.max(from, upper(hi)));
+	}
+
+	/**
+	 * Returns the positions of the elements with a key greater than the specified one, ordered by key.
+	 *
+	 * @param lo the key
+	 * @return the positions
+	 */
+	public int[] above(double lo) {
+		return Arrays.copyOfRange(positions, upper(lo), count);
+	}
+
+	/**
+	 * Returns the positions of the elements with a key lower than the specified one, ordered by key.
+	 *
+	 * @param hi the key
+	 * @return the positions
+	 */
+	public int[] below(double hi) {
+		return Arrays.copyOfRange(positions, 0, lower(hi));
+	}
+
+	/**
+	 * Returns the positions of at most {@code k} elements with the greatest keys, the greatest first.
+	 *
+	 * @param k the amount
+	 * @return the positions
+	 */
+	public int[] top(int k) {
+		int[] top = new int[Math.min(Math.max(k, 0), count)];
+		for (int i = 0; i < top.length; i++)
+			top[i] = positions[count - 1 - i];
+
+		return top;
+	}
+
+	/**
+	 * Returns the positions of at most {@code k} elements with the lowest keys, the lowest first.
+	 *
+	 * @param k the amount
+	 * @return the positions
+	 */
+	public int[] bottom(int k) {
+		return Arrays.copyOf(positions, Math.min(Math.max(k, 0), count));
+	}
+
+	/**
+	 * Returns the lowest key or {@link Double#NaN} if no element is indexed.
+	 *
+	 * @return the lowest key
+	 */
+	public double min() {
+		return count == 0 ? Double.NaN : keys[0];
+	}
+
+	/**
+	 * Returns the greatest key or {@link Double#NaN} if no element is indexed.
+	 *
+	 * @return the greatest key
+	 */
+	public double max() {
+		return count == 0 ? Double.NaN : keys[count - 1];
+	}
+
+	/**
+	 * Returns the index of the first entry with a key greater than or equal to the specified one.
+	 */
+	private int lower(double k) {
+		int lo = 0, hi = count;
+		while (lo < hi) {
+			int mid = lo + hi >>> 1;
+			if (Double.compare(keys[mid], k) < 0)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+
+		return lo;
+	}
+
+	/**
+	 * Returns the index of the first entry with a key greater than the specified one.
+	 */
+	private int upper(double k) {
+		int lo = 0, hi = count;
+		while (lo < hi) {
+			int mid = lo + hi >>> 1;
+			if (Double.compare(keys[mid], k) <= 0)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+
+		return lo;
+	}
+
+	/**
+	 * Returns the index of the entry of the specified key and position.
+	 */
+	private int entry(double k, int position) {
+		int lo = lower(k), hi = upper(k);
+		while (lo < hi) {
+			int mid = lo + hi >>> 1;
+			if (positions[mid] < position)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+
+		return lo;
+	}
+
+	// endregion
+
+	// region maintenance
+
+	@Override
+	public void added(int index, T e) {
+		if (index < size)
+			shift(index, 1);
+
+		size++;
+		if (e != null)
+			insert(key.applyAsDouble(e), index);
+	}
+
+	@Override
+	public void removed(int index, T e) {
+		if (e != null)
+			delete(key.applyAsDouble(e), index);
+
+		size--;
+		if (index < size)
+			shift(index + 1, -1);
+	}
+
+	@Override
+	public void set(int index, T previous, T e) {
+		if (previous != null && e != null && Double.compare(key.applyAsDouble(previous), key.applyAsDouble(e)) == 0)
+			return;
+
+		if (previous != null)
+			delete(key.applyAsDouble(previous), index);
+		if (e != null)
+			insert(key.applyAsDouble(e), index);
+	}
+
+	@Override
+	public void rebuild(T[] atoms, int size) {
+		this.size = size;
+		count = 0;
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++)
+			if (atoms[i] != null)
+				order[count++] = i;
+
+		double[] byPosition = new double[size];
+		for (int i = 0; i < count; i++)
+			byPosition[order[i]] = key.applyAsDouble(atoms[order[i]]);
+
+		positions = sort(order, count, byPosition);
+		keys = new double[Math.max(positions.length, RESIZE_THRESHOLD)];
+		for (int i = 0; i < count; i++)
+			keys[i] = byPosition[positions[i]];
+
+		if (positions.length < RESIZE_THRESHOLD)
+			positions = Arrays.copyOf(positions, RESIZE_THRESHOLD);
+	}
+
+	@Override
+	public long bytes() {
+		return 48 + 16 + keys.length * 8L + 16 + positions.length * 4L;
+	}
+
+	private void insert(double k, int position) {
+		int i = entry(k, position);
+		if (count == keys.length) {
+			keys = Arrays.copyOf(keys, count << 1);
+			positions = Arrays.copyOf(positions, count << 1);
+		}
+
+		System.arraycopy(keys, i, keys, i + 1, count - i);
+		System.arraycopy(positions, i, positions, i + 1, count - i);
+		keys[i] = k;
+		positions[i] = position;
+		count++;
+	}
+
+	private void delete(double k, int position) {
+		int i = entry(k, position);
+		System.arraycopy(keys, i + 1, keys, i, count - i - 1);
+		System.arraycopy(positions, i + 1, positions, i, count - i - 1);
+		count--;
+	}
+
+	private void shift(int from, int delta) {
+		for (int i = 0; i < count; i++)
+			if (positions[i] >= from)
+				positions[i] += delta;
+	}
+
+	/**
+	 * Stable merge sort of the ascending positions by their keys, so equal keys stay ordered by position.
+	 */
+	private static int[] sort(int[] order, int n, double[] keys) {
+		int[] a = Arrays.copyOf(order, n), b = new int[n];
+		for (int width = 1; width < n; width <<= 1) {
+			for (int lo = 0; lo < n; lo += width << 1) {
+				int mid = Math.min(lo + width, n), hi = Math.min(lo + (width << 1), n);
+				int i = lo, j = mid, w = lo;
+				while (i < mid && j < hi)
+					b[w++] = Double.compare(keys[a[j]], keys[a[i]]) < 0 ? a[j++] : a[i++];
+				while (i < mid)
+					b[w++] = a[i++];
+				while (j < hi)
+					b[w++] = a[j++];
+			}
+
+			int[] t = a;
+			a = b;
+			b = t;
+		}
+
+		return a;
+	}
+
+	// endregion
+}
@@ -0,0 +1,469 @@
+package me.atomiz;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A list keeping its elements ordered by a {@link Comparator} or an {@code int} key, such as {@code a -> a.number}.
+ * Equal elements keep the order they were added in.
+ * <p>
+ * Lookups binary search the elements in O(log n). Adding an element binary searches its position and shifts the
+ * elements after it, adding many elements sorts them once and merges them in a single pass. Elements can not be set
+ * at an index, since that could break the order.
+ *
+ * @param <T> the type
+ */
+class SortedAtoms<T> {
+	private final Comparator<? super T> comparator;
+	private final ToIntFunction<? super T> key;
+	private T[] atoms = (T[]) new Object[0];
+	private int size = 0;
+	private GrowthPolicy growth = GrowthPolicy.DEFAULT;
+
+	/**
+	 * Creates an empty list ordered by the specified comparator.
+	 *
+	 * @param comparator the order
+	 */
+	public SortedAtoms(Comparator<? super T> comparator) {
+		this.comparator = Objects.requireNonNull(comparator);
+		key = null;
+	}
+
+	/**
+	 * Creates an empty list ordered by the specified key, which also allows the lookups by key.
+	 *
+	 * @param key the key
+	 */
+	public SortedAtoms(ToIntFunction<? super T> key) {
+		this.key = Objects.requireNonNull(key);
+		comparator = Comparator.comparingInt(key);
+	}
+
+	// region base
+
+	/**
+	 * Returns the amount of occurrences of the specified element in the list.
+	 *
+	 * @param e the element to count
+	 * @return the amount
+	 */
+	public int count(T e) {
+		int count = 0;
+		for (int i = lower(e), end = upper(e); i < end; i++)
+			if (Objects.equals(atoms[i], e))
+				count++;
+
+		return count;
+	}
+
+	/**
+	 * Returns the amount of elements meeting the filter.
+	 *
+	 * @param filter the filter to test for
+	 * @return the amount
+	 */
+	public int countIf(Predicate<T> filter) {
+		Objects.requireNonNull(filter);
+		int count = 0;
+		for (int i = 0; i < size; i++)
+			if (filter.test(atoms[i]))
+				count++;
+
+		return count;
+	}
+
+	/**
+	 * Checks whether the list contains the specified element.
+	 *
+	 * @param e the element
+	 * @return {@code true} if the list contains the specified element
+	 */
+	public boolean contains(T e) {
+		return indexOf(e) != -1;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the specified element in the list or -1 if the list does not contain
+	 * the element. Only the elements comparing equal to it are checked.
+	 *
+	 * @param e the element
+	 * @return the index of the element or -1
+	 */
+	public int indexOf(T e) {
+		for (int i = lower(e), end = upper(e); i < end; i++)
+			if (Objects.equals(atoms[i], e))
+				return i;
+
+		return -1;
+	}
+
+	/**
+	 * Returns the element located at the specified index in the list.
+	 *
+	 * @param i the index
+	 * @return the element
+	 */
+	public T get(int i) {
+		return atoms[Objects.checkIndex(i, size)];
+	}
+
+	/**
+	 * Returns the amount of elements stored in the list.
+	 *
+	 * @return the list size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if the list has no elements.
+	 *
+	 * @return {@code true} if the list has no elements
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Clears the list.
+	 */
+	public void clear() {
+		Arrays.fill(atoms, 0, size, null);
+		size = 0;
+		resize(0);
+	}
+
+	/**
+	 * Performs an action on each element in order.
+	 *
+	 * @param action the action
+	 */
+	public void forEach(Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		for (int i = 0; i < size; i++)
+			action.accept(atoms[i]);
+	}
+
+	/**
+	 * Copies the elements in order into a new {@link Atoms} list.
+	 *
+	 * @return the list
+	 */
+	public Atoms<T> toAtoms() {
+		return new Atoms<>(Arrays.copyOf(atoms, size));
+	}
+
+	/**
+	 * Returns the order of the list.
+	 *
+	 * @return the comparator
+	 */
+	public Comparator<? super T> comparator() {
+		return comparator;
+	}
+
+	// endregion
+
+	// region lookup
+
+	/**
+	 * Returns the first element comparing equal to the specified one or {@code null} if there is none.
+	 *
+	 * @param probe the element to compare to
+	 * @return the element or {@code null}
+	 */
+	public T find(T probe) {
+		int i = lower(probe);
+		return i < size && comparator.compare(atoms[i], probe) == 0 ? atoms[i] : null;
+	}
+
+	/**
+	 * Returns the last element ordered before or equal to the specified one or {@code null} if there is none.
+	 *
+	 * @param probe the element to compare to
+	 * @return the element or {@code null}
+	 */
+	public T floor(T probe) {
+		int i = upper(probe);
+		return i == 0 ? null : atoms[i - 1];
+	}
+
+	/**
+	 * Returns the first element ordered after or equal to the specified one or {@code null} if there is none.
+	 *
+	 * @param probe the element to compare to
+	 * @return the element or {@code null}
+	 */
+	public T ceiling(T probe) {
+		int i = lower(probe);
+		return i == size ? null : atoms[i];
+	}
+
+	/**
+	 * Copies the elements ordered between the specified ones, both inclusive, into a new {@link Atoms} list.
+	 *
+	 * @param lo the lowest element
+	 * @param hi the highest element
+	 * @return the list
+	 */
+	public Atoms<T> rangeBetween(T lo, T hi) {
+		return range(lower(lo), upper(hi));
+	}
+
+	/**
+	 * Returns the first element with the specified key or {@code null} if there is none.
+	 *
+	 * @param k the key
+	 * @return the element or {@code null}
+	 * @throws IllegalStateException if the list is not ordered by a key
+	 */
+	public T find(int k) {
+		int i = lower(k);
+		return i < size && key.applyAsInt(atoms[i]) == k ? atoms[i] : null;
+	}
+
+	/**
+	 * Returns the last element with a key lower than or equal to the specified one or {@code null} if there is none.
+	 *
+	 * @param k the key
+	 * @return the element or {@code null}
+	 * @throws IllegalStateException if the list is not ordered by a key
+	 */
+	public T floor(int k) {
+		int i = upper(k);
+		return i == 0 ? null : atoms[i - 1];
+	}
+
+	/**
+	 * Returns the first element with a key greater than or equal to the specified one or {@code null} if there is none.
+	 *
+	 * @param k the key
+	 * @return the element or {@code null}
+	 * @throws IllegalStateException if the list is not ordered by a key
+	 */
+	public T ceiling(int k) {
+		int i = lower(k);
+		return i == size ? null : atoms[i];
+	}
+
+	/**
+	 * Copies the elements with keys between the specified ones, both inclusive, into a new {@link Atoms} list.
+	 *
+	 * @param lo the lowest key
+	 * @param hi the highest key
+	 * @return the list
+	 * @throws IllegalStateException if the list is not ordered by a key
+	 */
+	public Atoms<T> rangeBetween(int lo, int hi) {
+		return range(lower(lo), upper(hi));
+	}
+
+	private Atoms<T> range(int from, int to) {
+		return new Atoms<>(Arrays.copyOfRange(atoms, from, Math.max(from, to)));
+	}
+
+	/**
+	 * Returns the index of the first element ordered after or equal to the specified one.
+	 */
+	private int lower(T probe) {
+		int lo = 0, hi = size;
+		while (lo < hi) {
+			int mid = lo + hi >>> 1;
+			if (comparator.compare(atoms[mid], probe) < 0)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+
+		return lo;
+	}
+
+	/**
+	 * Returns the index of the first element ordered after the specified one.
+	 */
+	private int upper(T probe) {
+		int lo = 0, hi = size;
+		while (lo < hi) {
+			int mid = lo + hi >>> 1;
+			if (comparator.compare(atoms[mid], probe) <= 0)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+
+		return lo;
+	}
+
+	private int lower(int k) {
+		checkKeyed();
+		int lo = 0, hi = size;
+		while (lo < hi) {
+			int mid = lo + hi >>> 1;
+			if (key.applyAsInt(atoms[mid]) < k)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+
+		return lo;
+	}
+
+	private int upper(int k) {
+		checkKeyed();
+		int lo = 0, hi = size;
+		while (lo < hi) {
+			int mid = lo + hi >>> 1;
+			if (key.applyAsInt(atoms[mid]) <= k)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+
+		return lo;
+	}
+
+	private void checkKeyed() {
+		if (key == null)
+			throw new IllegalStateException("The list is not ordered by a key");
+	}
+
+	// endregion
+
+	// region add
+
+	/**
+	 * Adds the specified element after the elements ordered before or equal to it.
+	 *
+	 * @param e the element
+	 * @return the index of the added element
+	 */
+	public int add(T e) {
+		int i = upper(e);
+		resize(1);
+		System.arraycopy(atoms, i, atoms, i + 1, size - i);
+		atoms[i] = e;
+		size++;
+		return i;
+	}
+
+	/**
+	 * Adds the elements of the specified {@link Arrays Array} to the list. The elements are sorted once and merged with
+	 * the list, which grows at most once.
+	 *
+	 * @param e the {@link Arrays array} of elements
+	 */
+	public void addAll(T[] e) {
+		T[] sorted = e.clone();
+		Arrays.sort(sorted, comparator);
+		merge(sorted);
+	}
+
+	/**
+	 * Adds the elements of the specified {@link Collection} to the list. The elements are sorted once and merged with the
+	 * list, which grows at most once.
+	 *
+	 * @param e the {@link Collection Collection}
+	 */
+	public void addAll(Collection<T> e) {
+		T[] sorted = (T[]) e.toArray();
+		Arrays.sort(sorted, comparator);
+		merge(sorted);
+	}
+
+	/**
+	 * Merges the sorted elements into the list from the back, so the list needs no second array. Elements of the list go
+	 * before equal added ones.
+	 */
+	private void merge(T[] sorted) {
+		int n = sorted.length;
+		resize(n);
+
+		int i = size - 1, j = n - 1;
+		for (int w = size + n - 1; j >= 0; w--)
+			atoms[w] = i >= 0 && comparator.compare(atoms[i], sorted[j]) > 0 ? atoms[i--] : sorted[j--];
+
+		size += n;
+	}
+
+	// endregion
+
+	// region remove
+
+	/**
+	 * Removes the element at the specified index.
+	 *
+	 * @param index the index
+	 * @return the removed element
+	 */
+	public T removeAt(int index) {
+		T prev = get(index);
+		System.arraycopy(atoms, index + 1, atoms, index, size - index - 1);
+		atoms[--size] = null;
+		resize(0);
+		return prev;
+	}
+
+	/**
+	 * Removes the first occurrence of the specified element from the list.
+	 *
+	 * @param e the element
+	 * @return {@code true} if the element was removed
+	 */
+	public boolean remove(T e) {
+		int i = indexOf(e);
+		if (i == -1)
+			return false;
+
+		removeAt(i);
+		return true;
+	}
+
+	/**
+	 * Removes all elements matching the specified condition. The remaining elements keep their order.
+	 *
+	 * @param filter the condition
+	 * @return the amount of removed elements
+	 */
+	public int removeIf(Predicate<T> filter) {
+		Objects.requireNonNull(filter);
+		int w = 0;
+		for (int r = 0; r < size; r++)
+			if (!filter.test(atoms[r]))
+				atoms[w++] = atoms[r];
+
+		int removed = size - w;
+		Arrays.fill(atoms, w, size, null);
+		size = w;
+		resize(0);
+		return removed;
+	}
+
+	// endregion
+
+	/**
+	 * Grows the array to fit {@code amount} more elements or shrinks it according to the {@link GrowthPolicy} when the
+	 * amount is 0.
+	 */
+	private void resize(int amount) {
+		if (amount > 0) {
+			if (size + amount > atoms.length)
+				atoms = Arrays.copyOf(atoms, growth.grow(atoms.length, size + amount));
+		} else {
+			int capacity = growth.shrink(atoms.length, size);
+			if (capacity < atoms.length)
+				atoms = Arrays.copyOf(atoms, capacity);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(atoms, size));
+	}
+}
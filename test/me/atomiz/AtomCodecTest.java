@@ -0,0 +1,91 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomCodecTest {
+
+	private static Atoms<Atom> sample() {
+		Atoms<Atom> atoms = new Atoms<>();
+		for (int i = 0; i < 1_000; i++)
+			atoms.add(new Atom("atom" + i % 17, i - 500, AtomicState.values()[i % 5], i * 0.5, -i, Double.NaN));
+
+		atoms.add(null);
+		atoms.add(new Atom(null, Integer.MIN_VALUE, null, 0, 0, 0));
+		atoms.add(new Atom("\u00e4" + "x".repeat(100_000), Integer.MAX_VALUE, AtomicState.PLASMA, 1, 2, 3));
+		return atoms;
+	}
+
+	private static void assertSameAtoms(Atoms<Atom> expected, Atoms<Atom> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++)
+			assertEquals(expected.get(i), actual.get(i));
+	}
+
+	private static byte[] encode(Atoms<Atom> atoms) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		AtomCodec.write(atoms, new DataOutputStream(bytes));
+		return bytes.toByteArray();
+	}
+
+	@Test
+	void streamsAndChannelsRoundTrip() throws IOException {
+		Atoms<Atom> atoms = sample();
+		byte[] stream = encode(atoms);
+
+		ByteArrayOutputStream channel = new ByteArrayOutputStream();
+		AtomCodec.write(atoms, Channels.newChannel(channel));
+		assertArrayEquals(stream, channel.toByteArray());
+
+		assertSameAtoms(atoms, AtomCodec.read(new DataInputStream(new ByteArrayInputStream(stream))));
+		assertSameAtoms(atoms, AtomCodec.read(Channels.newChannel(new ByteArrayInputStream(stream))));
+		assertSameAtoms(new Atoms<>(), AtomCodec.read(new DataInputStream(new ByteArrayInputStream(encode(new Atoms<>())))));
+	}
+
+	@Test
+	void repeatedNamesAreWrittenOnce() throws IOException {
+		Atoms<Atom> atoms = new Atoms<>();
+		for (int i = 0; i < 100; i++)
+			atoms.add(new Atom("a rather long repeated name"));
+
+		assertTrue(encode(atoms).length < 100 * 30);
+	}
+
+	@Test
+	void corruptedStreamsFailWithAnIOException() throws IOException {
+		byte[] valid = encode(new Atoms<>(new Atom[]{ new Atom("iron") }));
+
+		assertCorrupted(valid, 0, 0);
+		assertCorrupted(valid, 4, 9);
+		assertCorrupted(valid, 6, 7);
+		assertCorrupted(valid, 7, 5);
+		assertCorrupted(Arrays.copyOf(valid, valid.length - 3));
+
+		// a name length of -1 and of 2^28 followed by 4 bytes
+		byte[] prefix = Arrays.copyOf(valid, 8);
+		assertCorrupted(concat(prefix, new byte[]{ (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f }));
+		assertCorrupted(concat(prefix, new byte[]{ (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01, 1, 2, 3, 4 }));
+	}
+
+	private static byte[] concat(byte[] a, byte[] b) {
+		byte[] c = Arrays.copyOf(a, a.length + b.length);
+		System.arraycopy(b, 0, c, a.length, b.length);
+		return c;
+	}
+
+	private static void assertCorrupted(byte[] valid, int index, int value) {
+		byte[] bytes = valid.clone();
+		bytes[index] = (byte) value;
+		assertCorrupted(bytes);
+	}
+
+	private static void assertCorrupted(byte[] bytes) {
+		assertThrows(IOException.class, () -> AtomCodec.read(new DataInputStream(new ByteArrayInputStream(bytes))));
+		assertThrows(IOException.class, () -> AtomCodec.read(Channels.newChannel(new ByteArrayInputStream(bytes))));
+	}
+}
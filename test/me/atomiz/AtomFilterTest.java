@@ -0,0 +1,98 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import me.atomiz.AtomFilter.Column;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomFilterTest {
+	private final static double[] VALUES = { Double.NEGATIVE_INFINITY, -7.5, -0.0, 0, Double.MIN_VALUE, 1, 2.5, 100,
+			Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN };
+	private final static int[] NUMBERS = { Integer.MIN_VALUE, -1, 0, 1, 2, 50, Integer.MAX_VALUE };
+	private final static AtomicState[] STATES = { AtomicState.GAS, AtomicState.SOLID, AtomicState.PLASMA, null };
+
+	private static AtomTable table(Random random, int size) {
+		AtomTable table = new AtomTable();
+		for (int i = 0; i < size; i++)
+			table.add("a" + i, NUMBERS[random.nextInt(NUMBERS.length)], STATES[random.nextInt(STATES.length)],
+					VALUES[random.nextInt(VALUES.length)], VALUES[random.nextInt(VALUES.length)], VALUES[random.nextInt(VALUES.length)]);
+
+		return table;
+	}
+
+	private static void assertMatches(AtomTable table, AtomFilter filter, Predicate<Atom> expected, String message) {
+		int[] rows = IntStream.range(0, table.size()).filter(i -> expected.test(table.get(i))).toArray();
+		assertArrayEquals(rows, filter.select(table), message);
+		assertEquals(rows.length, filter.count(table), message);
+	}
+
+	@Test
+	void scansMatchTheComparisonsOfEveryRow() {
+		Random random = new Random(20);
+		for (int size : new int[] { 0, 1, 63, 64, 65, 130, 1_000 }) {
+			AtomTable table = table(random, size);
+
+			for (double lo : VALUES)
+				for (double hi : VALUES) {
+					assertMatches(table, AtomFilter.between(Column.MASS, lo, hi), a -> lo <= a.mass && a.mass <= hi, lo + ".." + hi);
+					assertMatches(table, AtomFilter.between(Column.MELTING_POINT, lo, hi), a -> lo <= a.meltingPoint && a.meltingPoint <= hi, lo + ".." + hi);
+				}
+
+			for (double v : VALUES) {
+				if (Double.isNaN(v))
+					continue;
+
+				assertMatches(table, AtomFilter.above(Column.DENSITY, v), a -> a.density > v, "above " + v);
+				assertMatches(table, AtomFilter.below(Column.DENSITY, v), a -> a.density < v, "below " + v);
+			}
+
+			for (int lo : NUMBERS)
+				for (int hi : NUMBERS)
+					assertMatches(table, AtomFilter.numberBetween(lo, hi), a -> lo <= a.number && a.number <= hi, lo + ".." + hi);
+
+			for (AtomicState s : STATES)
+				assertMatches(table, AtomFilter.state(s), a -> a.state == s, String.valueOf(s));
+		}
+	}
+
+	@Test
+	void combinedFiltersMatchTheCombinedConditions() {
+		Random random = new Random(21);
+		for (int size : new int[] { 0, 1, 63, 64, 65, 130, 1_000 }) {
+			AtomTable table = table(random, size);
+			AtomFilter gas = AtomFilter.state(AtomicState.GAS);
+			AtomFilter light = AtomFilter.below(Column.MASS, 2);
+			AtomFilter positive = AtomFilter.numberBetween(1, Integer.MAX_VALUE);
+
+			assertMatches(table, gas.and(light), a -> a.state == AtomicState.GAS && a.mass < 2, "and");
+			assertMatches(table, gas.or(light), a -> a.state == AtomicState.GAS || a.mass < 2, "or");
+			assertMatches(table, light.negate(), a -> !(a.mass < 2), "negate");
+			assertMatches(table, gas.or(light).negate().and(positive), a -> a.state != AtomicState.GAS && !(a.mass < 2) && a.number > 0, "nested");
+			assertMatches(table, AtomFilter.none(), a -> false, "none");
+			assertMatches(table, AtomFilter.none().negate(), a -> true, "all");
+		}
+	}
+
+	@Test
+	void evaluateOverwritesAReusedMask() {
+		AtomTable table = table(new Random(22), 100);
+		long[] mask = new long[AtomFilter.words(table.size())];
+		Arrays.fill(mask, -1L);
+
+		AtomFilter.none().evaluate(table, mask);
+		assertArrayEquals(new long[mask.length], mask);
+
+		AtomFilter.none().negate().evaluate(table, mask);
+		assertEquals(-1L, mask[0]);
+		assertEquals((1L << 36) - 1, mask[1]);
+		assertEquals(0, AtomFilter.words(0));
+		assertEquals(1, AtomFilter.words(64));
+		assertEquals(2, AtomFilter.words(65));
+	}
+}
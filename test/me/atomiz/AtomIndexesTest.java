@@ -0,0 +1,131 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomIndexesTest {
+	private final static String[] NAMES = { "hydrogen", "helium", "lithium", null };
+
+	private static Atom atom(Random random) {
+		int number = random.nextInt(10);
+		return new Atom(NAMES[random.nextInt(NAMES.length)], number, AtomicState.values()[random.nextInt(5)], number, number, number);
+	}
+
+	private static int[] positions(Atoms<Atom> atoms, Predicate<Atom> filter) {
+		List<Integer> positions = new ArrayList<>();
+		for (int i = 0; i < atoms.size(); i++)
+			if (filter.test(atoms.get(i)))
+				positions.add(i);
+
+		return positions.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static void assertIndexed(Atoms<Atom> atoms, AtomIndexes indexes) {
+		for (AtomicState s : AtomicState.values()) {
+			int[] expected = positions(atoms, a -> a.state == s);
+			assertArrayEquals(expected, indexes.withState(s), s.name());
+			assertEquals(expected.length, indexes.countState(s));
+		}
+
+		for (String n : NAMES) {
+			int[] expected = positions(atoms, a -> Objects.equals(a.name, n));
+			assertArrayEquals(expected, indexes.withName(n), n);
+			assertEquals(expected.length, indexes.countName(n));
+			assertEquals(expected.length == 0 ? -1 : expected[0], indexes.firstWithName(n));
+		}
+
+		for (int n = -1; n <= 10; n++) {
+			int number = n;
+			int[] expected = positions(atoms, a -> a.number == number);
+			assertArrayEquals(expected, indexes.withNumber(n), "number " + n);
+			assertEquals(expected.length, indexes.countNumber(n));
+			assertEquals(expected.length == 0 ? -1 : expected[0], indexes.firstWithNumber(n));
+		}
+	}
+
+	@Test
+	void indexesFollowRandomEdits() {
+		Random random = new Random(18);
+		Atoms<Atom> atoms = new Atoms<>();
+		for (int i = 0; i < 100; i++)
+			atoms.add(atom(random));
+
+		AtomIndexes indexes = new AtomIndexes(atoms).byState().byName().byNumber();
+		assertIndexed(atoms, indexes);
+
+		for (int op = 0; op < 3_000; op++) {
+			switch (random.nextInt(7)) {
+				case 0 -> atoms.add(atom(random));
+				case 1 -> atoms.add(random.nextInt(atoms.size() + 1), atom(random));
+				case 2 -> {
+					if (!atoms.isEmpty())
+						atoms.set(random.nextInt(atoms.size()), atom(random));
+				}
+				case 3 -> {
+					if (!atoms.isEmpty())
+						atoms.remove(atoms.get(random.nextInt(atoms.size())));
+				}
+				case 4 -> atoms.removeLast();
+				case 5 -> {
+					if (random.nextInt(20) == 0)
+						atoms.removeIf(a -> a.number == 3);
+				}
+				default -> atoms.addAll(new Atom[] { atom(random), atom(random) });
+			}
+
+			if (op % 50 == 0)
+				assertIndexed(atoms, indexes);
+		}
+		assertIndexed(atoms, indexes);
+
+		atoms.clear();
+		assertIndexed(atoms, indexes);
+	}
+
+	@Test
+	void selectCopiesTheQueriedElements() {
+		Atom gas = new Atom("neon", 10, AtomicState.GAS, 20.18, 0.0009, -248.6);
+		Atom solid = new Atom("iron", 26, AtomicState.SOLID, 55.85, 7.87, 1538);
+		Atoms<Atom> atoms = new Atoms<>(new Atom[] { solid, gas, solid });
+		AtomIndexes indexes = new AtomIndexes(atoms).byState();
+
+		assertEquals("[" + solid + ", " + solid + "]", indexes.select(indexes.withState(AtomicState.SOLID)).toString());
+		assertEquals(0, indexes.select(indexes.withState(AtomicState.PLASMA)).size());
+	}
+
+	@Test
+	void undeclaredAndDroppedIndexesThrow() {
+		Atoms<Atom> atoms = new Atoms<>();
+		AtomIndexes indexes = new AtomIndexes(atoms).byName();
+
+		assertThrows(IllegalStateException.class, () -> indexes.countState(AtomicState.GAS));
+		assertThrows(IllegalStateException.class, () -> indexes.withNumber(1));
+		assertThrows(IllegalStateException.class, indexes::mass);
+		assertEquals(0, indexes.countName("helium"));
+		assertTrue(indexes.bytes() > 0);
+
+		indexes.drop();
+		assertEquals(0, indexes.bytes());
+		assertEquals(0, atoms.indexBytes());
+		assertThrows(IllegalStateException.class, () -> indexes.countName("helium"));
+	}
+
+	@Test
+	void viewsAndBuiltListsRejectIndexes() {
+		Atoms<Atom> atoms = new Atoms<>(new Atom[] { new Atom("a"), new Atom("b"), new Atom("c") });
+		Atoms<Atom> view = atoms.subList(1, 3);
+		Atoms<Atom> built = new AtomsBuilder<>(new Atom[] { new Atom("a") }).build();
+
+		assertThrows(UnsupportedOperationException.class, () -> new AtomIndexes(view).byName());
+		assertThrows(UnsupportedOperationException.class, () -> new AtomIndexes(built).byState());
+		assertThrows(UnsupportedOperationException.class, () -> view.setIndexed(true));
+		assertEquals(0, atoms.indexBytes());
+	}
+}
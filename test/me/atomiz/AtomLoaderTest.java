@@ -0,0 +1,93 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomLoaderTest {
+	@TempDir
+	Path dir;
+
+	private static Atoms<Atom> load(String text) throws IOException {
+		Atoms<Atom> atoms = new Atoms<>();
+		AtomLoader.load(Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))), atoms);
+		return atoms;
+	}
+
+	@Test
+	void rowsAreParsed() throws IOException {
+		Atoms<Atom> atoms = load("name,number,state,mass,density,meltingPoint\r\n"
+				+ "hydrogen,1,gas,1.008,0.00008988,13.99\n"
+				+ "\n"
+				+ ",-2,,1e3,-0.5,+7\n"
+				+ "\u00e4ther,+3,Plasma,12345678901234567890.5,.25,3.");
+
+		assertEquals(3, atoms.size());
+		assertEquals(new Atom("hydrogen", 1, AtomicState.GAS, 1.008, 0.00008988, 13.99), atoms.get(0));
+		assertEquals(new Atom(null, -2, AtomicState.UNKNOWN, 1000, -0.5, 7), atoms.get(1));
+		assertEquals(new Atom("\u00e4ther", 3, AtomicState.PLASMA, 12345678901234567890.5, 0.25, 3), atoms.get(2));
+	}
+
+	@Test
+	void largeFilesMatchTheirRows() throws IOException {
+		Random random = new Random(6);
+		StringBuilder text = new StringBuilder();
+		Atoms<Atom> expected = new Atoms<>();
+		for (int i = 0; i < 20_000; i++) {
+			Atom atom = new Atom("atom" + random.nextInt(3_000), random.nextInt(), AtomicState.values()[random.nextInt(5)],
+					random.nextInt(1_000_000) / 1000.0, random.nextDouble(), random.nextInt(5_000) / 8.0);
+			expected.add(atom);
+			text.append(atom.name).append(',').append(atom.number).append(',').append(atom.state).append(',')
+					.append(atom.mass).append(',').append(atom.density).append(',').append(atom.meltingPoint).append('\n');
+		}
+
+		Path path = dir.resolve("atoms.csv");
+		Files.writeString(path, text);
+		Atoms<Atom> atoms = new Atoms<>();
+		atoms.add(null);
+		assertEquals(expected.size(), AtomLoader.load(path, atoms));
+
+		assertEquals(expected.size() + 1, atoms.size());
+		for (int i = 0; i < expected.size(); i++)
+			assertEquals(expected.get(i), atoms.get(i + 1));
+	}
+
+	@Test
+	void repeatedNamesShareOneString() throws IOException {
+		Atoms<Atom> atoms = load("iron,26,solid,1,1,1\niron,26,solid,2,2,2\n");
+
+		assertSame(atoms.get(0).name, atoms.get(1).name);
+	}
+
+	@Test
+	void longLinesGrowTheBuffer() throws IOException {
+		String name = "x".repeat(200_000);
+		Atoms<Atom> atoms = load("a,1,solid,1,1,1\n" + name + ",2,liquid,2,2,2\n");
+
+		assertEquals(name, atoms.get(1).name);
+	}
+
+	@Test
+	void malformedRowsNameTheirLine() {
+		assertMalformed("a,1,gas,1,1\n", 1);
+		assertMalformed("a,1,gas,1,1,1\nb,x,gas,1,1,1\n", 2);
+		assertMalformed("a,1,gas,1,1,1\nb,99999999999,gas,1,1,1\n", 2);
+		assertMalformed("a,1,vapour,1,1,1\n", 1);
+		assertMalformed("a,1,gas,1,one,1\n", 1);
+		assertMalformed("a,1,gas,1,1,1,1\n", 1);
+	}
+
+	private static void assertMalformed(String text, int line) {
+		IOException e = assertThrows(IOException.class, () -> load(text));
+		assertTrue(e.getMessage().contains("line " + line), e.getMessage());
+	}
+}
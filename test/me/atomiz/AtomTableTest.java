@@ -0,0 +1,76 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomTableTest {
+
+	private static Atoms<Atom> sample() {
+		return new Atoms<>(new Atom[]{
+				new Atom("hydrogen", 1, AtomicState.GAS, 1.008, 0.00008988, 13.99),
+				new Atom("iron", 26, AtomicState.SOLID, 55.845, 7.874, 1811),
+				new Atom("mercury", 80, AtomicState.LIQUID, 200.59, 13.534, 234.32),
+				new Atom(null, 0, null, 0, 0, 0)
+		});
+	}
+
+	@Test
+	void rowsRoundTripThroughTheColumns() {
+		Atoms<Atom> atoms = sample();
+		AtomTable table = AtomTable.of(atoms);
+
+		assertEquals(atoms.size(), table.size());
+		for (int i = 0; i < atoms.size(); i++)
+			assertEquals(atoms.get(i), table.get(i));
+
+		assertEquals("iron", table.name(1));
+		assertEquals(26, table.number(1));
+		assertEquals(AtomicState.LIQUID, table.state(2));
+		assertNull(table.name(3));
+		assertNull(table.state(3));
+		assertEquals(atoms.get(2), table.toAtoms().get(2));
+	}
+
+	@Test
+	void countIfReadsOnlyTheColumns() {
+		AtomTable table = AtomTable.of(sample());
+
+		assertEquals(2, table.countIf(i -> table.mass(i) > 50));
+		assertEquals(2, table.countAtomsIf(a -> a.mass > 50));
+	}
+
+	@Test
+	void setAndRemoveKeepTheColumnsAligned() {
+		AtomTable table = AtomTable.of(sample());
+		Atom gold = new Atom("gold", 79, AtomicState.SOLID, 196.97, 19.3, 1337.33);
+
+		assertEquals("iron", table.set(1, gold).name);
+		assertEquals(gold, table.get(1));
+
+		table.remove(0);
+		assertEquals(3, table.size());
+		assertEquals(gold, table.get(0));
+		assertEquals("mercury", table.name(1));
+
+		table.removeLast();
+		table.add("iron", 26, AtomicState.SOLID, 55.845, 7.874, 1811);
+		assertEquals("iron", table.name(2));
+		assertThrows(IndexOutOfBoundsException.class, () -> table.get(3));
+
+		table.clear();
+		assertTrue(table.isEmpty());
+	}
+
+	@Test
+	void namesAreStoredOnce() {
+		AtomTable table = new AtomTable();
+		table.add(new Atom("iron"));
+		long one = table.bytes();
+		for (int i = 0; i < 9; i++)
+			table.add(new Atom("iron"));
+
+		assertEquals(10, table.size());
+		assertEquals(one, table.bytes());
+	}
+}
@@ -0,0 +1,78 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomValueTest {
+
+	@Test
+	void equalValuesAreTheSameInstance() {
+		AtomValue iron = Atom.of("iron", 26, AtomicState.SOLID, 55.845, 7.874, 1811);
+
+		assertSame(iron, Atom.of("iron", 26, AtomicState.SOLID, 55.845, 7.874, 1811));
+		assertSame(iron, new Atom("iron", 26, AtomicState.SOLID, 55.845, 7.874, 1811).intern());
+		assertNotSame(iron, Atom.of("iron", 26, AtomicState.LIQUID, 55.845, 7.874, 1811));
+		assertSame(Atom.of("x"), Atom.of("x"));
+	}
+
+	@Test
+	void hashMatchesTheMutableAtom() {
+		Atom atom = new Atom("gold", 79, AtomicState.SOLID, 196.97, 19.3, 1337.33);
+		AtomValue value = atom.intern();
+
+		assertEquals(atom.hashCode(), value.hashCode());
+		assertEquals(Objects.hash(atom.name, atom.number, atom.state, atom.mass, atom.density, atom.meltingPoint), atom.hashCode());
+		assertEquals(atom, value.toAtom());
+		assertNotEquals(atom, value);
+	}
+
+	@Test
+	void editingTheSourceAtomLeavesTheValueUnchanged() {
+		Atom atom = new Atom("neon", 10, AtomicState.GAS, 20.18, 0.0009, 24.56);
+		AtomValue value = atom.intern();
+		int hash = value.hashCode();
+
+		atom.name = "edited";
+		value.toAtom().name = "edited";
+
+		assertEquals("neon", value.name());
+		assertEquals(hash, value.hashCode());
+		assertSame(value, Atom.of("neon", 10, AtomicState.GAS, 20.18, 0.0009, 24.56));
+		assertNotSame(value, atom.intern());
+	}
+
+	@Test
+	void liveValuesStayPooledWhileThePoolGrows() {
+		List<AtomValue> values = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++)
+			values.add(Atom.of("grown" + i, i, AtomicState.GAS, i, i, i));
+
+		for (int i = 0; i < 5_000; i++)
+			assertSame(values.get(i), Atom.of("grown" + i, i, AtomicState.GAS, i, i, i));
+		assertTrue(AtomValue.pooled() >= 5_000);
+	}
+
+	@Test
+	void pooledLookupsDoNotAllocate() {
+		AtomValue iron = Atom.of("iron", 26, AtomicState.SOLID, 55.845, 7.874, 1811);
+		AtomsTest.assertAllocationFree(() -> assertSame(iron, Atom.of("iron", 26, AtomicState.SOLID, 55.845, 7.874, 1811)), "of");
+	}
+
+	@Test
+	void unusedValuesLeaveThePool() throws InterruptedException {
+		for (int i = 0; i < 10_000; i++)
+			Atom.of("transient" + i);
+
+		for (int i = 0; i < 50 && AtomValue.pooled() >= 10_000; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertTrue(AtomValue.pooled() < 10_000);
+	}
+}
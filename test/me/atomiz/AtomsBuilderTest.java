@@ -0,0 +1,238 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomsBuilderTest {
+
+	// region remove
+
+	@Test
+	void removeIfAndRemoveAllCompactInOnePass() {
+		AtomsBuilder<Integer> builder = new AtomsBuilder<>(new Integer[]{ 1, 2, 2, 3, 2, 4 });
+
+		assertSame(builder, builder.removeAll(2));
+		assertEquals(List.of(1, 3, 4), builder.stream().toList());
+		builder.removeIf(e -> e > 2);
+		assertEquals(List.of(1), builder.stream().toList());
+	}
+
+	@Test
+	void throwingFilterLeavesTheBuilderUnchanged() {
+		AtomsBuilder<Integer> builder = new AtomsBuilder<>(new Integer[]{ 1, 2, 3, 4, 5, 6, 7 });
+
+		assertThrows(IllegalStateException.class, () -> builder.removeIf(e -> {
+			if (e == 5)
+				throw new IllegalStateException();
+			return e % 2 == 0;
+		}));
+		assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), builder.stream().toList());
+		assertEquals(7, builder.size());
+		builder.removeIf(e -> e % 2 == 0);
+		assertEquals(List.of(1, 3, 5, 7), builder.stream().toList());
+	}
+
+	@Test
+	void removeIfMatchesArrayList() {
+		Random random = new Random(2);
+		for (int round = 0; round < 200; round++) {
+			List<Integer> expected = new ArrayList<>();
+			AtomsBuilder<Integer> builder = new AtomsBuilder<>();
+			for (int i = 0, n = random.nextInt(300); i < n; i++) {
+				int e = random.nextInt(20);
+				expected.add(e);
+				builder.add(e);
+			}
+
+			int mod = 1 + random.nextInt(5);
+			expected.removeIf(e -> e % mod == 0);
+			builder.removeIf(e -> e % mod == 0);
+			assertEquals(expected, builder.stream().toList());
+		}
+	}
+
+	// endregion
+
+	// region addAll
+
+	@Test
+	void addAllMatchesArrayList() {
+		Random random = new Random(5);
+		List<Integer> expected = new ArrayList<>();
+		AtomsBuilder<Integer> builder = new AtomsBuilder<>();
+
+		for (int op = 0; op < 300; op++) {
+			Integer[] batch = new Integer[random.nextInt(20)];
+			for (int i = 0; i < batch.length; i++)
+				batch[i] = random.nextInt(50);
+
+			int index = random.nextInt(expected.size() + 1);
+			switch (op % 5) {
+				case 0 -> builder.addAll(batch);
+				case 1 -> builder.addAll(List.of(batch));
+				case 2 -> builder.addAll(index, batch);
+				case 3 -> builder.addAll(index, List.of(batch));
+				default -> builder.addAll(index, new AtomsBuilder<>(batch));
+			}
+
+			if (op % 5 < 2)
+				expected.addAll(List.of(batch));
+			else
+				expected.addAll(index, List.of(batch));
+
+			assertEquals(expected, builder.stream().toList());
+		}
+
+		builder.addAll(builder);
+		expected.addAll(List.copyOf(expected));
+		assertEquals(expected, builder.stream().toList());
+	}
+
+	// endregion
+
+	// region insert
+
+	@Test
+	void replaceAllOnlyReplacesTheElements() {
+		AtomsBuilder<Integer> builder = new AtomsBuilder<>(10);
+		builder.add(1).add(null).add(1);
+
+		builder.replaceAll(null, 9).replaceAll(1, 2).replaceAll(7, 0);
+		assertEquals(Arrays.asList(2, 9, 2), builder.stream().toList());
+		builder.add(null);
+		assertEquals(Arrays.asList(2, 9, 2, null), builder.stream().toList());
+	}
+
+	@Test
+	void addAtIndexShiftsOnlyTheElements() {
+		AtomsBuilder<Integer> builder = new AtomsBuilder<>(10);
+		for (int i = 0; i < 4; i++)
+			builder.add(i);
+
+		builder.add(1, 10).add(5, 11).add(0, 12);
+		assertEquals(List.of(12, 0, 10, 1, 2, 3, 11), builder.stream().toList());
+		assertThrows(IndexOutOfBoundsException.class, () -> builder.add(8, 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> builder.add(-1, 0));
+	}
+
+	// endregion
+
+	// region traversal
+
+	private static long sink;
+
+	@Test
+	void traversalsDoNotAllocate() {
+		AtomsBuilder<Integer> builder = new AtomsBuilder<>(1_000);
+		for (int i = 0; i < 1_000; i++)
+			builder.add(i);
+		AtomsBuilder<Integer>.Cursor cursor = builder.cursor();
+		Consumer<Integer> consume = e -> sink += e;
+		IntObjConsumer<Integer> consumeIndexed = (i, e) -> sink += i;
+		ToDoubleFunction<Integer> half = e -> e * 0.5;
+		ToLongFunction<Integer> value = e -> e;
+
+		AtomsTest.assertAllocationFree(() -> builder.forEach(consume), "forEach");
+		AtomsTest.assertAllocationFree(() -> builder.forEachIndexed(consumeIndexed), "forEachIndexed");
+		AtomsTest.assertAllocationFree(() -> sink += (long) builder.sumDouble(half), "sumDouble");
+		AtomsTest.assertAllocationFree(() -> sink += builder.sumLong(value), "sumLong");
+		AtomsTest.assertAllocationFree(() -> {
+			for (cursor.reset(); cursor.next(); )
+				sink += cursor.get();
+		}, "cursor");
+	}
+
+	// endregion
+
+	// region build
+
+	@Test
+	void buildReturnsAFrozenListWithoutCopying() {
+		AtomsBuilder<Integer> builder = new AtomsBuilder<>(new Integer[]{ 1, 2, 3 });
+		Atoms<Integer> built = builder.build();
+
+		assertTrue(built.isFrozen());
+		assertEquals(List.of(1, 2, 3), built.stream().toList());
+		assertEquals(3, built.capacity());
+		assertSame(built, builder.build());
+		assertEquals(List.of(2, 3), built.subList(1, 3).stream().toList());
+		assertFalse(new Atoms<>(built).isFrozen());
+	}
+
+	@Test
+	void editsMatchingNothingKeepTheBuiltList() {
+		AtomsBuilder<Integer> builder = new AtomsBuilder<>(new Integer[]{ 1, 2, 3 });
+		Atoms<Integer> built = builder.build();
+
+		builder.removeIf(e -> e > 3);
+		builder.removeAll(4);
+		assertSame(built, builder.build());
+		assertThrows(IndexOutOfBoundsException.class, () -> builder.set(-1, 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> builder.set(3, 0));
+		assertSame(built, builder.build());
+	}
+
+	@Test
+	void editsAfterBuildLeaveTheBuiltListUnchanged() {
+		AtomsBuilder<Integer> builder = new AtomsBuilder<>();
+		for (int i = 0; i < 10; i++)
+			builder.add(i);
+
+		List<Runnable> edits = List.of(
+				() -> builder.add(10),
+				() -> builder.add(0, -1),
+				() -> builder.set(0, 100),
+				() -> builder.replaceAll(5, 50),
+				() -> builder.remove(3),
+				() -> builder.removeLast(),
+				() -> builder.removeIf(e -> e % 2 == 0),
+				() -> builder.addAll(new Integer[]{ 7, 8 }),
+				() -> builder.clear());
+
+		for (Runnable edit : edits) {
+			Atoms<Integer> built = builder.build();
+			List<Integer> before = built.stream().toList();
+
+			edit.run();
+			assertEquals(before, built.stream().toList());
+			assertEquals(builder.stream().toList(), builder.build().stream().toList());
+			assertNotSame(built, builder.build());
+		}
+	}
+
+	@Test
+	void builtListsRejectModifications() {
+		Atoms<Integer> built = new AtomsBuilder<>(new Integer[]{ 1, 2, 3 }).build();
+
+		List<Executable> edits = List.of(
+				() -> built.add(4),
+				() -> built.add(0, 4),
+				() -> built.addAll(new Integer[]{ 4 }),
+				() -> built.set(0, 4),
+				() -> built.replaceAll(1, 4),
+				() -> built.remove(1),
+				() -> built.removeLast(),
+				() -> built.removeIf(e -> true),
+				() -> built.removeAll(1),
+				() -> built.clear(),
+				() -> built.ensureCapacity(100),
+				() -> built.trimToSize(),
+				() -> built.setIndexed(true));
+
+		for (Executable edit : edits)
+			assertThrows(UnsupportedOperationException.class, edit);
+		assertEquals(List.of(1, 2, 3), built.stream().toList());
+	}
+
+	// endregion
+}
@@ -0,0 +1,140 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomsMetricsTest {
+
+	@Test
+	void countersFollowTheOperations() {
+		AtomsMetrics metrics = new AtomsMetrics();
+		Atoms<Integer> atoms = new Atoms<>();
+		atoms.setGrowthPolicy(GrowthPolicy.fixedChunk(10).neverShrink());
+		atoms.setMetrics(metrics);
+		assertSame(metrics, atoms.getMetrics());
+
+		for (int i = 0; i < 100; i++)
+			atoms.add(i);
+
+		Map<String, Number> values = metrics.snapshot();
+		assertEquals(10L, values.get("resizes"));
+		long copied = values.get("copiedBytes").longValue();
+		assertTrue(copied == 450 * 4 || copied == 450 * 8, "copied " + copied);
+		assertEquals(100L, values.get("addNanosCount"));
+		assertEquals(100L, values.get("size"));
+		assertEquals(100L, values.get("capacity"));
+		assertEquals(1.0, values.get("occupancy"));
+
+		atoms.add(0, -1);
+		assertTrue(atoms.contains(50));
+		assertFalse(atoms.contains(1_000));
+		assertEquals(51, atoms.lastIndexOf(50));
+
+		values = metrics.snapshot();
+		assertEquals(1L, values.get("insertNanosCount"));
+		assertEquals(copied / 450 * 100, values.get("shiftedBytes"));
+		assertEquals(2L, values.get("hits"));
+		assertEquals(1L, values.get("misses"));
+		assertEquals(2.0 / 3, values.get("hitRatio"));
+		assertEquals(3L, values.get("scanLengthCount"));
+		assertEquals(101L, values.get("scanLengthMax"));
+		assertEquals((52 + 101 + 50) / 3.0, values.get("scanLengthMean"));
+	}
+
+	@Test
+	void resetClearsTheCountersButKeepsTheLists() {
+		AtomsMetrics metrics = new AtomsMetrics();
+		Atoms<Integer> atoms = new Atoms<>(new Integer[] { 1, 2, 3 });
+		atoms.setMetrics(metrics);
+		atoms.remove((Integer) 1);
+
+		Map<String, Number> values = metrics.snapshot();
+		assertEquals(1L, values.get("removeNanosCount"));
+		assertEquals(1L, values.get("hits"));
+
+		metrics.reset();
+		values = metrics.snapshot();
+		for (String counter : new String[] { "resizes", "copiedBytes", "shiftedBytes", "hits", "misses", "scanLengthCount", "removeNanosCount", "removeNanosMax" })
+			assertEquals(0L, values.get(counter), counter);
+		assertEquals(0.0, values.get("hitRatio"));
+		assertEquals(2L, values.get("size"));
+
+		atoms.setMetrics(null);
+		assertNull(atoms.getMetrics());
+		assertEquals(0L, metrics.snapshot().get("size"));
+		assertEquals(0.0, metrics.snapshot().get("occupancy"));
+	}
+
+	@Test
+	void metricsAreSharedByLists() {
+		AtomsMetrics metrics = new AtomsMetrics();
+		Atoms<Integer> first = new Atoms<>(new Integer[] { 1, 2 });
+		Atoms<Integer> second = new Atoms<>(new Integer[] { 3 });
+		first.setMetrics(metrics);
+		second.setMetrics(metrics);
+		first.add(4);
+		second.add(5);
+
+		Map<String, Number> values = metrics.snapshot();
+		assertEquals(2L, values.get("addNanosCount"));
+		assertEquals(5L, values.get("size"));
+
+		AtomsMetrics other = new AtomsMetrics();
+		second.setMetrics(other);
+		assertEquals(3L, metrics.snapshot().get("size"));
+		assertEquals(2L, other.snapshot().get("size"));
+	}
+
+	@Test
+	void histogramQuantilesRoundUpToPowersOfTwo() {
+		AtomsMetrics.Histogram histogram = new AtomsMetrics.Histogram();
+		assertEquals(0, histogram.quantile(0.5));
+
+		for (int i = 1; i <= 100; i++)
+			histogram.record(i);
+		histogram.record(-5);
+
+		assertEquals(63, histogram.quantile(0.5));
+		assertEquals(100, histogram.quantile(0.99));
+		assertEquals(0, histogram.quantile(0));
+
+		histogram.reset();
+		assertEquals(0, histogram.quantile(1));
+	}
+
+	@Test
+	void registeredMetricsAreReadableThroughJmx() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("me.atomiz:type=Atoms,name=" + ObjectName.quote("test"));
+		AtomsMetrics metrics = new AtomsMetrics();
+		Atoms<Integer> atoms = new Atoms<>();
+		atoms.setMetrics(metrics);
+		atoms.add(1);
+
+		metrics.register("test");
+		try {
+			assertTrue(server.isRegistered(name));
+			assertEquals(1L, server.getAttribute(name, "size"));
+			assertEquals(1L, server.getAttribute(name, "addNanosCount"));
+			assertEquals(metrics.snapshot().size(), server.getMBeanInfo(name).getAttributes().length);
+			assertThrows(InstanceAlreadyExistsException.class, () -> new AtomsMetrics().register("test"));
+
+			server.invoke(name, "reset", null, null);
+			assertEquals(0L, server.getAttribute(name, "addNanosCount"));
+			assertThrows(JMException.class, () -> server.getAttribute(name, "missing"));
+		} finally {
+			metrics.unregister();
+		}
+
+		assertFalse(server.isRegistered(name));
+		metrics.unregister();
+	}
+}
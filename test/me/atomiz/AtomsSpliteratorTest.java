@@ -0,0 +1,68 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomsSpliteratorTest {
+
+	private static Atoms<Integer> range(int n) {
+		return new Atoms<>(IntStream.range(0, n).boxed().toArray(Integer[]::new));
+	}
+
+	@Test
+	void splitsIntoExactlySizedHalves() {
+		Spliterator<Integer> right = range(101).spliterator();
+		assertTrue(right.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+		assertEquals(101, right.getExactSizeIfKnown());
+
+		Spliterator<Integer> left = right.trySplit();
+		assertEquals(50, left.estimateSize());
+		assertEquals(51, right.estimateSize());
+
+		List<Integer> elements = new ArrayList<>();
+		left.forEachRemaining(elements::add);
+		assertTrue(right.tryAdvance(elements::add));
+		right.forEachRemaining(elements::add);
+		assertEquals(range(101).stream().toList(), elements);
+		assertNull(range(1).spliterator().trySplit());
+	}
+
+	@Test
+	void viewsSplitTheirWindowOnly() {
+		Atoms<Integer> view = range(100).subList(10, 30);
+		Spliterator<Integer> right = view.spliterator();
+		Spliterator<Integer> left = right.trySplit();
+
+		List<Integer> elements = new ArrayList<>();
+		left.forEachRemaining(elements::add);
+		right.forEachRemaining(elements::add);
+		assertEquals(IntStream.range(10, 30).boxed().toList(), elements);
+	}
+
+	@Test
+	void parallelStreamsMatchSequentialOnes() {
+		Atoms<Integer> atoms = range(100_000);
+
+		assertEquals(atoms.stream().mapToLong(e -> e).sum(), atoms.parallelStream().mapToLong(e -> e).sum());
+		assertEquals(atoms.stream().filter(e -> e % 3 == 0).toList(), atoms.parallelStream().filter(e -> e % 3 == 0).collect(Collectors.toList()));
+		assertEquals(new AtomsBuilder<>(range(1_000).stream().toList()).parallelStream().toList(), range(1_000).stream().toList());
+	}
+
+	@Test
+	void traversalFailsOnceTheListIsModified() {
+		Atoms<Integer> atoms = range(10);
+		Spliterator<Integer> spliterator = atoms.spliterator();
+		atoms.add(10);
+
+		assertThrows(ConcurrentModificationException.class, () -> spliterator.tryAdvance(e -> { }));
+		assertThrows(ConcurrentModificationException.class, () -> atoms.stream().forEach(e -> atoms.add(e)));
+	}
+}
@@ -0,0 +1,365 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomsTest {
+
+	// region remove
+
+	@Test
+	void removeIfKeepsOrderOfTheRemainingElements() {
+		Atoms<Integer> atoms = new Atoms<>(new Integer[]{ 1, 2, 3, 4, 5, 6, 7 });
+
+		assertEquals(3, atoms.removeIf(e -> e % 2 == 0));
+		assertEquals("[1, 3, 5, 7]", atoms.toString());
+		assertEquals(0, atoms.removeIf(e -> e > 10));
+		assertEquals(4, atoms.size());
+	}
+
+	@Test
+	void removeAllRemovesEveryOccurrenceIncludingNull() {
+		Atoms<String> atoms = new Atoms<>(new String[]{ "a", null, "b", "a", null, "a" });
+
+		assertEquals(3, atoms.removeAll("a"));
+		assertEquals("[null, b, null]", atoms.toString());
+		assertEquals(2, atoms.removeAll(null));
+		assertEquals("[b]", atoms.toString());
+	}
+
+	@Test
+	void throwingFilterLeavesTheListUnchanged() {
+		Atoms<Integer> atoms = new Atoms<>(new Integer[]{ 1, 2, 3, 4, 5, 6, 7 });
+
+		assertThrows(IllegalStateException.class, () -> atoms.removeIf(e -> {
+			if (e == 5)
+				throw new IllegalStateException();
+			return e % 2 == 0;
+		}));
+		assertEquals("[1, 2, 3, 4, 5, 6, 7]", atoms.toString());
+		assertEquals(7, atoms.size());
+		assertEquals(3, atoms.indexOf(4));
+		assertEquals(3, atoms.removeIf(e -> e % 2 == 0));
+		assertEquals("[1, 3, 5, 7]", atoms.toString());
+	}
+
+	@Test
+	void removeIfMatchesArrayList() {
+		Random random = new Random(1);
+		for (int round = 0; round < 200; round++) {
+			List<Integer> expected = new ArrayList<>();
+			Atoms<Integer> atoms = new Atoms<>();
+			for (int i = 0, n = random.nextInt(300); i < n; i++) {
+				Integer e = random.nextInt(10) == 0 ? null : random.nextInt(20);
+				expected.add(e);
+				atoms.add(e);
+			}
+
+			int mod = 1 + random.nextInt(5);
+			int removed = expected.size();
+			expected.removeIf(e -> e == null || e % mod == 0);
+			removed -= expected.size();
+
+			assertEquals(removed, atoms.removeIf(e -> e == null || e % mod == 0));
+			assertEquals(expected, atoms.stream().toList());
+		}
+	}
+
+	// endregion
+
+	// region index
+
+	@Test
+	void indexAnswersLikeALinearScan() {
+		Random random = new Random(3);
+		Atoms<Integer> indexed = new Atoms<>();
+		Atoms<Integer> linear = new Atoms<>();
+		indexed.setIndexed(true);
+		assertTrue(indexed.isIndexed());
+
+		for (int op = 0; op < 5_000; op++) {
+			Integer e = random.nextInt(8) == 0 ? null : random.nextInt(30);
+			switch (random.nextInt(7)) {
+				case 0, 1 -> {
+					indexed.add(e);
+					linear.add(e);
+				}
+				case 2 -> {
+					int i = random.nextInt(linear.size() + 1);
+					indexed.add(i, e);
+					linear.add(i, e);
+				}
+				case 3 -> {
+					if (!linear.isEmpty()) {
+						int i = random.nextInt(linear.size());
+						assertEquals(linear.set(i, e), indexed.set(i, e));
+					}
+				}
+				case 4 -> assertEquals(linear.remove(e), indexed.remove(e));
+				case 5 -> assertEquals(linear.replaceAll(e, -1), indexed.replaceAll(e, -1));
+				default -> assertEquals(linear.removeIf(x -> x != null && x % 7 == 0),
+						indexed.removeIf(x -> x != null && x % 7 == 0));
+			}
+
+			Integer probe = random.nextInt(10) == 0 ? null : random.nextInt(32) - 1;
+			assertEquals(linear.contains(probe), indexed.contains(probe));
+			assertEquals(linear.count(probe), indexed.count(probe));
+			assertEquals(linear.indexOf(probe), indexed.indexOf(probe));
+			assertEquals(linear.lastIndexOf(probe), indexed.lastIndexOf(probe));
+		}
+
+		assertTrue(indexed.indexBytes() > 0);
+		indexed.setIndexed(false);
+		assertEquals(0, indexed.indexBytes());
+	}
+
+	@Test
+	void setChecksTheIndexBeforeTouchingTheIndex() {
+		Atoms<String> atoms = new Atoms<>(10);
+		atoms.add("a");
+		atoms.setIndexed(true);
+
+		assertThrows(IndexOutOfBoundsException.class, () -> atoms.set(1, "b"));
+		assertFalse(atoms.contains("b"));
+		assertEquals(-1, atoms.indexOf("b"));
+		assertEquals("a", atoms.set(0, "b"));
+		assertEquals(0, atoms.indexOf("b"));
+	}
+
+	// endregion
+
+	// region view
+
+	@Test
+	void viewsShareTheElementsOfTheirRoot() {
+		Atoms<Integer> atoms = new Atoms<>(new Integer[]{ 0, 1, 2, 3, 4, 5, 6, 7 });
+		Atoms<Integer> view = atoms.subList(2, 7);
+		Atoms<Integer> nested = view.getRange(1, 3);
+
+		assertEquals(List.of(2, 3, 4, 5, 6), view.stream().toList());
+		assertEquals(List.of(3, 4, 5), nested.stream().toList());
+		assertEquals(1, nested.indexOf(4));
+		assertEquals(-1, nested.indexOf(6));
+		assertEquals(1, nested.count(4));
+
+		atoms.set(4, 40);
+		assertEquals(40, view.get(2));
+		assertEquals(40, nested.get(1));
+		assertThrows(IndexOutOfBoundsException.class, () -> nested.get(3));
+		assertThrows(IndexOutOfBoundsException.class, () -> view.subList(0, 6));
+	}
+
+	@Test
+	void viewsAreReadOnly() {
+		Atoms<Integer> view = new Atoms<>(new Integer[]{ 0, 1, 2 }).subList(0, 2);
+
+		assertThrows(UnsupportedOperationException.class, () -> view.add(3));
+		assertThrows(UnsupportedOperationException.class, () -> view.set(0, 3));
+		assertThrows(UnsupportedOperationException.class, () -> view.removeIf(e -> true));
+		assertThrows(UnsupportedOperationException.class, view::clear);
+		assertThrows(UnsupportedOperationException.class, () -> view.setIndexed(true));
+	}
+
+	@Test
+	void viewsGoStaleOnStructuralChanges() {
+		Atoms<Integer> atoms = new Atoms<>(new Integer[]{ 0, 1, 2, 3 });
+		Atoms<Integer> view = atoms.subList(1, 3);
+		Atoms<Integer> copy = atoms.copyOfRange(1, 3);
+
+		atoms.add(4);
+		assertThrows(ConcurrentModificationException.class, () -> view.get(0));
+		assertThrows(ConcurrentModificationException.class, () -> view.contains(1));
+		assertThrows(ConcurrentModificationException.class, view::toString);
+		assertThrows(ConcurrentModificationException.class, () -> view.subList(0, 1));
+		assertEquals(List.of(1, 2), copy.stream().toList());
+
+		Atoms<Integer> fresh = atoms.subList(1, 3);
+		atoms.removeLast();
+		assertThrows(ConcurrentModificationException.class, () -> fresh.forEach(e -> { }));
+	}
+
+	// endregion
+
+	// region addAll
+
+	@Test
+	void addAllMatchesArrayList() {
+		Random random = new Random(4);
+		List<Integer> expected = new ArrayList<>();
+		Atoms<Integer> atoms = new Atoms<>();
+		atoms.setIndexed(true);
+
+		for (int op = 0; op < 300; op++) {
+			Integer[] batch = new Integer[random.nextInt(20)];
+			for (int i = 0; i < batch.length; i++)
+				batch[i] = random.nextInt(50);
+
+			int index = random.nextInt(expected.size() + 1), kind = random.nextInt(6);
+			switch (kind) {
+				case 0 -> atoms.addAll(batch);
+				case 1 -> atoms.addAll(List.of(batch));
+				case 2 -> atoms.addAll(new Atoms<>(batch));
+				case 3 -> atoms.addAll(index, batch);
+				case 4 -> atoms.addAll(index, List.of(batch));
+				default -> atoms.addAll(index, new Atoms<>(batch).subList(0, batch.length));
+			}
+
+			if (kind < 3)
+				expected.addAll(List.of(batch));
+			else
+				expected.addAll(index, List.of(batch));
+
+			if (expected.size() > 2_000) {
+				expected.clear();
+				atoms.clear();
+			}
+
+			assertEquals(expected, atoms.stream().toList());
+			assertEquals(expected.indexOf(7), atoms.indexOf(7));
+		}
+	}
+
+	@Test
+	void addAllOfItselfCopiesTheElementsOnce() {
+		Atoms<Integer> atoms = new Atoms<>(new Integer[]{ 1, 2, 3 });
+
+		atoms.addAll(atoms);
+		assertEquals(List.of(1, 2, 3, 1, 2, 3), atoms.stream().toList());
+		atoms.addAll(1, atoms);
+		assertEquals(List.of(1, 1, 2, 3, 1, 2, 3, 2, 3, 1, 2, 3), atoms.stream().toList());
+		assertThrows(IndexOutOfBoundsException.class, () -> atoms.addAll(13, new Integer[]{ 0 }));
+	}
+
+	// endregion
+
+	// region insert
+
+	@Test
+	void addAtIndexShiftsOnlyTheElements() {
+		Atoms<Integer> atoms = new Atoms<>(10);
+		for (int i = 0; i < 4; i++)
+			atoms.add(i);
+
+		atoms.add(1, 10);
+		atoms.add(5, 11);
+		atoms.add(0, 12);
+		assertEquals(List.of(12, 0, 10, 1, 2, 3, 11), atoms.stream().toList());
+		assertEquals(10, atoms.capacity());
+		assertThrows(IndexOutOfBoundsException.class, () -> atoms.add(8, 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> atoms.add(-1, 0));
+	}
+
+	@Test
+	void removeAtMatchesArrayList() {
+		Random random = new Random(26);
+		Atoms<Integer> atoms = new Atoms<>();
+		atoms.setIndexed(true);
+		List<Integer> expected = new ArrayList<>();
+
+		for (int op = 0; op < 2_000; op++) {
+			if (expected.isEmpty() || random.nextInt(3) > 0) {
+				int i = random.nextInt(expected.size() + 1);
+				atoms.add(i, op % 50);
+				expected.add(i, op % 50);
+			} else {
+				int i = random.nextInt(expected.size());
+				assertEquals(expected.remove(i), atoms.removeAt(i));
+			}
+
+			assertEquals(expected.indexOf(op % 50), atoms.indexOf(op % 50));
+		}
+
+		assertEquals(expected, atoms.stream().toList());
+		assertThrows(IndexOutOfBoundsException.class, () -> atoms.removeAt(atoms.size()));
+		assertThrows(UnsupportedOperationException.class, () -> atoms.subList(0, 1).removeAt(0));
+	}
+
+	// endregion
+
+	// region traversal
+
+	private final static int WARMUP = 20_000;
+	private final static int RUNS = 20_000;
+
+	private static long sink;
+
+	/**
+	 * Returns the average bytes the current thread allocated per run of the specified action, measured over
+	 * {@link #RUNS} runs after {@link #WARMUP} runs which let the JIT compile it and eliminate its temporary objects.
+	 */
+	static double allocatedPerRun(Runnable action) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		for (int i = 0; i < WARMUP; i++)
+			action.run();
+
+		long before = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < RUNS; i++)
+			action.run();
+
+		return (threads.getCurrentThreadAllocatedBytes() - before) / (double) RUNS;
+	}
+
+	/**
+	 * Asserts that the specified action allocates less than a byte per run. A single object per run is at least 16
+	 * bytes, while a one off allocation such as a deoptimization spread over the runs stays far below the threshold.
+	 */
+	static void assertAllocationFree(Runnable action, String name) {
+		double bytes = allocatedPerRun(action);
+		assertTrue(bytes < 1, name + " allocated " + bytes + " bytes per run");
+	}
+
+	@Test
+	void traversalsDoNotAllocate() {
+		Atoms<Integer> atoms = new Atoms<>(1_000);
+		for (int i = 0; i < 1_000; i++)
+			atoms.add(i);
+		Atoms<Integer>.Cursor cursor = atoms.cursor();
+		Consumer<Integer> consume = e -> sink += e;
+		IntObjConsumer<Integer> consumeIndexed = (i, e) -> sink += i;
+		ToDoubleFunction<Integer> half = e -> e * 0.5;
+		ToLongFunction<Integer> value = e -> e;
+
+		assertAllocationFree(() -> atoms.forEach(consume), "forEach");
+		assertAllocationFree(() -> atoms.forEachIndexed(consumeIndexed), "forEachIndexed");
+		assertAllocationFree(() -> sink += (long) atoms.sumDouble(half), "sumDouble");
+		assertAllocationFree(() -> sink += atoms.sumLong(value), "sumLong");
+		assertAllocationFree(() -> {
+			for (cursor.reset(); cursor.next(); )
+				sink += cursor.get();
+		}, "cursor");
+		assertTrue(allocatedPerRun(() -> atoms.stream().forEach(consume)) >= 16);
+	}
+
+	@Test
+	void cursorWalksTheElementsAgainAfterAReset() {
+		Atoms<Integer> atoms = new Atoms<>(new Integer[]{ 1, 2, 3, 4 });
+		Atoms<Integer> view = atoms.subList(1, 3);
+		Atoms<Integer>.Cursor cursor = view.cursor();
+
+		assertThrows(NoSuchElementException.class, cursor::get);
+		for (int round = 0; round < 2; round++) {
+			List<Integer> walked = new ArrayList<>();
+			for (cursor.reset(); cursor.next(); )
+				walked.add(cursor.index() * 10 + cursor.get());
+			assertEquals(List.of(2, 13), walked);
+			assertFalse(cursor.next());
+		}
+
+		cursor.reset();
+		atoms.add(5);
+		assertThrows(ConcurrentModificationException.class, cursor::next);
+	}
+
+	// endregion
+}
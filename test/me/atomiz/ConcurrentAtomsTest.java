@@ -0,0 +1,151 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentAtomsTest {
+	private final static int THREADS = 4;
+	private final static int PER_THREAD = 20_000;
+
+	private static void run(Runnable task) throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		List<Throwable> failures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					task.run();
+				} catch (Throwable e) {
+					synchronized (failures) {
+						failures.add(e);
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(List.of(), failures);
+	}
+
+	@Test
+	void concurrentAppendsAreAllPublished() throws InterruptedException {
+		ConcurrentAtoms<Integer> atoms = new ConcurrentAtoms<>(THREADS);
+		run(() -> {
+			for (int i = 0; i < PER_THREAD; i++)
+				atoms.add(i);
+		});
+
+		assertEquals(THREADS * PER_THREAD, atoms.size());
+		int[] seen = new int[PER_THREAD];
+		atoms.forEach(e -> seen[e]++);
+		for (int count : seen)
+			assertEquals(THREADS, count);
+	}
+
+	@Test
+	void readersNeverSeeUnpublishedSlots() throws InterruptedException {
+		ConcurrentAtoms<Integer> atoms = new ConcurrentAtoms<>(THREADS);
+		AtomicInteger roles = new AtomicInteger();
+		run(() -> {
+			if (roles.getAndIncrement() % 2 == 0) {
+				for (int i = 0; i < PER_THREAD; i++)
+					atoms.add(i);
+			} else {
+				for (int i = 0; i < PER_THREAD; i++) {
+					int n = atoms.size();
+					if (n > 0)
+						assertNotNull(atoms.get(n - 1));
+				}
+			}
+		});
+	}
+
+	@Test
+	void structuralWritesRunBetweenAppends() throws InterruptedException {
+		ConcurrentAtoms<Integer> atoms = new ConcurrentAtoms<>(THREADS);
+		run(() -> {
+			for (int i = 0; i < PER_THREAD / 10; i++) {
+				atoms.add(i);
+				atoms.add(-1);
+				if (i % 50 == 0)
+					atoms.removeAll(-1);
+			}
+		});
+
+		atoms.removeAll(-1);
+		assertEquals(THREADS * PER_THREAD / 10, atoms.size());
+		assertFalse(atoms.contains(-1));
+	}
+
+	@Test
+	void scansNeverSkipOrRepeatElementsDuringStructuralWrites() throws InterruptedException {
+		int elements = 1_000;
+		ConcurrentAtoms<Integer> atoms = new ConcurrentAtoms<>(THREADS);
+		for (int i = 0; i < elements; i++)
+			atoms.add(i);
+		atoms.add(Integer.MAX_VALUE);
+
+		AtomicInteger roles = new AtomicInteger();
+		run(() -> {
+			if (roles.getAndIncrement() == 0) {
+				for (int i = 0; i < PER_THREAD / 10; i++) {
+					int e = i % elements;
+					atoms.remove((Integer) e);
+					atoms.add(0, e);
+					if (i % 100 == 0) {
+						atoms.removeIf(x -> x < 10);
+						for (int x = 9; x >= 0; x--)
+							atoms.add(0, x);
+					}
+				}
+			} else {
+				for (int i = 0; i < PER_THREAD / 10; i++) {
+					assertNotEquals(-1, atoms.indexOf(Integer.MAX_VALUE));
+					boolean[] seen = new boolean[elements];
+					atoms.forEach(e -> {
+						assertNotNull(e);
+						if (e != Integer.MAX_VALUE) {
+							assertFalse(seen[e], "repeated " + e);
+							seen[e] = true;
+						}
+					});
+				}
+			}
+		});
+
+		assertEquals(elements + 1, atoms.size());
+		assertEquals(elements, atoms.indexOf(Integer.MAX_VALUE));
+	}
+
+	@Test
+	void behavesLikeAListOnOneThread() {
+		ConcurrentAtoms<String> atoms = new ConcurrentAtoms<>(1);
+		atoms.add("a");
+		atoms.add(null);
+		atoms.add("c");
+		atoms.add(1, "b");
+
+		assertEquals("[a, b, null, c]", atoms.toString());
+		assertEquals(2, atoms.indexOf(null));
+		assertEquals("c", atoms.set(3, "d"));
+		assertTrue(atoms.remove(null));
+		atoms.removeLast();
+		assertEquals(List.of("a", "b"), atoms.toAtoms().stream().toList());
+		assertThrows(IndexOutOfBoundsException.class, () -> atoms.get(2));
+
+		atoms.clear();
+		assertTrue(atoms.isEmpty());
+	}
+}
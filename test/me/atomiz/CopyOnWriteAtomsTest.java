@@ -0,0 +1,91 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyOnWriteAtomsTest {
+
+	private static List<Integer> list(CopyOnWriteAtoms<Integer> atoms) {
+		List<Integer> list = new ArrayList<>();
+		atoms.forEach(list::add);
+		return list;
+	}
+
+	@Test
+	void writesReplaceTheSnapshot() {
+		CopyOnWriteAtoms<Integer> atoms = new CopyOnWriteAtoms<>(new Integer[]{ 1, 2, 3 });
+		atoms.add(4);
+		atoms.add(0, 0);
+		assertEquals(3, atoms.set(3, 30));
+		assertEquals(1, atoms.replaceAll(30, 3));
+		assertTrue(atoms.remove(0));
+		assertEquals(1, atoms.removeAll(4));
+		atoms.removeLast();
+
+		assertEquals(List.of(1, 2), list(atoms));
+		assertEquals(1, atoms.indexOf(2));
+		assertEquals("[1, 2]", atoms.toString());
+	}
+
+	@Test
+	void iterationSeesTheSnapshotOfItsStart() {
+		CopyOnWriteAtoms<Integer> atoms = new CopyOnWriteAtoms<>(new Integer[]{ 1, 2, 3 });
+		List<Integer> seen = new ArrayList<>();
+		atoms.forEach(e -> {
+			seen.add(e);
+			atoms.removeLast();
+			atoms.add(0, -e);
+		});
+
+		assertEquals(List.of(1, 2, 3), seen);
+		assertEquals(List.of(-3, -2, -1), list(atoms));
+	}
+
+	@Test
+	void mutatePublishesEveryEditAtOnce() {
+		CopyOnWriteAtoms<Integer> atoms = new CopyOnWriteAtoms<>(new Integer[]{ 1, 2, 3 });
+		atoms.mutate(b -> b.add(4).remove(1).set(0, 20));
+
+		assertEquals(List.of(20, 3, 4), list(atoms));
+	}
+
+	@Test
+	void aRetainedBuilderNeverModifiesThePublishedList() {
+		CopyOnWriteAtoms<Integer> atoms = new CopyOnWriteAtoms<>(new Integer[]{ 1, 2, 3 });
+		AtomicReference<AtomsBuilder<Integer>> retained = new AtomicReference<>();
+		atoms.mutate(b -> retained.set(b.add(4)));
+
+		AtomsBuilder<Integer> builder = retained.get();
+		builder.set(0, 10);
+		builder.add(5);
+		builder.add(0, 0);
+		builder.removeIf(e -> e == 2);
+		builder.replaceAll(3, 30);
+
+		assertEquals(List.of(1, 2, 3, 4), list(atoms));
+		assertEquals(List.of(0, 10, 30, 4, 5), builder.stream().toList());
+	}
+
+	@Test
+	void removeLastDoesNotKeepTheElementReachable() throws Exception {
+		CopyOnWriteAtoms<Object> atoms = new CopyOnWriteAtoms<>();
+		atoms.add("kept");
+		Object removed = new Object();
+		atoms.add(removed);
+		atoms.removeLast();
+
+		Field snapshot = CopyOnWriteAtoms.class.getDeclaredField("snapshot");
+		snapshot.setAccessible(true);
+		Object s = snapshot.get(atoms);
+		Field array = s.getClass().getDeclaredField("atoms");
+		array.setAccessible(true);
+		for (Object e : (Object[]) array.get(s))
+			assertNotSame(removed, e);
+	}
+}
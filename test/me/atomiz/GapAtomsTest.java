@@ -0,0 +1,118 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GapAtomsTest {
+
+	private static void assertMatches(List<Integer> expected, GapAtoms<Integer> gap) {
+		assertEquals(expected.size(), gap.size());
+		assertEquals(expected.toString(), gap.toString());
+		assertEquals(expected, gap.toAtoms().stream().toList());
+
+		List<Integer> walked = new ArrayList<>();
+		gap.forEach(walked::add);
+		assertEquals(expected, walked);
+	}
+
+	@Test
+	void randomEditsMatchArrayList() {
+		Random random = new Random(25);
+		for (GrowthPolicy growth : new GrowthPolicy[] { GrowthPolicy.DEFAULT, GrowthPolicy.fixedChunk(3), GrowthPolicy.DEFAULT.neverShrink() }) {
+			GapAtoms<Integer> gap = new GapAtoms<>();
+			gap.setGrowthPolicy(growth);
+			List<Integer> expected = new ArrayList<>();
+			int cursor = 0;
+
+			for (int op = 0; op < 5_000; op++) {
+				cursor = Math.max(0, Math.min(expected.size(), random.nextBoolean() ? cursor + random.nextInt(-4, 5) : random.nextInt(expected.size() + 1)));
+				switch (random.nextInt(8)) {
+					case 0, 1, 2 -> {
+						gap.add(cursor, op);
+						expected.add(cursor, op);
+					}
+					case 3 -> {
+						if (cursor < expected.size())
+							assertEquals(expected.remove(cursor), gap.removeAt(cursor));
+					}
+					case 4 -> {
+						if (cursor < expected.size())
+							assertEquals(expected.set(cursor, -op), gap.set(cursor, -op));
+					}
+					case 5 -> {
+						Integer[] batch = new Integer[random.nextInt(10)];
+						for (int i = 0; i < batch.length; i++)
+							batch[i] = random.nextInt(20);
+						gap.addAll(cursor, batch);
+						expected.addAll(cursor, List.of(batch));
+					}
+					case 6 -> {
+						Integer e = random.nextInt(20);
+						assertEquals(expected.remove(e), gap.remove(e));
+					}
+					default -> {
+						gap.removeLast();
+						if (!expected.isEmpty())
+							expected.remove(expected.size() - 1);
+					}
+				}
+
+				if (!expected.isEmpty()) {
+					int i = random.nextInt(expected.size());
+					assertEquals(expected.get(i), gap.get(i));
+				}
+				Integer probe = random.nextInt(20);
+				assertEquals(expected.indexOf(probe), gap.indexOf(probe));
+				assertEquals(Collections.frequency(expected, probe), gap.count(probe));
+
+				if (op % 100 == 0)
+					assertMatches(expected, gap);
+			}
+			assertMatches(expected, gap);
+		}
+	}
+
+	@Test
+	void vacatedSlotsAreCleared() throws ReflectiveOperationException {
+		GapAtoms<Integer> gap = new GapAtoms<>(new Integer[] { 0, 1, 2, 3, 4, 5, 6, 7 });
+		gap.setGrowthPolicy(GrowthPolicy.DEFAULT.neverShrink());
+		gap.add(2, 100);
+		gap.add(7, 101);
+		gap.removeAt(1);
+		gap.add(0, 102);
+
+		Field field = GapAtoms.class.getDeclaredField("atoms");
+		field.setAccessible(true);
+		Object[] array = (Object[]) field.get(gap);
+		int held = 0;
+		for (Object o : array)
+			if (o != null)
+				held++;
+
+		assertEquals(gap.size(), held);
+		assertEquals("[102, 0, 100, 2, 3, 4, 5, 101, 6, 7]", gap.toString());
+	}
+
+	@Test
+	void indexesAreChecked() {
+		GapAtoms<Integer> gap = new GapAtoms<>(new Integer[] { 1, 2 });
+
+		assertThrows(IndexOutOfBoundsException.class, () -> gap.get(2));
+		assertThrows(IndexOutOfBoundsException.class, () -> gap.add(3, 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> gap.removeAt(-1));
+		assertThrows(IndexOutOfBoundsException.class, () -> gap.set(2, 0));
+		assertFalse(gap.contains(3));
+
+		gap.clear();
+		assertTrue(gap.isEmpty());
+		gap.add(0, 5);
+		assertEquals("[5]", gap.toString());
+	}
+}
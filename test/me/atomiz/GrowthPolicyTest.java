@@ -0,0 +1,66 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrowthPolicyTest {
+
+	@Test
+	void policiesGrowToAtLeastTheRequiredCapacity() {
+		assertEquals(GrowthPolicy.MIN_CAPACITY, GrowthPolicy.doubling().grow(0, 1));
+		assertEquals(64, GrowthPolicy.doubling().grow(32, 33));
+		assertEquals(100, GrowthPolicy.doubling().grow(32, 100));
+		assertEquals(48, GrowthPolicy.oneAndHalf().grow(32, 33));
+		assertEquals(132, GrowthPolicy.fixedChunk(100).grow(32, 33));
+		assertEquals(GrowthPolicy.MAX_CAPACITY, GrowthPolicy.doubling().grow(Integer.MAX_VALUE / 2 + 1, Integer.MAX_VALUE / 2 + 2));
+		assertThrows(OutOfMemoryError.class, () -> GrowthPolicy.doubling().grow(10, -1));
+		assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.fixedChunk(0));
+	}
+
+	@Test
+	void hysteresisShrinksOnlyBelowAQuarter() {
+		GrowthPolicy policy = GrowthPolicy.DEFAULT;
+
+		assertEquals(64, policy.shrink(64, 17));
+		assertEquals(32, policy.shrink(64, 16));
+		assertEquals(GrowthPolicy.MIN_CAPACITY, policy.shrink(GrowthPolicy.MIN_CAPACITY, 0));
+		assertEquals(64, policy.neverShrink().shrink(64, 0));
+		assertEquals(64, policy.neverShrink().grow(32, 33));
+	}
+
+	@Test
+	void listsAlternatingAroundOneSizeDoNotReallocate() {
+		Atoms<Integer> atoms = new Atoms<>();
+		for (int i = 0; i < 64; i++)
+			atoms.add(i);
+
+		int capacity = atoms.capacity();
+		for (int i = 0; i < 1_000; i++) {
+			atoms.add(i);
+			atoms.removeLast();
+		}
+		assertEquals(capacity, atoms.capacity());
+
+		while (atoms.size() > 4)
+			atoms.removeLast();
+		assertTrue(atoms.capacity() < capacity);
+		assertTrue(atoms.capacity() >= atoms.size());
+	}
+
+	@Test
+	void capacityCanBeReservedAndTrimmed() {
+		Atoms<Integer> atoms = new Atoms<>();
+		atoms.setGrowthPolicy(GrowthPolicy.fixedChunk(3).neverShrink());
+		atoms.ensureCapacity(100);
+		assertEquals(100, atoms.capacity());
+
+		for (int i = 0; i < 101; i++)
+			atoms.add(i);
+		assertEquals(103, atoms.capacity());
+
+		atoms.trimToSize();
+		assertEquals(101, atoms.capacity());
+		assertEquals(100, atoms.get(100));
+	}
+}
@@ -0,0 +1,132 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedAtomsTest {
+	@TempDir
+	Path dir;
+
+	private static Atom atom(int i) {
+		return new Atom(i % 5 == 0 ? null : "atom" + i % 300, i, AtomicState.values()[i % 5], i * 0.5, i * 0.25, i);
+	}
+
+	@Test
+	void reopenedFilesHoldTheClosedElements() throws IOException {
+		Path path = dir.resolve("atoms");
+		int n = 5_000;
+		try (MappedAtoms atoms = MappedAtoms.open(path)) {
+			for (int i = 0; i < n; i++)
+				atoms.add(atom(i));
+			atoms.set(1, new Atom("replaced"));
+			atoms.removeLast();
+		}
+
+		try (MappedAtoms atoms = MappedAtoms.open(path)) {
+			assertEquals(n - 1, atoms.size());
+			assertEquals("replaced", atoms.get(1).name);
+			for (int i = 2; i < n - 1; i++)
+				assertEquals(atom(i), atoms.get(i));
+
+			atoms.add(new Atom("atom7"));
+			atoms.add(new Atom("new"));
+		}
+
+		try (MappedAtoms atoms = MappedAtoms.open(path)) {
+			assertEquals(n + 1, atoms.size());
+			assertEquals("new", atoms.get(n).name);
+			assertEquals(n / 5, atoms.countIf(c -> c.name() == null));
+			assertEquals(atom(42), atoms.toAtoms().get(42));
+		}
+	}
+
+	@Test
+	void unflushedChangesAreNotVisibleAfterACrash() throws IOException {
+		Path path = dir.resolve("atoms"), copy = dir.resolve("copy");
+		try (MappedAtoms atoms = MappedAtoms.open(path)) {
+			for (int i = 0; i < 100; i++)
+				atoms.add(atom(i));
+			atoms.flush();
+
+			for (int i = 100; i < 3_000; i++)
+				atoms.add(new Atom("unflushed" + i));
+
+			Files.copy(path, copy);
+			Files.copy(MappedAtoms.namesPath(path), MappedAtoms.namesPath(copy));
+		}
+
+		try (MappedAtoms atoms = MappedAtoms.open(copy)) {
+			assertEquals(100, atoms.size());
+			assertEquals(atom(99), atoms.get(99));
+		}
+	}
+
+	@Test
+	void corruptHeadersAreRejected() throws IOException {
+		Path path = dir.resolve("atoms");
+		try (MappedAtoms atoms = MappedAtoms.open(path)) {
+			atoms.add(new Atom("iron"));
+		}
+
+		assertRejected(path, 8, 1 << 20);
+		assertRejected(path, 8, -1);
+		assertRejected(path, 12, Integer.MAX_VALUE);
+		assertRejected(path, 16, 1 << 20);
+		assertRejected(path, 0, 0);
+		assertRejected(path, 4, 1);
+
+		try (FileChannel channel = FileChannel.open(MappedAtoms.namesPath(path), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(4).order(ByteOrder.nativeOrder()).putInt(0, 1 << 20), 0);
+		}
+		try (MappedAtoms atoms = MappedAtoms.open(path)) {
+			assertEquals(1, atoms.size());
+			assertThrows(UncheckedIOException.class, () -> atoms.add(new Atom("gold")));
+			atoms.add(new Atom(null));
+		}
+
+		Path truncated = dir.resolve("truncated");
+		Files.write(truncated, new byte[10]);
+		assertThrows(IOException.class, () -> MappedAtoms.open(truncated));
+	}
+
+	private static void assertRejected(Path path, int offset, int value) throws IOException {
+		ByteBuffer previous = ByteBuffer.allocate(4);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			channel.read(previous, offset);
+			channel.write(ByteBuffer.allocate(4).order(ByteOrder.nativeOrder()).putInt(0, value), offset);
+		}
+
+		assertThrows(IOException.class, () -> MappedAtoms.open(path));
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.write(previous.flip(), offset);
+		}
+		try (MappedAtoms atoms = MappedAtoms.open(path)) {
+			assertEquals("iron", atoms.get(0).name);
+		}
+	}
+
+	@Test
+	void closedListsRejectEveryAccess() throws IOException {
+		MappedAtoms atoms = MappedAtoms.open(dir.resolve("atoms"));
+		atoms.add(new Atom("neon"));
+		MappedAtoms.Cursor cursor = atoms.cursor().at(0);
+		atoms.close();
+		atoms.close();
+
+		assertThrows(IllegalStateException.class, atoms::size);
+		assertThrows(IllegalStateException.class, cursor::name);
+		assertThrows(IllegalStateException.class, cursor::mass);
+	}
+}
@@ -0,0 +1,95 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapAtomsTest {
+	private final static int CHUNK = 1 << 18;
+
+	@Test
+	void recordsRoundTrip() {
+		try (OffHeapAtoms atoms = new OffHeapAtoms()) {
+			Atom iron = new Atom("iron", 26, AtomicState.SOLID, 55.845, 7.874, 1811);
+			atoms.add(iron);
+			atoms.add(null, 0, null, 0, 0, 0);
+			atoms.add("\u00e4ther", 1, AtomicState.GAS, 1, 2, 3);
+
+			assertEquals(3, atoms.size());
+			assertEquals(iron, atoms.get(0));
+			assertNull(atoms.get(1).name);
+			assertNull(atoms.cursor().at(1).state());
+			assertEquals("\u00e4ther", atoms.cursor().at(2).name());
+			assertEquals(iron, atoms.set(0, new Atom("gold")));
+			assertEquals("gold", atoms.get(0).name);
+
+			atoms.removeLast();
+			assertEquals(2, atoms.size());
+			assertThrows(IndexOutOfBoundsException.class, () -> atoms.get(2));
+		}
+	}
+
+	@Test
+	void recordsSpanSeveralChunks() {
+		for (int initial : new int[]{ 0, CHUNK + 5 }) {
+			try (OffHeapAtoms atoms = new OffHeapAtoms(initial)) {
+				int n = 2 * CHUNK + 17;
+				for (int i = 0; i < n; i++)
+					atoms.add(i % 3 == 0 ? "a" : "b", i, AtomicState.SOLID, i * 0.5, 0, 0);
+
+				assertEquals(n, atoms.size());
+				assertEquals(n / 3 + 1, atoms.countIf(c -> c.name().equals("a")));
+				OffHeapAtoms.Cursor cursor = atoms.cursor();
+				for (int i : new int[]{ 0, CHUNK - 1, CHUNK, CHUNK + 5, 2 * CHUNK, n - 1 }) {
+					assertEquals(i, cursor.at(i).number());
+					assertEquals(i * 0.5, cursor.mass());
+				}
+				assertTrue(atoms.bytes() >= (long) n * AtomLayout.RECORD);
+			}
+		}
+	}
+
+	@Test
+	void storedNamesAreNotStoredAgain() {
+		try (OffHeapAtoms atoms = new OffHeapAtoms(1)) {
+			atoms.add(new Atom("hydrogen"));
+			long bytes = atoms.bytes();
+			atoms.add(new Atom("hydrogen"));
+			atoms.set(0, new Atom("hydrogen"));
+
+			assertEquals(bytes + 40, atoms.bytes());
+			assertEquals("hydrogen", atoms.get(1).name);
+		}
+	}
+
+	@Test
+	void closedListsRejectEveryAccess() {
+		OffHeapAtoms atoms = new OffHeapAtoms();
+		atoms.add(new Atom("neon"));
+		OffHeapAtoms.Cursor cursor = atoms.cursor().at(0);
+		atoms.close();
+		atoms.close();
+
+		assertThrows(IllegalStateException.class, atoms::size);
+		assertThrows(IllegalStateException.class, () -> atoms.add(new Atom("x")));
+		assertThrows(IllegalStateException.class, cursor::number);
+		assertThrows(IllegalStateException.class, cursor::name);
+		assertThrows(IllegalStateException.class, cursor::toAtom);
+	}
+
+	@Test
+	void fullListsFailClearly() throws ReflectiveOperationException {
+		try (OffHeapAtoms atoms = new OffHeapAtoms()) {
+			Field size = OffHeapAtoms.class.getDeclaredField("size");
+			size.setAccessible(true);
+			size.setInt(atoms, OffHeapAtoms.MAX_SIZE);
+
+			IllegalStateException e = assertThrows(IllegalStateException.class, () -> atoms.add(new Atom("x")));
+			assertTrue(e.getMessage().contains("full"));
+			size.setInt(atoms, 0);
+		}
+		assertThrows(IllegalArgumentException.class, () -> new OffHeapAtoms(-1));
+	}
+}
@@ -0,0 +1,83 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelismTest {
+	private final static ForkJoinPool POOL = new ForkJoinPool(4);
+	private final static Parallelism PARALLEL = Parallelism.of(POOL, 64);
+
+	@AfterAll
+	static void shutdown() {
+		POOL.shutdown();
+	}
+
+	private static Atoms<Integer> random(long seed, int n) {
+		Random random = new Random(seed);
+		Atoms<Integer> atoms = new Atoms<>();
+		for (int i = 0; i < n; i++)
+			atoms.add(random.nextInt(10) == 0 ? null : random.nextInt(100));
+
+		return atoms;
+	}
+
+	@Test
+	void chunksCoverTheRangeExactlyOnce() {
+		assertEquals(1, PARALLEL.chunks(127));
+		assertEquals(16, PARALLEL.chunks(100_000));
+		assertEquals(1, Parallelism.of(new ForkJoinPool(1), 1).chunks(100_000));
+
+		for (int chunks = 1; chunks < 20; chunks++) {
+			assertEquals(0, Parallelism.start(0, chunks, 1_001));
+			assertEquals(1_001, Parallelism.start(chunks, chunks, 1_001));
+			for (int c = 0; c < chunks; c++)
+				assertTrue(Parallelism.start(c, chunks, 1_001) <= Parallelism.start(c + 1, chunks, 1_001));
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> Parallelism.of(POOL, 0));
+	}
+
+	@Test
+	void parallelOperationsMatchSequentialOnes() {
+		for (int n : new int[]{ 0, 1, 63, 1_000, 10_007 }) {
+			Atoms<Integer> sequential = random(n, n);
+			Atoms<Integer> parallel = random(n, n);
+
+			assertEquals(sequential.countIf(e -> e != null && e > 50), parallel.countIf(e -> e != null && e > 50, PARALLEL));
+			assertEquals(sequential.count(null), parallel.count(null, PARALLEL));
+			assertEquals(sequential.replaceAll(7, -7), parallel.replaceAll(7, -7, PARALLEL));
+			assertEquals(sequential.removeIf(e -> e == null || e % 3 == 0), parallel.removeIf(e -> e == null || e % 3 == 0, PARALLEL));
+			assertEquals(sequential.stream().toList(), parallel.stream().toList());
+
+			LongAdder sum = new LongAdder();
+			parallel.forEach(e -> sum.add(e), PARALLEL);
+			assertEquals(sequential.stream().mapToLong(e -> e).sum(), sum.sum());
+		}
+	}
+
+	@Test
+	void parallelRemoveIfKeepsTheIndexInSync() {
+		Atoms<Integer> atoms = random(1, 5_000);
+		atoms.setIndexed(true);
+		atoms.removeIf(e -> e == null || e < 50, PARALLEL);
+
+		assertEquals(-1, atoms.indexOf(null));
+		assertEquals(atoms.stream().toList().indexOf(75), atoms.indexOf(75));
+		assertEquals(atoms.countIf(e -> e == 75), atoms.count(75, PARALLEL));
+	}
+
+	@Test
+	void viewsCountTheirWindowOnly() {
+		Atoms<Integer> atoms = random(2, 10_000);
+		Atoms<Integer> view = atoms.subList(1_000, 9_000);
+
+		assertEquals(view.countIf(e -> e == null), view.countIf(e -> e == null, PARALLEL));
+		assertThrows(UnsupportedOperationException.class, () -> view.removeIf(e -> true, PARALLEL));
+	}
+}
@@ -0,0 +1,168 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentAtomsTest {
+
+	private static void assertMatches(List<Integer> expected, PersistentAtoms<Integer> atoms) {
+		assertEquals(expected.size(), atoms.size());
+		for (int i = 0; i < expected.size(); i++)
+			assertEquals(expected.get(i), atoms.get(i), "index " + i);
+
+		List<Integer> iterated = new ArrayList<>();
+		atoms.forEach(iterated::add);
+		assertEquals(expected, iterated);
+		assertEquals(expected, atoms.stream().toList());
+	}
+
+	@Test
+	void oldVersionsNeverChange() {
+		Random random = new Random(24);
+		List<PersistentAtoms<Integer>> versions = new ArrayList<>();
+		List<List<Integer>> expected = new ArrayList<>();
+		versions.add(PersistentAtoms.empty());
+		expected.add(List.of());
+
+		for (int op = 0; op < 3_000; op++) {
+			int from = random.nextInt(versions.size());
+			PersistentAtoms<Integer> version = versions.get(from);
+			List<Integer> list = new ArrayList<>(expected.get(from));
+
+			switch (random.nextInt(8)) {
+				case 0, 1, 2 -> {
+					version = version.add(op);
+					list.add(op);
+				}
+				case 3 -> {
+					if (!list.isEmpty()) {
+						int i = random.nextInt(list.size());
+						version = version.set(i, -op);
+						list.set(i, -op);
+					}
+				}
+				case 4 -> {
+					version = version.removeLast();
+					if (!list.isEmpty())
+						list.remove(list.size() - 1);
+				}
+				case 5 -> {
+					int a = random.nextInt(list.size() + 1), b = random.nextInt(list.size() + 1);
+					version = version.subList(Math.min(a, b), Math.max(a, b));
+					list = new ArrayList<>(list.subList(Math.min(a, b), Math.max(a, b)));
+				}
+				case 6 -> {
+					int amount = random.nextInt(100);
+					PersistentAtoms.Transient<Integer> t = version.asTransient();
+					for (int i = 0; i < amount; i++) {
+						t.add(op * 1_000 + i);
+						list.add(op * 1_000 + i);
+					}
+					version = t.persistent();
+				}
+				default -> {
+					int other = random.nextInt(versions.size());
+					version = version.addAll(versions.get(other));
+					list.addAll(expected.get(other));
+				}
+			}
+
+			versions.add(version);
+			expected.add(list);
+			assertMatches(list, version);
+		}
+
+		for (int v = 0; v < versions.size(); v++)
+			assertMatches(expected.get(v), versions.get(v));
+	}
+
+	@Test
+	void trieGrowsAndShrinksAcrossLevels() {
+		int size = 32 * 32 * 32 + 40;
+		PersistentAtoms<Integer> atoms = PersistentAtoms.empty();
+		List<PersistentAtoms<Integer>> versions = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			atoms = atoms.add(i);
+			if (i % 31 == 0 || i == 32 || i == 33 || i == 1024 || i == 1025 || i == 1056 || i == 1057)
+				versions.add(atoms);
+		}
+
+		PersistentAtoms.Transient<Integer> t = PersistentAtoms.<Integer>empty().asTransient();
+		for (int i = 0; i < size; i++)
+			t.add(i);
+		PersistentAtoms<Integer> built = t.persistent();
+
+		for (int i = 0; i < size; i += 97) {
+			assertEquals(i, atoms.get(i));
+			assertEquals(i, built.get(i));
+		}
+
+		PersistentAtoms<Integer> shrunk = atoms;
+		PersistentAtoms.Transient<Integer> shrinking = built.asTransient();
+		for (int n = size; n > 0; n--) {
+			assertEquals(n - 1, shrunk.get(n - 1));
+			assertEquals(n - 1, shrinking.get(n - 1));
+			shrunk = shrunk.removeLast();
+			shrinking.removeLast();
+			assertEquals(n - 1, shrunk.size());
+			assertEquals(n - 1, shrinking.size());
+		}
+		assertTrue(shrunk.isEmpty());
+		assertTrue(shrinking.persistent().isEmpty());
+
+		assertEquals(size, atoms.size());
+		for (PersistentAtoms<Integer> version : versions) {
+			for (int i = 0; i < version.size(); i++)
+				assertEquals(i, version.get(i));
+		}
+	}
+
+	@Test
+	void transientsCopyTheNodesTheyEdit() {
+		PersistentAtoms<Integer> atoms = PersistentAtoms.of(0, 1, 2);
+		for (int i = 3; i < 2_000; i++)
+			atoms = atoms.add(i);
+
+		PersistentAtoms.Transient<Integer> t = atoms.asTransient();
+		for (int i = 0; i < 2_000; i += 7)
+			t.set(i, -i);
+		t.removeLast().add(-1);
+
+		for (int i = 0; i < 2_000; i++)
+			assertEquals(i, atoms.get(i));
+
+		PersistentAtoms<Integer> edited = t.persistent();
+		assertEquals(-7, edited.get(7));
+		assertEquals(-1, edited.get(1_999));
+		assertThrows(IllegalStateException.class, () -> t.add(1));
+		assertThrows(IllegalStateException.class, t::size);
+	}
+
+	@Test
+	void subListsShowAWindowOfTheTrie() {
+		PersistentAtoms<Integer> atoms = PersistentAtoms.of(0, 1, 2, 3, 4, 5);
+		PersistentAtoms<Integer> sub = atoms.subList(1, 4);
+
+		assertEquals("[1, 2, 3]", sub.toString());
+		assertEquals(1, sub.indexOf(2));
+		assertEquals(-1, sub.indexOf(4));
+		assertFalse(sub.contains(0));
+		assertEquals(1, sub.count(3));
+		assertEquals("[1, 2, 3, 9]", sub.add(9).toString());
+		assertEquals("[1, 2]", sub.removeLast().toString());
+		assertEquals("[2]", sub.subList(1, 2).toString());
+		assertEquals(List.of(1, 2, 3), sub.toAtoms().stream().toList());
+		assertEquals("[0, 1, 2, 3, 4, 5]", atoms.toString());
+		assertThrows(IndexOutOfBoundsException.class, () -> sub.get(3));
+		assertThrows(IndexOutOfBoundsException.class, () -> sub.subList(0, 4));
+		assertSame(atoms, PersistentAtoms.<Integer>empty().addAll(atoms));
+		assertSame(atoms, atoms.addAll(PersistentAtoms.empty()));
+		assertEquals("[1, 2, 3]", PersistentAtoms.<Integer>empty().addAll(sub).toString());
+		assertEquals("[1, 2, 3, 1, 2, 3]", sub.addAll(sub).toString());
+	}
+}
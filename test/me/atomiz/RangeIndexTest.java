@@ -0,0 +1,128 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeIndexTest {
+	private final static double[] KEYS = { -1, -0.0, 0, 0.5, 1, 1, 2, Double.NaN, Double.POSITIVE_INFINITY };
+
+	private static Double key(Random random) {
+		return random.nextInt(10) == 0 ? null : KEYS[random.nextInt(KEYS.length)];
+	}
+
+	/**
+	 * Returns the positions of the non null elements ordered like the index orders them.
+	 */
+	private static int[] sorted(Atoms<Double> atoms) {
+		List<Integer> order = new ArrayList<>();
+		for (int i = 0; i < atoms.size(); i++)
+			if (atoms.get(i) != null)
+				order.add(i);
+
+		order.sort(Comparator.<Integer, Double>comparing(atoms::get, Double::compare).thenComparingInt(i -> i));
+		return order.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static int[] filter(int[] sorted, IntPredicate compare) {
+		return Arrays.stream(sorted).filter(compare).toArray();
+	}
+
+	private static void assertIndexed(Atoms<Double> atoms, RangeIndex<Double> index) {
+		int[] sorted = sorted(atoms);
+		assertEquals(sorted.length, index.size());
+		assertArrayEquals(sorted, index.bottom(Integer.MAX_VALUE));
+
+		for (double lo : KEYS) {
+			for (double hi : KEYS) {
+				int[] expected = filter(sorted, i -> Double.compare(atoms.get(i), lo) >= 0 && Double.compare(atoms.get(i), hi) <= 0);
+				assertArrayEquals(expected, index.range(lo, hi), lo + ".." + hi);
+				assertEquals(expected.length, index.count(lo, hi));
+			}
+
+			int[] above = filter(sorted, i -> Double.compare(atoms.get(i), lo) > 0);
+			assertArrayEquals(above, index.above(lo), "above " + lo);
+			assertEquals(above.length, index.countAbove(lo));
+
+			int[] below = filter(sorted, i -> Double.compare(atoms.get(i), lo) < 0);
+			assertArrayEquals(below, index.below(lo), "below " + lo);
+			assertEquals(below.length, index.countBelow(lo));
+		}
+	}
+
+	@Test
+	void indexFollowsRandomEdits() {
+		Random random = new Random(19);
+		Atoms<Double> atoms = new Atoms<>();
+		for (int i = 0; i < 40; i++)
+			atoms.add(key(random));
+
+		RangeIndex<Double> index = new RangeIndex<>(Double::doubleValue);
+		atoms.addIndex(index);
+		assertIndexed(atoms, index);
+
+		for (int op = 0; op < 2_000; op++) {
+			switch (random.nextInt(6)) {
+				case 0 -> atoms.add(key(random));
+				case 1 -> atoms.add(random.nextInt(atoms.size() + 1), key(random));
+				case 2 -> {
+					if (!atoms.isEmpty())
+						atoms.set(random.nextInt(atoms.size()), key(random));
+				}
+				case 3 -> {
+					if (!atoms.isEmpty())
+						atoms.remove(atoms.get(random.nextInt(atoms.size())));
+				}
+				case 4 -> atoms.removeLast();
+				default -> {
+					if (random.nextInt(30) == 0)
+						atoms.removeIf(d -> d != null && d == 1);
+				}
+			}
+
+			if (op % 25 == 0)
+				assertIndexed(atoms, index);
+		}
+		assertIndexed(atoms, index);
+	}
+
+	@Test
+	void topAndBottomAreOrderedByKeyThenPosition() {
+		Atoms<Double> atoms = new Atoms<>(new Double[] { 3.0, 1.0, null, 2.0, 1.0, 5.0 });
+		RangeIndex<Double> index = new RangeIndex<>(Double::doubleValue);
+		atoms.addIndex(index);
+
+		assertArrayEquals(new int[] { 5, 0, 3 }, index.top(3));
+		assertArrayEquals(new int[] { 1, 4 }, index.bottom(2));
+		assertArrayEquals(new int[0], index.top(-1));
+		assertEquals(5, index.top(10).length);
+		assertEquals(1, index.min());
+		assertEquals(5, index.max());
+
+		atoms.clear();
+		assertTrue(Double.isNaN(index.min()));
+		assertTrue(Double.isNaN(index.max()));
+		assertArrayEquals(new int[0], index.range(0, 10));
+	}
+
+	@Test
+	void appendsOfGrowingKeysStayOrdered() {
+		Atoms<Atom> atoms = new Atoms<>();
+		AtomIndexes indexes = new AtomIndexes(atoms).byMass().byDensity().byMeltingPoint();
+		for (int i = 0; i < 10_000; i++)
+			atoms.add(new Atom("a" + i, i, AtomicState.SOLID, i, -i, i % 100));
+
+		assertEquals(10_000, indexes.mass().size());
+		assertEquals(100, indexes.mass().count(100, 199.5));
+		assertEquals(9_999, indexes.density().bottom(1)[0]);
+		assertEquals(100, indexes.meltingPoint().countAbove(98.5));
+		assertTrue(indexes.bytes() >= 3 * 10_000 * 12L);
+	}
+}
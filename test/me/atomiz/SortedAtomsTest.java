@@ -0,0 +1,138 @@
+package me.atomiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedAtomsTest {
+
+	private static Atom atom(String name, int number) {
+		return new Atom(name, number, AtomicState.SOLID, number, number, number);
+	}
+
+	private static void assertMatches(List<Atom> expected, SortedAtoms<Atom> atoms) {
+		assertEquals(expected.size(), atoms.size());
+		for (int i = 0; i < expected.size(); i++)
+			assertSame(expected.get(i), atoms.get(i), "index " + i);
+	}
+
+	@Test
+	void randomEditsStayOrderedAndStable() {
+		Random random = new Random(17);
+		SortedAtoms<Atom> atoms = new SortedAtoms<>(a -> a.number);
+		List<Atom> expected = new ArrayList<>();
+
+		for (int op = 0; op < 5_000; op++) {
+			int kind = random.nextInt(5);
+			if (kind == 0 && !expected.isEmpty()) {
+				int i = random.nextInt(expected.size());
+				assertSame(expected.remove(i), atoms.removeAt(i));
+			} else if (kind == 1 && !expected.isEmpty()) {
+				Atom e = expected.get(random.nextInt(expected.size()));
+				assertEquals(expected.remove(e), atoms.remove(e));
+			} else if (kind == 2) {
+				Atom[] batch = new Atom[random.nextInt(20)];
+				for (int i = 0; i < batch.length; i++)
+					batch[i] = atom("b" + op + "." + i, random.nextInt(50));
+
+				expected.addAll(List.of(batch));
+				expected.sort(Comparator.comparingInt(a -> a.number));
+				if (random.nextBoolean())
+					atoms.addAll(batch);
+				else
+					atoms.addAll(List.of(batch));
+			} else {
+				Atom e = atom("a" + op, random.nextInt(50));
+				expected.add(e);
+				expected.sort(Comparator.comparingInt(a -> a.number));
+				assertSame(e, atoms.get(atoms.add(e)));
+			}
+
+			if (op % 100 == 0)
+				assertMatches(expected, atoms);
+		}
+		assertMatches(expected, atoms);
+
+		int before = expected.size();
+		expected.removeIf(a -> a.number % 3 == 0);
+		assertEquals(before - expected.size(), atoms.removeIf(a -> a.number % 3 == 0));
+		assertMatches(expected, atoms);
+	}
+
+	@Test
+	void equalElementsKeepTheirAddOrder() {
+		SortedAtoms<Atom> atoms = new SortedAtoms<>(a -> a.number);
+		Atom first = atom("first", 1), second = atom("second", 1), third = atom("third", 1), zero = atom("zero", 0);
+
+		atoms.add(first);
+		atoms.add(zero);
+		atoms.add(second);
+		atoms.addAll(new Atom[] { third });
+
+		assertMatches(List.of(zero, first, second, third), atoms);
+	}
+
+	@Test
+	void lookupsByKey() {
+		SortedAtoms<Atom> atoms = new SortedAtoms<>(a -> a.number);
+		Atom a10 = atom("a", 10), b10 = atom("b", 10), c20 = atom("c", 20), d30 = atom("d", 30);
+		atoms.addAll(List.of(d30, b10, c20));
+		atoms.add(a10);
+
+		assertSame(b10, atoms.find(10));
+		assertNull(atoms.find(15));
+		assertSame(a10, atoms.floor(15));
+		assertNull(atoms.floor(9));
+		assertSame(c20, atoms.ceiling(15));
+		assertNull(atoms.ceiling(31));
+		assertEquals(List.of(b10, a10, c20), atoms.rangeBetween(10, 20).stream().toList());
+		assertTrue(atoms.rangeBetween(21, 29).isEmpty());
+		assertTrue(atoms.rangeBetween(30, 10).isEmpty());
+
+		assertTrue(atoms.contains(a10));
+		assertTrue(atoms.contains(atom("a", 10)));
+		assertFalse(atoms.contains(atom("z", 10)));
+		assertEquals(1, atoms.indexOf(a10));
+		assertEquals(1, atoms.count(c20));
+		assertEquals(2, atoms.countIf(a -> a.number == 10));
+	}
+
+	@Test
+	void lookupsByComparator() {
+		SortedAtoms<String> atoms = new SortedAtoms<>(Comparator.<String>naturalOrder());
+		atoms.addAll(new String[] { "neon", "argon", "helium", "xenon" });
+
+		assertEquals("[argon, helium, neon, xenon]", atoms.toString());
+		assertEquals("helium", atoms.find("helium"));
+		assertNull(atoms.find("krypton"));
+		assertEquals("helium", atoms.floor("krypton"));
+		assertEquals("neon", atoms.ceiling("krypton"));
+		assertEquals(List.of("helium", "neon"), atoms.rangeBetween("b", "o").stream().toList());
+		assertThrows(IllegalStateException.class, () -> atoms.find(1));
+		assertThrows(IllegalStateException.class, () -> atoms.rangeBetween(1, 2));
+	}
+
+	@Test
+	void clearAndRemoveShrinkTheList() {
+		SortedAtoms<Integer> atoms = new SortedAtoms<>(Integer::intValue);
+		for (int i = 0; i < 100; i++)
+			atoms.add(99 - i);
+
+		assertEquals(0, atoms.get(0));
+		assertEquals(100, atoms.size());
+		assertEquals(50, atoms.removeIf(i -> i % 2 == 0));
+		assertEquals(1, atoms.get(0));
+		assertThrows(IndexOutOfBoundsException.class, () -> atoms.get(50));
+
+		atoms.clear();
+		assertTrue(atoms.isEmpty());
+		assertNull(atoms.ceiling(0));
+		atoms.add(5);
+		assertEquals(List.of(5), atoms.toAtoms().stream().toList());
+	}
+}